@@ -0,0 +1,121 @@
+package com.mrsnottypants.gamecomponent.benchmark;
+
+import com.mrsnottypants.gamecomponent.DirectGameRound;
+import com.mrsnottypants.gamecomponent.Game;
+import com.mrsnottypants.gamecomponent.GameMetrics;
+import com.mrsnottypants.gamecomponent.GameRound;
+import com.mrsnottypants.gamecomponent.GameState;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Game.play over synthetic rounds, varying the number of rounds, how often rounds repeat, and the round
+ * contract: optional rounds, direct rounds, direct rounds in a compiled game, or direct rounds measured by metrics
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GamePlayBenchmark {
+
+    // rounds performed per game
+    private static final int ROUNDS_PER_GAME = 1000;
+
+    @Param({"1", "4", "16"})
+    public int roundCount;
+
+    @Param({"0.0", "0.5", "0.9"})
+    public double repeatRate;
+
+    @Param({"optional", "direct", "compiled", "metrics"})
+    public String contract;
+
+    private Game game;
+    private SyntheticState state;
+
+    // counts rounds performed, with a repeatable pseudo-random sequence deciding repeats
+    //
+    private static final class SyntheticState implements GameState {
+
+        private int performed;
+        private long seed;
+
+        void reset() {
+            performed = 0;
+            seed = 0x9E3779B97F4A7C15L;
+        }
+
+        boolean perform(double repeatRate) {
+            ++performed;
+            seed ^= seed << 13;
+            seed ^= seed >>> 7;
+            seed ^= seed << 17;
+            return (seed >>> 11) * 0x1.0p-53 < repeatRate;
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return performed >= ROUNDS_PER_GAME;
+        }
+    }
+
+    // round returning an optional
+    //
+    private static final class OptionalRound implements GameRound {
+
+        private final double repeatRate;
+
+        OptionalRound(double repeatRate) {
+            this.repeatRate = repeatRate;
+        }
+
+        @Override
+        public Optional<GameRound> perform(GameState gameState) {
+            return ((SyntheticState) gameState).perform(repeatRate) ? Optional.of(this) : Optional.empty();
+        }
+    }
+
+    // round returning the next round directly
+    //
+    private static final class DirectRound implements DirectGameRound {
+
+        private final double repeatRate;
+
+        DirectRound(double repeatRate) {
+            this.repeatRate = repeatRate;
+        }
+
+        @Override
+        public DirectGameRound performDirect(GameState gameState) {
+            return ((SyntheticState) gameState).perform(repeatRate) ? this : null;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Game.Builder builder = new Game.Builder();
+        for (int round = 0; round < roundCount; ++round) {
+            builder.addGameRound("optional".equals(contract) ?
+                    new OptionalRound(repeatRate) : new DirectRound(repeatRate));
+        }
+        if ("compiled".equals(contract)) {
+            builder.compile();
+        }
+        if ("metrics".equals(contract)) {
+            builder.addListener(new GameMetrics());
+        }
+        game = builder.build();
+        state = new SyntheticState();
+    }
+
+    @Benchmark
+    public int play() {
+        state.reset();
+        game.play(state);
+        return state.performed;
+    }
+}
@@ -0,0 +1,87 @@
+package com.mrsnottypants.gamecomponent.benchmark;
+
+import com.mrsnottypants.gamecomponent.LoopingIterable;
+import com.mrsnottypants.gamecomponent.RingIterable;
+import com.mrsnottypants.gamecomponent.TurnOrder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures endless iteration, as used for player rotation, against a plain indexed loop
+ * Each operation makes a fixed number of laps over a short list
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoopingIterableBenchmark {
+
+    private static final int LAPS = 64;
+
+    @Param({"2", "4", "16"})
+    public int size;
+
+    private List<Integer> list;
+    private int[] values;
+    private Iterable<Integer> looping;
+    private RingIterable<Integer> ring;
+
+    @Setup
+    public void setUp() {
+        list = new ArrayList<>();
+        values = new int[size];
+        for (int index = 0; index < size; ++index) {
+            list.add(index);
+            values[index] = index;
+        }
+        looping = LoopingIterable.of(list);
+        ring = RingIterable.of(list);
+    }
+
+    @Benchmark
+    public int loopingIterable() {
+        int sum = 0;
+        Iterator<Integer> iterator = looping.iterator();
+        for (int step = size * LAPS; step > 0; --step) {
+            sum += iterator.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int ringIterable() {
+        int sum = 0;
+        Iterator<Integer> iterator = ring.iterator();
+        for (int step = size * LAPS; step > 0; --step) {
+            sum += iterator.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int turnOrder() {
+        int sum = 0;
+        TurnOrder turnOrder = new TurnOrder(size);
+        for (int step = size * LAPS; step > 0; --step) {
+            sum += values[turnOrder.nextInt()];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int indexedLoop() {
+        int sum = 0;
+        for (int lap = 0; lap < LAPS; ++lap) {
+            for (int index = 0; index < size; ++index) {
+                sum += values[index];
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,109 @@
+package com.mrsnottypants.gamecomponent.benchmark;
+
+import com.mrsnottypants.gamecomponent.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Player.consider with a number of strategies spread across several strategy types
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerConsiderBenchmark {
+
+    private static final int CARDS = 52;
+    private static final int[] HAND = {3, 9, 14, 22, 27, 35, 41, 50};
+
+    @Param({"1", "4", "16", "64"})
+    public int strategyCount;
+
+    @Param({"1", "4"})
+    public int typeCount;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Player player;
+    private PlayStrategyType[] types;
+    private PlayerState playerState;
+    private GameState gameState;
+    private WeightedPlayChoice playChoice;
+
+    // strategy type with a fixed key
+    //
+    private static final class BenchmarkType implements PlayStrategyType {
+
+        private final int key;
+
+        BenchmarkType(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public int getKey() {
+            return key;
+        }
+    }
+
+    // weighs every card in hand by a per-strategy factor
+    //
+    private static final class WeighStrategy implements PlayStrategy {
+
+        private final int factor;
+
+        WeighStrategy(int factor) {
+            this.factor = factor;
+        }
+
+        @Override
+        public void consider(PlayerState playerState, GameState gameState, PlayChoice playChoice) {
+            WeightedPlayChoice weighted = (WeightedPlayChoice) playChoice;
+            for (int card : HAND) {
+                weighted.weigh(card, (card * factor) % 13);
+            }
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        types = new PlayStrategyType[typeCount];
+        for (int key = 0; key < typeCount; ++key) {
+            types[key] = new BenchmarkType(key);
+        }
+        Player.Builder builder = new Player.Builder(true);
+        for (int strategy = 0; strategy < strategyCount; ++strategy) {
+            builder.addPlayStrategy(types[strategy % typeCount], new WeighStrategy(strategy + 1));
+        }
+        if (parallel) {
+            builder.parallel();
+        }
+        player = builder.build();
+        playerState = new PlayerState() {
+            @Override
+            public String getName() {
+                return "Bot";
+            }
+
+            @Override
+            public int getScore() {
+                return 0;
+            }
+        };
+        gameState = () -> false;
+        playChoice = new WeightedPlayChoice(CARDS);
+    }
+
+    @Benchmark
+    public int consider() {
+        playChoice.clear();
+        for (PlayStrategyType type : types) {
+            player.consider(type, playerState, gameState, playChoice);
+        }
+        return playChoice.argmax();
+    }
+}
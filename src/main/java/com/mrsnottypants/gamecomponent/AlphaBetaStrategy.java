@@ -0,0 +1,498 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A play strategy that weighs moves by iterative-deepening alpha-beta search, averaging over chance nodes
+ *
+ * The search deepens one ply at a time until the depth limit or the time budget, keeping the result of the deepest
+ * search completed.  Nodes where the searching player moves take the best value for that player, other players'
+ * nodes take the worst, and chance nodes take the average over their moves weighted by probability, as expectimax.
+ * Values are the searching player's reward, so games of more than two players are searched as if every other player
+ * plays against the searcher.
+ *
+ * Moves are ordered by the best move of the transposition table, then by how often they caused a cutoff.  With a
+ * transposition table, and states that are hashed states, positions searched before are looked up rather than
+ * searched again.  Searching on several threads is Lazy SMP: every thread searches the whole tree from the root,
+ * helpers starting one ply deeper on alternate threads, and threads share only the table.
+ *
+ * The time budget is hard, except that the first ply is always searched.  Each root move is weighed by its value
+ * in the weighted play choice passed to consider: the best move by its value, other moves by an upper bound of
+ * theirs, no higher than the best.  The best move is weighed first, so it wins ties.
+ *
+ * This is a flyweight class, meaning immutable with state externalized; the table is shared by every decision.
+ */
+public class AlphaBetaStrategy<S extends GameState & Restorable> implements PlayStrategy {
+
+    // nodes searched between checks of the time budget
+    private static final int CHECK_INTERVAL = 1024;
+
+    // table entries: value as a float, move + 1, depth, then bound
+    private static final long MISSING = -1L;
+    private static final int EXACT = 0;
+    private static final int LOWER = 1;
+    private static final int UPPER = 2;
+
+    // spaces out the table keys of the players searching, so each player's values are kept apart
+    private static final long PLAYER_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // most moves and depth that fit a table entry
+    private static final int MAX_MOVES = 0xFFFE;
+    private static final int MAX_DEPTH = 0xFF;
+
+    // thrown to unwind a search whose budget is spent
+    private static final RuntimeException TIMEOUT = new RuntimeException("Search budget spent", null, false, false) {
+    };
+
+    private final SearchModel<S> model;
+    private final ExecutorService executor;
+    private final int threads;
+    private final int maxDepth;
+    private final long timeBudgetNanos;
+    private final TranspositionTable table;
+
+    /**
+     * Construct a strategy from a strategy builder
+     * @param builder strategy builder
+     */
+    private AlphaBetaStrategy(Builder<S> builder) {
+        this.model = builder.model;
+        this.executor = builder.executor;
+        this.threads = builder.threads;
+        this.maxDepth = builder.maxDepth;
+        this.timeBudgetNanos = builder.timeBudgetNanos;
+        this.table = builder.tableCapacity > 0 ? new TranspositionTable(builder.tableCapacity) : null;
+    }
+
+    /**
+     * Search from the game state, and weigh each available move in the play choice
+     * @param playerState State of the player
+     * @param gameState State of the game, not changed, a player must be choosing its next move
+     * @param playChoice Weighted play choice, updated with a weight per move id
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void consider(PlayerState playerState, GameState gameState, PlayChoice playChoice) {
+        S state = (S) gameState;
+        WeightedPlayChoice weightedPlayChoice = (WeightedPlayChoice) playChoice;
+        if (state.isGameOver()) {
+            return;
+        }
+
+        // helper threads search copies of the state, alongside this thread
+        Search search = new Search(model.getPlayerToMove(state));
+        List<Future<?>> futures = new ArrayList<>(threads - 1);
+        for (int thread = 1; thread < threads; ++thread) {
+            S copy = model.copyState(state);
+            int helper = thread;
+            futures.add(executor.submit(() -> search.help(copy, helper)));
+        }
+        try {
+            search.deepen(model.copyState(state));
+        } finally {
+            search.stopped = true;
+            for (Future<?> future : futures) {
+                Simulation.await(future);
+            }
+        }
+        search.weigh(weightedPlayChoice);
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("AlphaBetaStrategy: Threads=%d, MaxDepth=%d, TimeBudget=%dns, Table=%s",
+                threads, maxDepth, timeBudgetNanos, table == null ? 0 : table.getCapacity());
+    }
+
+    // One decision, searched by every thread
+    //
+    private final class Search {
+
+        private final int player;
+        private final long tableKey;
+        private final long deadline = timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : 0;
+        private volatile boolean stopped = false;
+
+        // root moves and their values from the deepest search completed by this thread
+        private int[] rootMoves = null;
+        private double[] rootValues = null;
+        private int bestMove = -1;
+
+        Search(int player) {
+            this.player = player;
+            this.tableKey = (player + 1) * PLAYER_GAMMA;
+        }
+
+        /**
+         * Deepen until the depth limit or the time budget, keeping the deepest result
+         * @param state copy of the game state
+         */
+        void deepen(S state) {
+            Searcher searcher = new Searcher(state);
+            for (int depth = 1; depth <= maxDepth; ++depth) {
+                searcher.checked = depth > 1;
+                try {
+                    searcher.root(depth);
+                } catch (RuntimeException ex) {
+                    if (ex != TIMEOUT) {
+                        stopped = true;
+                        throw ex;
+                    }
+                    return;
+                }
+                rootMoves = searcher.rootMoves;
+                rootValues = searcher.rootValues;
+                bestMove = searcher.bestMove;
+            }
+        }
+
+        /**
+         * Deepen alongside the main thread, filling the table, until the search stops
+         * @param state copy of the game state
+         * @param helper index of the helper, from 1
+         */
+        void help(S state, int helper) {
+            Searcher searcher = new Searcher(state);
+            searcher.checked = true;
+            try {
+                for (int depth = 1 + (helper & 1); depth <= maxDepth && !stopped; ++depth) {
+                    searcher.root(depth);
+                }
+            } catch (RuntimeException ex) {
+                if (ex != TIMEOUT) {
+                    stopped = true;
+                    throw ex;
+                }
+            }
+        }
+
+        /**
+         * Weigh each root move by its value, the best move first
+         * @param playChoice updated with a weight per move
+         */
+        void weigh(WeightedPlayChoice playChoice) {
+            if (rootMoves == null) {
+                return;
+            }
+            for (int index = 0; index < rootMoves.length; ++index) {
+                if (rootMoves[index] == bestMove) {
+                    playChoice.weigh(bestMove, rootValues[index]);
+                }
+            }
+            for (int index = 0; index < rootMoves.length; ++index) {
+                if (rootMoves[index] != bestMove) {
+                    playChoice.weigh(rootMoves[index], rootValues[index]);
+                }
+            }
+        }
+
+        // Searches on one thread, with its own state, move lists and history
+        //
+        private final class Searcher {
+
+            private final S state;
+            private final int[][] moves;
+            private final int[] history;
+            private long nodes = 0;
+            boolean checked = true;
+
+            // result of the last root search
+            int[] rootMoves;
+            double[] rootValues;
+            int bestMove;
+
+            Searcher(S state) {
+                this.state = state;
+                this.moves = new int[maxDepth + 1][model.getMoveCapacity()];
+                this.history = new int[model.getMoveCapacity()];
+            }
+
+            /**
+             * Search every root move to a depth
+             * @param depth plies to search
+             */
+            void root(int depth) {
+                int count = model.getMoves(state, moves[0]);
+                order(moves[0], count, tableMove(probe()));
+                int[] searched = new int[count];
+                double[] values = new double[count];
+                double alpha = Double.NEGATIVE_INFINITY;
+                int best = -1;
+                for (int index = 0; index < count; ++index) {
+                    int move = moves[0][index];
+                    double value = child(move, depth, 1, alpha, Double.POSITIVE_INFINITY);
+                    searched[index] = move;
+                    values[index] = value;
+                    if (value > alpha || best < 0) {
+                        alpha = Math.max(alpha, value);
+                        best = move;
+                    }
+                }
+                if (table != null && state instanceof HashedState) {
+                    store(((HashedState) state).getHash(), alpha, best, depth, EXACT);
+                }
+                rootMoves = searched;
+                rootValues = values;
+                bestMove = best;
+            }
+
+            /**
+             * Apply a move, search the state it reaches, and restore
+             * @param move move to apply
+             * @param depth plies left before the move
+             * @param ply plies from the root after the move
+             * @param alpha value the searching player is assured of
+             * @param beta value the other players are assured of holding the searcher to
+             * @return value of the move
+             */
+            private double child(int move, int depth, int ply, double alpha, double beta) {
+                int snapshot = state.snapshot();
+                try {
+                    model.applyMove(state, move);
+                    return search(depth - 1, ply, alpha, beta);
+                } finally {
+                    state.restore(snapshot);
+                }
+            }
+
+            /**
+             * Return the value of the state, searching to a depth
+             * @param depth plies left
+             * @param ply plies from the root
+             * @param alpha value the searching player is assured of
+             * @param beta value the other players are assured of holding the searcher to
+             * @return value, or a bound beyond alpha or beta if the search was cut off
+             */
+            private double search(int depth, int ply, double alpha, double beta) {
+                if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && checked &&
+                        (stopped || deadline != 0 && System.nanoTime() - deadline > 0)) {
+                    stopped = true;
+                    throw TIMEOUT;
+                }
+                if (depth == 0 || state.isGameOver()) {
+                    return model.getReward(state, player);
+                }
+                int[] plyMoves = moves[ply];
+                int count = model.getMoves(state, plyMoves);
+                if (count == 0) {
+                    return model.getReward(state, player);
+                }
+
+                // chance nodes average every outcome, each searched with a full window
+                if (model.isChance(state)) {
+                    double value = 0.0;
+                    for (int index = 0; index < count; ++index) {
+                        int move = plyMoves[index];
+                        value += model.getChance(state, move, count) *
+                                child(move, depth, ply + 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+                    }
+                    return value;
+                }
+
+                // a deep enough table entry may settle the node
+                long entry = probe();
+                if (entry != MISSING && (int) (entry >>> 48 & MAX_DEPTH) >= depth) {
+                    double value = Float.intBitsToFloat((int) entry);
+                    int bound = (int) (entry >>> 56);
+                    if (bound == EXACT || bound == LOWER && value >= beta || bound == UPPER && value <= alpha) {
+                        return value;
+                    }
+                }
+                order(plyMoves, count, tableMove(entry));
+
+                boolean maximizing = model.getPlayerToMove(state) == player;
+                double originalAlpha = alpha;
+                double originalBeta = beta;
+                double best = maximizing ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+                int bestChild = plyMoves[0];
+                for (int index = 0; index < count; ++index) {
+                    int move = plyMoves[index];
+                    double value = child(move, depth, ply + 1, alpha, beta);
+                    if (maximizing ? value > best : value < best) {
+                        best = value;
+                        bestChild = move;
+                    }
+                    if (maximizing) {
+                        alpha = Math.max(alpha, value);
+                    } else {
+                        beta = Math.min(beta, value);
+                    }
+                    if (alpha >= beta) {
+                        history[move] += depth * depth;
+                        break;
+                    }
+                }
+                if (table != null && state instanceof HashedState) {
+                    int bound = best <= originalAlpha ? UPPER : best >= originalBeta ? LOWER : EXACT;
+                    store(((HashedState) state).getHash(), best, bestChild, depth, bound);
+                }
+                return best;
+            }
+
+            /**
+             * Return the table entry of the state
+             * @return entry, or MISSING
+             */
+            private long probe() {
+                if (table == null || !(state instanceof HashedState)) {
+                    return MISSING;
+                }
+                return table.probe(((HashedState) state).getHash() ^ tableKey, MISSING);
+            }
+
+            /**
+             * Store the value of the state in the table
+             * @param hash hash of the state
+             * @param value value found
+             * @param move best move found
+             * @param depth plies searched
+             * @param bound whether the value is exact, or a lower or upper bound
+             */
+            private void store(long hash, double value, int move, int depth, int bound) {
+                long entry = Float.floatToIntBits((float) value) & 0xFFFFFFFFL | (long) (move + 1) << 32 |
+                        (long) depth << 48 | (long) bound << 56;
+                table.store(hash ^ tableKey, entry);
+            }
+
+            /**
+             * Return the best move of a table entry
+             * @param entry entry, or MISSING
+             * @return move, or -1 if none
+             */
+            private int tableMove(long entry) {
+                return entry == MISSING ? -1 : (int) (entry >>> 32 & 0xFFFF) - 1;
+            }
+
+            /**
+             * Order moves best first: the table's move, then by how often each caused a cutoff
+             * @param plyMoves moves to order
+             * @param count number of moves
+             * @param tableMove best move of the table entry, or -1
+             */
+            private void order(int[] plyMoves, int count, int tableMove) {
+                for (int index = 1; index < count; ++index) {
+                    int move = plyMoves[index];
+                    long score = score(move, tableMove);
+                    int position = index;
+                    while (position > 0 && score(plyMoves[position - 1], tableMove) < score) {
+                        plyMoves[position] = plyMoves[position - 1];
+                        --position;
+                    }
+                    plyMoves[position] = move;
+                }
+            }
+
+            /**
+             * Return how early a move is searched
+             * @param move move
+             * @param tableMove best move of the table entry, or -1
+             * @return ordering score, higher first
+             */
+            private long score(int move, int tableMove) {
+                return move == tableMove ? Long.MAX_VALUE : history[move];
+            }
+        }
+    }
+
+    // Builder for constructing an alpha-beta strategy
+    //
+    public final static class Builder<S extends GameState & Restorable> {
+
+        private final SearchModel<S> model;
+        private ExecutorService executor = ForkJoinPool.commonPool();
+        private int threads = 1;
+        private int maxDepth = 64;
+        private long timeBudgetNanos = 0;
+        private int tableCapacity = 0;
+
+        /**
+         * Construct a strategy builder
+         * @param model describes the moves of the game
+         */
+        public Builder(SearchModel<S> model) {
+            if (model.getMoveCapacity() > MAX_MOVES) {
+                throw new IllegalArgumentException(String.format("Too many moves to search: %d",
+                        model.getMoveCapacity()));
+            }
+            this.model = model;
+        }
+
+        /**
+         * Search on this many threads, the calling thread and helpers from the executor
+         * @param threads number of threads
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException(String.format("Threads must be positive: %d", threads));
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Run helper threads on this executor instead of the common fork-join pool
+         * @param executor executor for helper threads
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Deepen to at most this many plies, instead of 64
+         * @param maxDepth depth limit
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> maxDepth(int maxDepth) {
+            if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+                throw new IllegalArgumentException(String.format("Depth out of range: %d", maxDepth));
+            }
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Stop deepening after this much time per decision, keeping the deepest search completed
+         * @param time time budget
+         * @param unit unit of time
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> timeBudget(long time, TimeUnit unit) {
+            this.timeBudgetNanos = unit.toNanos(time);
+            return this;
+        }
+
+        /**
+         * Remember searched positions of hashed states in a transposition table of this many entries
+         * @param tableCapacity number of entries, rounded up to a power of 2
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> transpositionTable(int tableCapacity) {
+            if (tableCapacity < 1) {
+                throw new IllegalArgumentException(String.format("Table capacity must be positive: %d",
+                        tableCapacity));
+            }
+            this.tableCapacity = tableCapacity;
+            return this;
+        }
+
+        /**
+         * Return a strategy
+         * @return strategy
+         */
+        public AlphaBetaStrategy<S> build() {
+            return new AlphaBetaStrategy<>(this);
+        }
+    }
+}
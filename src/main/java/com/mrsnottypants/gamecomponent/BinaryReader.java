@@ -0,0 +1,154 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads primitives written by a binary writer from a byte buffer
+ *
+ * Reads must match the writes that produced the buffer, type for type.  Reading past the end of the buffer throws
+ * BufferUnderflowException, and a varint longer than its type throws IllegalStateException.
+ *
+ * This class is mutable and not thread-safe.
+ */
+public class BinaryReader {
+
+    private final ByteBuffer buffer;
+
+    /**
+     * Construct a reader on a buffer, reading from its position to its limit
+     * @param buffer buffer to read
+     */
+    public BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Read a byte
+     * @return byte, from 0 to 255
+     */
+    public int readByte() {
+        return buffer.get() & 0xFF;
+    }
+
+    /**
+     * Read a boolean
+     * @return boolean
+     */
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    /**
+     * Read an unsigned varint
+     * @return int
+     */
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte next = buffer.get();
+            value |= (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException(String.format("Malformed varint ending at %d", buffer.position()));
+    }
+
+    /**
+     * Read a zigzag varint
+     * @return int
+     */
+    public int readSignedVarInt() {
+        int value = readVarInt();
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * Read an unsigned varint long
+     * @return long
+     */
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte next = buffer.get();
+            value |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException(String.format("Malformed varint ending at %d", buffer.position()));
+    }
+
+    /**
+     * Read a zigzag varint long
+     * @return long
+     */
+    public long readSignedVarLong() {
+        long value = readVarLong();
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    /**
+     * Read a long written in 8 bytes
+     * @return long
+     */
+    public long readLong() {
+        return buffer.getLong();
+    }
+
+    /**
+     * Read a double
+     * @return double
+     */
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    /**
+     * Read a string
+     * @return string
+     */
+    public String readString() {
+        byte[] bytes = new byte[readVarInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read an int array
+     * @return ints
+     */
+    public int[] readIntArray() {
+        int[] values = new int[readVarInt()];
+        for (int index = 0; index < values.length; ++index) {
+            values[index] = readSignedVarInt();
+        }
+        return values;
+    }
+
+    /**
+     * Return true if there are bytes left to read
+     * @return true if not at the end
+     */
+    public boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    /**
+     * Return the buffer being read, positioned after the last byte read
+     * @return buffer
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("BinaryReader: Position=%d, Limit=%d", buffer.position(), buffer.limit());
+    }
+}
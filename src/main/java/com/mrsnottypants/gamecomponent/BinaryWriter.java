@@ -0,0 +1,209 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes primitives compactly into a byte buffer, for state codecs
+ *
+ * Integers are written as varints: 7 bits per byte, low bits first, so small values take one byte.  Signed
+ * integers are zigzag encoded first, so small negative values are small too.  Doubles take 8 bytes, strings are
+ * UTF-8 with a varint length.
+ *
+ * A writer constructed with a capacity owns its buffer, and grows it as needed.  A writer constructed on a buffer
+ * writes into that buffer, and throws BufferOverflowException when it is full.
+ *
+ * This class is mutable and not thread-safe.
+ */
+public class BinaryWriter {
+
+    private ByteBuffer buffer;
+    private final boolean growable;
+
+    /**
+     * Construct a writer owning a heap buffer, grown as needed
+     * @param initialCapacity bytes to start with
+     */
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = ByteBuffer.allocate(Math.max(16, initialCapacity));
+        this.growable = true;
+    }
+
+    /**
+     * Construct a writer on a buffer, ex: a direct or memory-mapped buffer, writing from its position
+     * @param buffer buffer to write into
+     */
+    public BinaryWriter(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.growable = false;
+    }
+
+    /**
+     * Make room for more bytes, growing an owned buffer
+     * @param bytes bytes about to be written
+     */
+    private void ensure(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (!growable) {
+            throw new BufferOverflowException();
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    /**
+     * Write a byte
+     * @param value byte to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeByte(int value) {
+        ensure(1);
+        buffer.put((byte) value);
+        return this;
+    }
+
+    /**
+     * Write a boolean as one byte
+     * @param value boolean to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeBoolean(boolean value) {
+        return writeByte(value ? 1 : 0);
+    }
+
+    /**
+     * Write an int as an unsigned varint, best for values that are never negative
+     * @param value int to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeVarInt(int value) {
+        ensure(Math.max(1, (38 - Integer.numberOfLeadingZeros(value)) / 7));
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        return this;
+    }
+
+    /**
+     * Write an int as a zigzag varint, best for values that may be negative
+     * @param value int to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeSignedVarInt(int value) {
+        return writeVarInt(value << 1 ^ value >> 31);
+    }
+
+    /**
+     * Write a long as an unsigned varint
+     * @param value long to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeVarLong(long value) {
+        ensure(Math.max(1, (70 - Long.numberOfLeadingZeros(value)) / 7));
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+        return this;
+    }
+
+    /**
+     * Write a long as a zigzag varint
+     * @param value long to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeSignedVarLong(long value) {
+        return writeVarLong(value << 1 ^ value >> 63);
+    }
+
+    /**
+     * Write a long in 8 bytes, best for values spread over the whole range, ex: hashes
+     * @param value long to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeLong(long value) {
+        ensure(8);
+        buffer.putLong(value);
+        return this;
+    }
+
+    /**
+     * Write a double in 8 bytes
+     * @param value double to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeDouble(double value) {
+        ensure(8);
+        buffer.putDouble(value);
+        return this;
+    }
+
+    /**
+     * Write a string as UTF-8 with its length
+     * @param value string to write, not null
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        ensure(bytes.length);
+        buffer.put(bytes);
+        return this;
+    }
+
+    /**
+     * Write an int array as zigzag varints, with its length
+     * @param values ints to write
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter writeIntArray(int[] values) {
+        writeVarInt(values.length);
+        for (int value : values) {
+            writeSignedVarInt(value);
+        }
+        return this;
+    }
+
+    /**
+     * Return the number of bytes written since the buffer's start
+     * @return position in buffer
+     */
+    public int position() {
+        return buffer.position();
+    }
+
+    /**
+     * Return the buffer being written, positioned after the last byte written
+     * @return buffer
+     */
+    public ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Start writing again from the start of the buffer
+     * @return this writer, for easy chaining
+     */
+    public BinaryWriter clear() {
+        buffer.clear();
+        return this;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("BinaryWriter: Position=%d, Capacity=%d, Growable=%s",
+                buffer.position(), buffer.capacity(), growable);
+    }
+}
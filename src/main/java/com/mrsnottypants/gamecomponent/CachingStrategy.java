@@ -0,0 +1,100 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.function.BiFunction;
+
+/**
+ * Decorates a play strategy that is a pure function of part of the state, considering it once per state key
+ *
+ * The key is extracted from the player and game state, ex: hand contents, trick so far, and score, and must have
+ * equals and hashCode.  On a miss the strategy is considered into a new partial choice, which is cached and merged
+ * into the caller's choice; on a hit the cached partial is merged again.  Play choices that are not mergeable are
+ * passed straight to the strategy.
+ *
+ * Choices are cached by the decorated strategy as well as the state key, so caching strategies may share a cache.
+ *
+ * This is a flyweight class, meaning immutable with state externalized.
+ */
+public class CachingStrategy implements PlayStrategy {
+
+    private final PlayStrategy strategy;
+    private final BiFunction<? super PlayerState, ? super GameState, ?> keyFunction;
+    private final DecisionCache cache;
+
+    /**
+     * Construct a caching strategy
+     * @param strategy strategy being cached
+     * @param keyFunction extracts the part of the state the strategy depends on
+     * @param cache cache of choices, may be shared across threads
+     */
+    public CachingStrategy(PlayStrategy strategy, BiFunction<? super PlayerState, ? super GameState, ?> keyFunction,
+                           DecisionCache cache) {
+        this.strategy = strategy;
+        this.keyFunction = keyFunction;
+        this.cache = cache;
+    }
+
+    /**
+     * Return the cache of choices
+     * @return cache
+     */
+    public DecisionCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Merge the choice cached for this state's key, considering the strategy on a miss
+     * @param playerState State of the player
+     * @param gameState State of the game
+     * @param playChoice Updated with values related to choices
+     * @throws IllegalArgumentException if the key function returns null
+     */
+    @Override
+    public void consider(PlayerState playerState, GameState gameState, PlayChoice playChoice) {
+        if (!(playChoice instanceof MergeablePlayChoice)) {
+            strategy.consider(playerState, gameState, playChoice);
+            return;
+        }
+        Object state = keyFunction.apply(playerState, gameState);
+        if (state == null) {
+            throw new IllegalArgumentException(String.format("Null state key for %s", strategy));
+        }
+        cache.replay(new CacheKey(strategy, state), (MergeablePlayChoice) playChoice,
+                partial -> strategy.consider(playerState, gameState, partial));
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("CachingStrategy: Strategy=%s, Cache=%s", strategy, cache);
+    }
+
+    // Key of cached choices: the strategy considered, and the state key
+    //
+    private static final class CacheKey {
+
+        private final PlayStrategy strategy;
+        private final Object state;
+
+        CacheKey(PlayStrategy strategy, Object state) {
+            this.strategy = strategy;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey key = (CacheKey) other;
+            return strategy == key.strategy && state.equals(key.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(strategy) + state.hashCode();
+        }
+    }
+}
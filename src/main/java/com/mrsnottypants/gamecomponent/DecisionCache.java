@@ -0,0 +1,248 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Remembers the choices strategies made for a state key, so a strategy that is a pure function of part of the state
+ * is only considered once per key
+ *
+ * The cache is bounded, and split into segments that each evict their least recently used entry when full.  Each
+ * segment has its own lock, so threads playing games in parallel rarely wait on each other.  Hits and misses are
+ * counted, to tell whether a key is worth caching on.
+ *
+ * Cached choices are partial choices holding only what was considered, and are merged into the caller's choice.
+ * They must not be changed once cached.
+ *
+ * This class is thread-safe, one cache may be shared across simulation threads.
+ */
+public class DecisionCache {
+
+    private final Segment[] segments;
+    private final int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Construct a cache with a segment per few available processors
+     * @param capacity most entries cached
+     */
+    public DecisionCache(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Construct a cache
+     * @param capacity most entries cached
+     * @param segmentCount number of segments, rounded up to a power of 2, and at most capacity
+     */
+    public DecisionCache(int capacity, int segmentCount) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Capacity must be positive: %d", capacity));
+        }
+        if (segmentCount < 1) {
+            throw new IllegalArgumentException(String.format("Segment count must be positive: %d", segmentCount));
+        }
+        int count = 1;
+        while (count < segmentCount && count * 2 <= capacity) {
+            count <<= 1;
+        }
+
+        // spread capacity across segments, the first few segments pick up the remainder
+        this.segments = new Segment[count];
+        for (int index = 0; index < count; ++index) {
+            segments[index] = new Segment(capacity / count + (index < capacity % count ? 1 : 0));
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Return the segment holding a key
+     * @param key state key
+     * @return segment
+     * @throws IllegalArgumentException if the key is null
+     */
+    private Segment segmentFor(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Cache key must not be null");
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[(hash * 0x9E3779B9 >>> 16) & (segments.length - 1)];
+    }
+
+    /**
+     * Return the choice cached for a key, counting a hit or miss
+     * @param key state key
+     * @return cached partial choice, or null if not cached
+     */
+    public MergeablePlayChoice get(Object key) {
+        MergeablePlayChoice cached = segmentFor(key).get(key);
+        if (cached == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return cached;
+    }
+
+    /**
+     * Cache the choice for a key, evicting the least recently used entry of its segment if full
+     * @param key state key
+     * @param partial partial choice holding only what was considered
+     */
+    public void put(Object key, MergeablePlayChoice partial) {
+        segmentFor(key).put(key, partial);
+    }
+
+    /**
+     * Merge the choice cached for a key into the play choice, considering and caching it first on a miss
+     * @param key state key
+     * @param playChoice updated with the cached choice
+     * @param consider considers into a new partial choice on a miss
+     */
+    void replay(Object key, MergeablePlayChoice playChoice, Consumer<PlayChoice> consider) {
+        MergeablePlayChoice cached = get(key);
+        if (cached == null) {
+            cached = playChoice.newPartial();
+            consider.accept(cached);
+            put(key, cached);
+        }
+        playChoice.merge(cached);
+    }
+
+    /**
+     * Remove every entry, keeping statistics
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Return the number of entries cached
+     * @return size
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Return the most entries cached
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Return the number of lookups that found a cached choice
+     * @return hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Return the number of lookups that did not find a cached choice
+     * @return misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Return the number of entries evicted to make room
+     * @return evictions
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Return the fraction of lookups that found a cached choice
+     * @return hit rate, 0 if nothing was looked up
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("DecisionCache: Size=%d, Capacity=%d, Hits=%d, Misses=%d, Evictions=%d",
+                size(), capacity, getHits(), getMisses(), getEvictions());
+    }
+
+    // Least recently used entries of one segment, behind its own lock
+    //
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Object, MergeablePlayChoice> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<Object, MergeablePlayChoice>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, MergeablePlayChoice> eldest) {
+                    if (size() <= capacity) {
+                        return false;
+                    }
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        MergeablePlayChoice get(Object key) {
+            lock.lock();
+            try {
+                return entries.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(Object key, MergeablePlayChoice partial) {
+            lock.lock();
+            try {
+                entries.put(key, partial);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                entries.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.Arrays;
+
+/**
+ * Deck of cards held as ints, shuffled in place and dealt from the top
+ *
+ * Cards are ints, ex: the cards of a standard deck laid out as Hand describes, so a deck is one int array and a
+ * position in it.  Shuffling is a Fisher-Yates shuffle of the cards not yet dealt, drawing from the game's random so
+ * seeded games deal the same cards.  Dealing a card only moves the position, and dealing a hand sets the bits of the
+ * cards dealt, so neither allocates.
+ * ex: deck.reset().shuffle(random); then each player's hand is deck.dealHand(13)
+ *
+ * This class is mutable and not thread-safe, use one deck per game state.
+ */
+public class Deck {
+
+    private final int[] cards;
+
+    // position of the top card, cards before it have been dealt
+    private int top = 0;
+
+    /**
+     * Construct a standard deck of 52 cards, in order
+     */
+    public Deck() {
+        this(Hand.CARDS);
+    }
+
+    /**
+     * Construct a deck of cards from 0 to size - 1, in order
+     * @param size number of cards
+     */
+    public Deck(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException(String.format("Deck size must not be negative: %d", size));
+        }
+        this.cards = new int[size];
+        for (int card = 0; card < size; ++card) {
+            cards[card] = card;
+        }
+    }
+
+    /**
+     * Construct a deck of cards, in the order given, ex: a euchre deck of the nines and up
+     * @param cards cards, top card first
+     */
+    public Deck(int[] cards) {
+        this.cards = cards.clone();
+    }
+
+    /**
+     * Shuffle the cards not yet dealt
+     * @param random random of the game
+     * @return this deck, for easy chaining
+     */
+    public Deck shuffle(GameRandom random) {
+        for (int index = cards.length - 1; index > top; --index) {
+            int swap = top + random.nextInt(index - top + 1);
+            int card = cards[index];
+            cards[index] = cards[swap];
+            cards[swap] = card;
+        }
+        return this;
+    }
+
+    /**
+     * Deal the top card
+     * @return card dealt
+     * @throws IllegalStateException if every card has been dealt
+     */
+    public int deal() {
+        if (top == cards.length) {
+            throw new IllegalStateException("Every card has been dealt");
+        }
+        return cards[top++];
+    }
+
+    /**
+     * Deal cards from the top into a hand
+     * @param count number of cards to deal
+     * @return hand of the cards dealt, cards must be distinct and from 0 to 63
+     * @throws IllegalArgumentException if the count is negative
+     * @throws IllegalStateException if fewer cards remain
+     */
+    public long dealHand(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(String.format("Cannot deal a negative count: %d", count));
+        }
+        if (count > remaining()) {
+            throw new IllegalStateException(String.format("Cannot deal %d cards, %d remain", count, remaining()));
+        }
+        long hand = Hand.EMPTY;
+        for (int index = 0; index < count; ++index) {
+            hand = Hand.add(hand, cards[top++]);
+        }
+        return hand;
+    }
+
+    /**
+     * Return the top card without dealing it
+     * @return top card
+     * @throws IllegalStateException if every card has been dealt
+     */
+    public int peek() {
+        if (top == cards.length) {
+            throw new IllegalStateException("Every card has been dealt");
+        }
+        return cards[top];
+    }
+
+    /**
+     * Return the cards not yet dealt, as a hand
+     * @return hand of the remaining cards, cards must be from 0 to 63
+     */
+    public long undealt() {
+        long hand = Hand.EMPTY;
+        for (int index = top; index < cards.length; ++index) {
+            hand = Hand.add(hand, cards[index]);
+        }
+        return hand;
+    }
+
+    /**
+     * Return every dealt card to the deck, keeping the order they were dealt in
+     * @return this deck, for easy chaining
+     */
+    public Deck reset() {
+        top = 0;
+        return this;
+    }
+
+    /**
+     * Return the number of cards not yet dealt
+     * @return remaining cards
+     */
+    public int remaining() {
+        return cards.length - top;
+    }
+
+    /**
+     * Return whether every card has been dealt
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return top == cards.length;
+    }
+
+    /**
+     * Return the number of cards in the deck, dealt or not
+     * @return size
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("Deck: Remaining=%d, Cards=%s", remaining(),
+                Arrays.toString(Arrays.copyOfRange(cards, top, cards.length)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.Optional;
+
+/**
+ * A game round that returns the next round directly, rather than wrapped in an optional
+ *
+ * Games play these rounds without allocating anything per round, which matters for short-round games that play
+ * millions of rounds.  A direct round is still a game round, and can be used anywhere a game round is expected.
+ */
+public interface DirectGameRound extends GameRound {
+
+    /**
+     * Perform this round
+     * @param gameState state of the game
+     * @return if a game round is returned it will be performed next, if null move on to the next scheduled round
+     */
+    DirectGameRound performDirect(GameState gameState);
+
+    /**
+     * Perform this round, wrapping the next round in an optional
+     * @param gameState state of the game
+     * @return if a game round is returned it will be performed once and next
+     */
+    @Override
+    default Optional<GameRound> perform(GameState gameState) {
+        return Optional.ofNullable(performDirect(gameState));
+    }
+
+    /**
+     * Return a direct round for the passed round, adapting it if it is not already direct
+     * @param gameRound game round
+     * @return direct game round
+     */
+    static DirectGameRound of(GameRound gameRound) {
+        return gameRound instanceof DirectGameRound ?
+                (DirectGameRound) gameRound : new GameRoundAdapter(gameRound);
+    }
+}
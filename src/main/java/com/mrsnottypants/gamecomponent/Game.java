@@ -1,9 +1,8 @@
 package com.mrsnottypants.gamecomponent;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Games are structured as an ordered series of rounds
@@ -13,12 +12,23 @@ import java.util.Optional;
  * This is a flyweight class, meaning immutable with state externalized.
  * This allows for easy reuse without synchronization
  *
+ * Rounds are played through the direct round contract, so playing allocates nothing per round
+ * A compiled game plays its round program by index, which requires every spawned round to be registered
+ * A game can also be played one round at a time through a cursor
+ * A game with listeners reports each round performed, a game without listeners plays uninstrumented
+ *
  * Created by Eric on 6/20/2016.
  */
 public class Game {
 
-    // the ordered series of rounds
-    private final Iterable<GameRound> gameRounds;
+    // the ordered series of rounds, followed by rounds that may be spawned
+    private final RoundProgram program;
+
+    // true if rounds are played by program index
+    private final boolean compiled;
+
+    // observers of rounds performed, empty to play uninstrumented
+    private final GameListener[] listeners;
 
     /**
      * Construct a game from a game builder
@@ -26,9 +36,34 @@ public class Game {
      */
     private Game(Builder builder) {
 
-        // save the ordered series of rounds, decorated with looping-iterable
-        // looping-iterable loops back to the start after the final round
-        this.gameRounds = LoopingIterable.of(builder.gameRounds);
+        // save the ordered series of rounds, play loops back to the start after the final round
+        this.program = new RoundProgram(builder.gameRounds, builder.spawnableRounds);
+        this.compiled = builder.compiled;
+        this.listeners = builder.listeners.toArray(new GameListener[builder.listeners.size()]);
+    }
+
+    /**
+     * Return the rounds of this game
+     * @return round program
+     */
+    public RoundProgram getProgram() {
+        return program;
+    }
+
+    /**
+     * Return true if rounds are played by program index
+     * @return true if compiled
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Return observers of rounds performed
+     * @return listeners, empty if the game plays uninstrumented
+     */
+    GameListener[] getListeners() {
+        return listeners;
     }
 
     /**
@@ -36,18 +71,137 @@ public class Game {
      * @param gameState passed to rounds, and tells us when game is over
      */
     public void play(GameState gameState) {
+        play(gameState, Long.MAX_VALUE);
+    }
+
+    /**
+     * Play game by looping full sets of rounds until the game is over, or a number of rounds have been performed
+     * Every round performed counts, including repeated and spawned rounds
+     * @param gameState passed to rounds, and tells us when game is over
+     * @param maxRounds most rounds to perform
+     * @return number of rounds performed
+     */
+    public long play(GameState gameState, long maxRounds) {
+
+        // a game without rounds has nothing to play
+        if (program.getScheduledCount() == 0) {
+            return 0;
+        }
+
+        // observed games are played through a cursor, which reports each round
+        if (listeners.length > 0) {
+            return cursor(gameState).step(maxRounds);
+        }
+        return compiled ? playCompiled(gameState, maxRounds) : playDirect(gameState, maxRounds);
+    }
+
+    /**
+     * Return a cursor for playing the game one round at a time, starting at the first scheduled round
+     * @param gameState passed to rounds, and tells us when game is over
+     * @return cursor
+     */
+    public GameCursor cursor(GameState gameState) {
+        return new GameCursor(this, gameState);
+    }
+
+    /**
+     * Return a cursor resuming play at a saved position, ex: from a checkpoint
+     * @param gameState passed to rounds, and tells us when game is over
+     * @param programCounter index of the next scheduled round, from GameCursor.getProgramCounter
+     * @param pendingRoundIndex round to perform first, from GameCursor.getPendingRoundIndex
+     * @return cursor
+     */
+    public GameCursor cursor(GameState gameState, int programCounter, int pendingRoundIndex) {
+        return new GameCursor(this, gameState, programCounter, pendingRoundIndex);
+    }
+
+    /**
+     * Play a bounded rollout from a state at the first scheduled round, evaluate the result, then restore the state
+     * Use the rollout taking a position for a state part way through the schedule.
+     * @param gameState passed to rounds, snapshot before the rollout and restored after
+     * @param maxRounds most rounds to perform
+     * @param evaluation evaluates the state at the end of the rollout
+     * @param <S> type of game state
+     * @return evaluation of the state at the end of the rollout
+     */
+    public <S extends GameState & Restorable> double rollout(S gameState, long maxRounds,
+                                                             ToDoubleFunction<? super S> evaluation) {
+        return rollout(gameState, 0, RoundProgram.NEXT, maxRounds, evaluation);
+    }
+
+    /**
+     * Play a bounded rollout from a state at a position in the schedule, evaluate the result, then restore the state
+     * ex: game.rollout(state, cursor.getProgramCounter(), cursor.getPendingRoundIndex(), 100, evaluation)
+     * @param gameState passed to rounds, snapshot before the rollout and restored after
+     * @param programCounter index of the next scheduled round, from GameCursor.getProgramCounter
+     * @param pendingRoundIndex round to perform first, from GameCursor.getPendingRoundIndex
+     * @param maxRounds most rounds to perform
+     * @param evaluation evaluates the state at the end of the rollout
+     * @param <S> type of game state
+     * @return evaluation of the state at the end of the rollout
+     */
+    public <S extends GameState & Restorable> double rollout(S gameState, int programCounter, int pendingRoundIndex,
+                                                             long maxRounds, ToDoubleFunction<? super S> evaluation) {
+        int snapshot = gameState.snapshot();
+        try {
+            if (programCounter == 0 && pendingRoundIndex == RoundProgram.NEXT) {
+                play(gameState, maxRounds);
+            } else {
+                cursor(gameState, programCounter, pendingRoundIndex).step(maxRounds);
+            }
+            return evaluation.applyAsDouble(gameState);
+        } finally {
+            gameState.restore(snapshot);
+        }
+    }
 
-        // keep looping through the list of rounds until the game is over
-        Iterator<GameRound> rounds = gameRounds.iterator();
-        while (rounds.hasNext() && !gameState.isGameOver()) {
+    /**
+     * Play game by following the rounds each round returns
+     * @param gameState passed to rounds, and tells us when game is over
+     * @param maxRounds most rounds to perform
+     * @return number of rounds performed
+     */
+    private long playDirect(GameState gameState, long maxRounds) {
+
+        // keep looping through the rounds until the game is over
+        long performed = 0;
+        int counter = 0;
+        while (performed < maxRounds && !gameState.isGameOver()) {
 
             // a round can spawn a new round if it wants to insert/repeat a round
             // ex: to play cards until there are no more cards: the play-card round returns itself until out of cards
-            Optional<GameRound> nextRound = Optional.of(rounds.next());
-            while (nextRound.isPresent() && !gameState.isGameOver()) {
-                nextRound = nextRound.get().perform(gameState);
+            DirectGameRound nextRound = program.getRound(counter);
+            counter = program.next(counter);
+            while (nextRound != null && performed < maxRounds && !gameState.isGameOver()) {
+                nextRound = nextRound.performDirect(gameState);
+                ++performed;
+            }
+        }
+        return performed;
+    }
+
+    /**
+     * Play game by following the program transitions each round returns
+     * @param gameState passed to rounds, and tells us when game is over
+     * @param maxRounds most rounds to perform
+     * @return number of rounds performed
+     */
+    private long playCompiled(GameState gameState, long maxRounds) {
+
+        // keep looping through the scheduled rounds until the game is over
+        long performed = 0;
+        int counter = 0;
+        while (performed < maxRounds && !gameState.isGameOver()) {
+
+            // a round transitions to itself to repeat, to a spawnable round, or on to the next scheduled round
+            int index = counter;
+            counter = program.next(counter);
+            while (index != RoundProgram.NEXT && performed < maxRounds && !gameState.isGameOver()) {
+                index = program.perform(index, gameState);
+                ++performed;
             }
         }
+        return performed;
     }
 
     /**
@@ -56,7 +210,8 @@ public class Game {
      */
     @Override
     public String toString() {
-        return String.format("Game: Rounds=%s", gameRounds.toString());
+        return String.format("Game: Rounds=%s, Compiled=%s, Listeners=%d", program.toString(), compiled,
+                listeners.length);
     }
 
     // Builder for constructing a game
@@ -64,7 +219,16 @@ public class Game {
     public final static class Builder {
 
         // games are structured as an ordered series of rounds
-        private final List<GameRound> gameRounds = new ArrayList<>();
+        private final List<DirectGameRound> gameRounds = new ArrayList<>();
+
+        // rounds that are only played when spawned
+        private final List<DirectGameRound> spawnableRounds = new ArrayList<>();
+
+        // true to play rounds by program index
+        private boolean compiled = false;
+
+        // observers of rounds performed
+        private final List<GameListener> listeners = new ArrayList<>();
 
         /**
          * Construct a game builder
@@ -73,11 +237,42 @@ public class Game {
 
         /**
          * Add a round to the game
+         * Rounds that are not direct game rounds are adapted
          * @param gameRound
          * @return this builder, for easy chaining
          */
         public Builder addGameRound(GameRound gameRound) {
-            gameRounds.add(gameRound);
+            gameRounds.add(DirectGameRound.of(gameRound));
+            return this;
+        }
+
+        /**
+         * Add a round that is not scheduled, but may be spawned by another round
+         * Compiled games must register every round that can be spawned
+         * @param gameRound
+         * @return this builder, for easy chaining
+         */
+        public Builder addSpawnableRound(GameRound gameRound) {
+            spawnableRounds.add(DirectGameRound.of(gameRound));
+            return this;
+        }
+
+        /**
+         * Play rounds by program index, with explicit transitions between rounds
+         * @return this builder, for easy chaining
+         */
+        public Builder compile() {
+            compiled = true;
+            return this;
+        }
+
+        /**
+         * Add an observer of rounds performed
+         * @param listener called as rounds are performed, must be thread-safe
+         * @return this builder, for easy chaining
+         */
+        public Builder addListener(GameListener listener) {
+            listeners.add(listener);
             return this;
         }
 
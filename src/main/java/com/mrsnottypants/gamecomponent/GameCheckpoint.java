@@ -0,0 +1,110 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+
+/**
+ * Checkpoints games every few rounds, so a crashed game can resume where it left off
+ *
+ * Register the checkpoint as a listener with a game.  Every few rounds, on the thread playing the game and between
+ * rounds, the cursor's position and the state are encoded straight from the live state into a per-thread buffer,
+ * then handed to a sink, ex: one that writes them to a file.  Nothing is deep copied, and the game only pauses for
+ * as long as encoding and the sink take.
+ *
+ * A checkpoint is: format version, program counter, pending round index, then the state as its codec writes it.
+ *
+ * This class is thread-safe if its sink is.
+ */
+public class GameCheckpoint<S extends GameState> implements GameListener {
+
+    // format of checkpoints written
+    private static final int VERSION = 1;
+
+    private final StateCodec<S> codec;
+    private final long everyRounds;
+    private final BiConsumer<? super S, ByteBuffer> sink;
+
+    // buffer reused by each thread playing games
+    private final ThreadLocal<BinaryWriter> writers = ThreadLocal.withInitial(() -> new BinaryWriter(256));
+
+    /**
+     * Construct a checkpoint
+     * @param codec writes the state
+     * @param everyRounds rounds between checkpoints
+     * @param sink takes each checkpoint's state and bytes, the bytes are only valid during the call
+     */
+    public GameCheckpoint(StateCodec<S> codec, long everyRounds, BiConsumer<? super S, ByteBuffer> sink) {
+        if (everyRounds < 1) {
+            throw new IllegalArgumentException(String.format("Rounds between checkpoints must be positive: %d",
+                    everyRounds));
+        }
+        this.codec = codec;
+        this.everyRounds = everyRounds;
+        this.sink = sink;
+    }
+
+    /**
+     * Checkpoint the game if enough rounds have been performed since the last checkpoint
+     * @param cursor cursor playing the game
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void stepped(GameCursor cursor) {
+        if (cursor.getRoundsPerformed() % everyRounds != 0) {
+            return;
+        }
+        BinaryWriter writer = writers.get().clear();
+        write(cursor, codec, writer);
+        ByteBuffer bytes = writer.getBuffer();
+        bytes.flip();
+        sink.accept((S) cursor.getGameState(), bytes);
+    }
+
+    /**
+     * Write a cursor's position and state
+     * @param cursor cursor playing the game
+     * @param codec writes the state
+     * @param writer writes the checkpoint
+     * @param <S> type of game state
+     * @throws IllegalStateException if the pending round is a spawned round not registered as spawnable
+     */
+    @SuppressWarnings("unchecked")
+    public static <S extends GameState> void write(GameCursor cursor, StateCodec<S> codec, BinaryWriter writer) {
+        int pendingRoundIndex = cursor.getPendingRoundIndex();
+        if (pendingRoundIndex == RoundProgram.NEXT && cursor.hasPendingRound()) {
+            throw new IllegalStateException(String.format(
+                    "Cannot checkpoint a pending round that is not spawnable: %s", cursor.getCurrentRound()));
+        }
+        writer.writeVarInt(VERSION)
+                .writeVarInt(cursor.getProgramCounter())
+                .writeSignedVarInt(pendingRoundIndex);
+        codec.write((S) cursor.getGameState(), writer);
+    }
+
+    /**
+     * Read a checkpoint, returning a cursor that resumes the game where the checkpoint left off
+     * @param game game that was checkpointed
+     * @param codec reads the state
+     * @param reader reads the checkpoint
+     * @param <S> type of game state
+     * @return cursor, holding the state read
+     */
+    public static <S extends GameState> GameCursor read(Game game, StateCodec<S> codec, BinaryReader reader) {
+        int version = reader.readVarInt();
+        if (version != VERSION) {
+            throw new IllegalStateException(String.format("Unknown checkpoint version: %d", version));
+        }
+        int programCounter = reader.readVarInt();
+        int pendingRoundIndex = reader.readSignedVarInt();
+        return game.cursor(codec.read(reader), programCounter, pendingRoundIndex);
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameCheckpoint: EveryRounds=%d, Codec=%s", everyRounds, codec);
+    }
+}
@@ -0,0 +1,283 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.function.Predicate;
+
+/**
+ * Plays a game one round at a time, holding the loop state that game play otherwise keeps on the stack
+ *
+ * A cursor lets a caller advance a game as it chooses, ex: one round per UI frame, or rounds of thousands of games
+ * interleaved on a single event-loop thread.  Stepping a cursor until the game is over performs the same rounds, in
+ * the same order, as playing the game.
+ *
+ * The current round is the round the next step performs: a repeated or spawned round if the last round asked for
+ * one, otherwise the next scheduled round.  Rounds are returned as they were added to the game, not as adapted.
+ *
+ * This class is mutable and not thread-safe, use one cursor per game state.
+ */
+public class GameCursor {
+
+    private final Game game;
+    private final RoundProgram program;
+    private final GameState gameState;
+    private final GameListener[] listeners;
+
+    // index of the next scheduled round
+    private int counter;
+
+    // round asked for by the last round performed, or null to perform the next scheduled round
+    private DirectGameRound round = null;
+
+    // program index of that round, tracked when the game is compiled
+    private int roundIndex = RoundProgram.NEXT;
+
+    // round performed by the last step, and its program index when the game is compiled
+    private DirectGameRound lastRound = null;
+    private int lastRoundIndex = RoundProgram.NEXT;
+
+    private long roundsPerformed = 0;
+    private long roundsRepeated = 0;
+
+    /**
+     * Construct a cursor at the first scheduled round
+     * @param game game to play
+     * @param gameState state of the game
+     */
+    GameCursor(Game game, GameState gameState) {
+        this(game, gameState, 0, RoundProgram.NEXT);
+    }
+
+    /**
+     * Construct a cursor resuming at a position saved from another cursor
+     * @param game game to play
+     * @param gameState state of the game
+     * @param counter index of the next scheduled round
+     * @param pendingIndex program index of the repeated or spawned round to perform first, or NEXT
+     */
+    GameCursor(Game game, GameState gameState, int counter, int pendingIndex) {
+        this.game = game;
+        this.program = game.getProgram();
+        this.gameState = gameState;
+        this.listeners = game.getListeners();
+        if (counter < 0 || counter >= Math.max(1, program.getScheduledCount())) {
+            throw new IllegalArgumentException(String.format("Program counter out of range: %d", counter));
+        }
+        if (pendingIndex < RoundProgram.NEXT || pendingIndex >= program.size()) {
+            throw new IllegalArgumentException(String.format("Round index out of range: %d", pendingIndex));
+        }
+        this.counter = counter;
+        this.round = pendingIndex == RoundProgram.NEXT ? null : program.getRound(pendingIndex);
+        this.roundIndex = pendingIndex;
+    }
+
+    /**
+     * Return the game being played
+     * @return game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Return state of the game
+     * @return game state
+     */
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    /**
+     * Return true if the game is over
+     * @return true if game is over
+     */
+    public boolean isGameOver() {
+        return gameState.isGameOver();
+    }
+
+    /**
+     * Return the round the next step performs
+     * @return current round, or null if the game has no rounds
+     */
+    public GameRound getCurrentRound() {
+        if (round != null) {
+            return RoundProgram.unwrap(round);
+        }
+        return program.getScheduledCount() == 0 ? null : RoundProgram.unwrap(program.getRound(counter));
+    }
+
+    /**
+     * Return the program index of the round the next step performs
+     * @return index of current round, or NEXT if the round is not part of the program
+     */
+    public int getCurrentRoundIndex() {
+        if (round == null) {
+            return program.getScheduledCount() == 0 ? RoundProgram.NEXT : counter;
+        }
+        return game.isCompiled() ? roundIndex : program.indexOf(round);
+    }
+
+    /**
+     * Return the program index of the repeated or spawned round the next step performs
+     * With the program counter, this is the position to resume a cursor from.  A direct game can only resume a
+     * spawned round that was registered as spawnable.
+     * @return index of pending round, or NEXT if the next step performs the next scheduled round
+     */
+    public int getPendingRoundIndex() {
+        if (round == null) {
+            return RoundProgram.NEXT;
+        }
+        return game.isCompiled() ? roundIndex : program.indexOf(round);
+    }
+
+    /**
+     * Return true if the next step performs a repeated or spawned round rather than the next scheduled round
+     * @return true if a round is pending
+     */
+    boolean hasPendingRound() {
+        return round != null;
+    }
+
+    /**
+     * Return the program index of the round performed by the last step
+     * @return index of last round, or NEXT if no round was performed or the round is not part of the program
+     */
+    public int getLastRoundIndex() {
+        if (lastRound == null) {
+            return RoundProgram.NEXT;
+        }
+        return game.isCompiled() ? lastRoundIndex : program.indexOf(lastRound);
+    }
+
+    /**
+     * Return index of the next scheduled round
+     * @return program counter
+     */
+    public int getProgramCounter() {
+        return counter;
+    }
+
+    /**
+     * Return the number of rounds performed by this cursor
+     * @return rounds performed
+     */
+    public long getRoundsPerformed() {
+        return roundsPerformed;
+    }
+
+    /**
+     * Return the number of rounds performed by this cursor because the round before asked to repeat
+     * @return rounds repeated
+     */
+    public long getRoundsRepeated() {
+        return roundsRepeated;
+    }
+
+    /**
+     * Perform the current round
+     * @return true if a round was performed, false if the game is over or has no rounds
+     */
+    public boolean step() {
+        if (program.getScheduledCount() == 0 || gameState.isGameOver()) {
+            return false;
+        }
+
+        // without a repeated or spawned round, move on to the next scheduled round
+        if (round == null) {
+            round = program.getRound(counter);
+            roundIndex = counter;
+            counter = program.next(counter);
+        }
+
+        // only report rounds when someone is listening
+        if (listeners.length == 0) {
+            perform();
+            ++roundsPerformed;
+        } else {
+            performObserved();
+        }
+        return true;
+    }
+
+    /**
+     * Perform the current round, moving on to the round it asks for
+     */
+    private void perform() {
+        DirectGameRound performed = round;
+        lastRound = round;
+        lastRoundIndex = roundIndex;
+
+        // compiled games follow program transitions, others follow the round returned
+        if (game.isCompiled()) {
+            roundIndex = program.perform(roundIndex, gameState);
+            round = roundIndex == RoundProgram.NEXT ? null : program.getRound(roundIndex);
+        } else {
+            round = round.performDirect(gameState);
+        }
+        if (round == performed) {
+            ++roundsRepeated;
+        }
+    }
+
+    /**
+     * Perform the current round, reporting it to the game's listeners
+     */
+    private void performObserved() {
+        GameRound started = RoundProgram.unwrap(round);
+        for (GameListener listener : listeners) {
+            listener.roundStarted(gameState, started);
+        }
+        long start = System.nanoTime();
+        perform();
+        long nanos = System.nanoTime() - start;
+        ++roundsPerformed;
+
+        GameRound nextRound = round == null ? null : RoundProgram.unwrap(round);
+        for (GameListener listener : listeners) {
+            listener.roundEnded(gameState, started, nextRound, nanos);
+        }
+        for (GameListener listener : listeners) {
+            listener.stepped(this);
+        }
+        if (gameState.isGameOver()) {
+            for (GameListener listener : listeners) {
+                listener.gameOver(gameState, roundsPerformed, roundsRepeated);
+            }
+        }
+    }
+
+    /**
+     * Perform rounds until the game is over, or a number of rounds have been performed
+     * @param maxRounds most rounds to perform
+     * @return number of rounds performed
+     */
+    public long step(long maxRounds) {
+        long performed = 0;
+        while (performed < maxRounds && step()) {
+            ++performed;
+        }
+        return performed;
+    }
+
+    /**
+     * Perform rounds until the predicate holds or the game is over, checking the predicate before each round
+     * ex: cursor.stepUntil(c -> c.getCurrentRound() == biddingRound)
+     * @param predicate checked before each round
+     * @return number of rounds performed
+     */
+    public long stepUntil(Predicate<? super GameCursor> predicate) {
+        long performed = 0;
+        while (!predicate.test(this) && step()) {
+            ++performed;
+        }
+        return performed;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameCursor: Counter=%d, Round=%s, Performed=%d",
+                counter, getCurrentRound(), roundsPerformed);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * One event published to a game event stream
+ *
+ * Events live in slots that the stream reuses, so an event is only valid while it is being handled.  A handler that
+ * keeps an event must copy what it needs.
+ */
+public final class GameEvent {
+
+    /**
+     * What happened
+     */
+    public enum Type {
+        ROUND_STARTED,
+        ROUND_ENDED,
+        ROUND_SPAWNED,
+        CONSIDERED,
+        GAME_OVER
+    }
+
+    private Type type;
+    private long time;
+    private GameState gameState;
+    private GameRound round;
+    private Player player;
+    private PlayStrategyType strategyType;
+    private PlayStrategy strategy;
+    private long value;
+
+    /**
+     * Construct an empty event, filled in when published
+     */
+    GameEvent() {}
+
+    /**
+     * Fill in this event
+     * @param type what happened
+     * @param gameState state of the game
+     * @param round round, for round events
+     * @param player player, for considered events
+     * @param strategyType type of choice, for considered events
+     * @param strategy strategy, for considered events
+     * @param value nanos taken, or rounds performed for game over
+     */
+    void set(Type type, GameState gameState, GameRound round, Player player, PlayStrategyType strategyType,
+             PlayStrategy strategy, long value) {
+        this.type = type;
+        this.time = System.nanoTime();
+        this.gameState = gameState;
+        this.round = round;
+        this.player = player;
+        this.strategyType = strategyType;
+        this.strategy = strategy;
+        this.value = value;
+    }
+
+    /**
+     * Clear references, so a handled event does not keep game objects alive
+     */
+    void clear() {
+        set(null, null, null, null, null, null, 0);
+    }
+
+    /**
+     * Return what happened
+     * @return event type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Return when the event was published, as System.nanoTime
+     * @return time in nanos
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Return state of the game
+     * @return game state
+     */
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    /**
+     * Return the round started, ended, or spawned
+     * @return round, or null for other events
+     */
+    public GameRound getRound() {
+        return round;
+    }
+
+    /**
+     * Return the player considering
+     * @return player, or null for other events
+     */
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * Return the type of choice considered
+     * @return strategy type, or null for other events
+     */
+    public PlayStrategyType getStrategyType() {
+        return strategyType;
+    }
+
+    /**
+     * Return the strategy considered
+     * @return strategy, or null for other events
+     */
+    public PlayStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Return nanos taken by an ended round or considered strategy, or rounds performed by a game that is over
+     * @return value, 0 for other events
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameEvent: Type=%s, Round=%s, Strategy=%s, Value=%d", type, round, strategy, value);
+    }
+}
@@ -0,0 +1,205 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Streams round and decision events from game threads to a consumer, ex: to feed analytics
+ *
+ * Register the stream as a listener with games and players.  Events are published into a bounded ring of reused
+ * slots, so publishing allocates nothing and takes no locks.  Game threads never wait on the consumer: when the ring
+ * is full, events are dropped and counted, and the consumer can tell how far it fell behind.
+ *
+ * Any number of threads may publish, but only one thread at a time may drain.
+ */
+public class GameEventStream implements GameListener {
+
+    private final GameEvent[] events;
+    private final int mask;
+
+    // sequence per slot: ready to publish at position, ready to drain at position + 1
+    private final AtomicLongArray sequences;
+
+    // next position to publish
+    private final AtomicLong tail = new AtomicLong();
+
+    // next position to drain, only touched by the draining thread
+    private long head = 0;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Construct a stream
+     * @param capacity most events waiting to be drained, rounded up to a power of 2
+     */
+    public GameEventStream(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException(String.format("Capacity must be from 1 to 2^30: %d", capacity));
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.events = new GameEvent[size];
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int index = 0; index < size; ++index) {
+            events[index] = new GameEvent();
+            sequences.set(index, index);
+        }
+    }
+
+    /**
+     * Publish a round started event
+     * @param gameState state of the game
+     * @param round round about to be performed
+     */
+    @Override
+    public void roundStarted(GameState gameState, GameRound round) {
+        publish(GameEvent.Type.ROUND_STARTED, gameState, round, null, null, null, 0);
+    }
+
+    /**
+     * Publish a round ended event, followed by a round spawned event if the round spawned another
+     * @param gameState state of the game
+     * @param round round performed
+     * @param nextRound round it asked for
+     * @param nanos time taken to perform the round
+     */
+    @Override
+    public void roundEnded(GameState gameState, GameRound round, GameRound nextRound, long nanos) {
+        publish(GameEvent.Type.ROUND_ENDED, gameState, round, null, null, null, nanos);
+        if (nextRound != null && nextRound != round) {
+            publish(GameEvent.Type.ROUND_SPAWNED, gameState, nextRound, null, null, null, 0);
+        }
+    }
+
+    /**
+     * Publish a considered event
+     * @param player player considering
+     * @param type type of choice being considered
+     * @param strategy strategy considered
+     * @param gameState state of the game
+     * @param nanos time taken to consider the strategy
+     */
+    @Override
+    public void considered(Player player, PlayStrategyType type, PlayStrategy strategy, GameState gameState,
+                           long nanos) {
+        publish(GameEvent.Type.CONSIDERED, gameState, null, player, type, strategy, nanos);
+    }
+
+    /**
+     * Publish a game over event
+     * @param gameState state of the game
+     * @param roundsPerformed rounds performed
+     * @param roundsRepeated rounds repeated
+     */
+    @Override
+    public void gameOver(GameState gameState, long roundsPerformed, long roundsRepeated) {
+        publish(GameEvent.Type.GAME_OVER, gameState, null, null, null, null, roundsPerformed);
+    }
+
+    /**
+     * Claim a slot and fill it in, or drop the event if the ring is full
+     * @param type what happened
+     * @param gameState state of the game
+     * @param round round, for round events
+     * @param player player, for considered events
+     * @param strategyType type of choice, for considered events
+     * @param strategy strategy, for considered events
+     * @param value nanos taken, or rounds performed for game over
+     * @return true if published, false if dropped
+     */
+    private boolean publish(GameEvent.Type type, GameState gameState, GameRound round, Player player,
+                            PlayStrategyType strategyType, PlayStrategy strategy, long value) {
+
+        // claim the slot at the tail, unless the consumer has not drained it yet
+        long position = tail.get();
+        while (true) {
+            long sequence = sequences.get((int) position & mask);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (sequence < position) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+
+        // fill in the slot, then hand it to the consumer
+        int index = (int) position & mask;
+        events[index].set(type, gameState, round, player, strategyType, strategy, value);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Hand every published event to the handler, in the order slots were claimed
+     * @param handler handles each event, must copy what it keeps
+     * @return number of events drained
+     */
+    public int drain(Consumer<? super GameEvent> handler) {
+        return drain(handler, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Hand published events to the handler, in the order slots were claimed, up to a limit
+     * Stops early at a slot that is claimed but not yet filled in.
+     * @param handler handles each event, must copy what it keeps
+     * @param limit most events to drain
+     * @return number of events drained
+     */
+    public int drain(Consumer<? super GameEvent> handler, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            GameEvent event = events[index];
+            try {
+                handler.accept(event);
+            } finally {
+
+                // free the slot for the publish one lap later
+                event.clear();
+                sequences.lazySet(index, head + events.length);
+                ++head;
+            }
+            ++drained;
+        }
+        return drained;
+    }
+
+    /**
+     * Return the number of events dropped because the ring was full
+     * @return events dropped
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Return the most events waiting to be drained
+     * @return capacity
+     */
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameEventStream: Capacity=%d, Published=%d, Dropped=%d",
+                events.length, tail.get(), getDropped());
+    }
+}
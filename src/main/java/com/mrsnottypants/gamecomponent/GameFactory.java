@@ -19,4 +19,14 @@ public interface GameFactory {
      * @return New game state
      */
     GameState newGameState();
+
+    /**
+     * Return a new game state, drawing from a source of randomness split for this game
+     * Factories of reproducible games override this, ex: to hold the random in a random state.
+     * @param random source of randomness for this game
+     * @return New game state
+     */
+    default GameState newGameState(GameRandom random) {
+        return newGameState();
+    }
 }
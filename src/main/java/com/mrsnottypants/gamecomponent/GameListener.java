@@ -0,0 +1,54 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * Observes rounds performed by a game, and strategies considered by a player
+ *
+ * Listeners are registered with the game and player builders.  A game or player without listeners plays its
+ * uninstrumented path, so observing costs nothing unless asked for.  Listeners are called on the thread playing the
+ * game, and from several threads at once when games are played in parallel, so they must be thread-safe and quick.
+ *
+ * Rounds are reported as they were added to the game, not as adapted.
+ */
+public interface GameListener {
+
+    /**
+     * Called before a round is performed
+     * @param gameState state of the game
+     * @param round round about to be performed
+     */
+    default void roundStarted(GameState gameState, GameRound round) {}
+
+    /**
+     * Called after a round is performed
+     * @param gameState state of the game
+     * @param round round performed
+     * @param nextRound round it asked for: itself to repeat, a spawned round, or null to move on
+     * @param nanos time taken to perform the round
+     */
+    default void roundEnded(GameState gameState, GameRound round, GameRound nextRound, long nanos) {}
+
+    /**
+     * Called after each round is reported, with the cursor playing the game, ex: to checkpoint every few rounds
+     * @param cursor cursor playing the game, positioned at the next round
+     */
+    default void stepped(GameCursor cursor) {}
+
+    /**
+     * Called after a player's strategy is considered
+     * @param player player considering
+     * @param type type of choice being considered
+     * @param strategy strategy considered
+     * @param gameState state of the game
+     * @param nanos time taken to consider the strategy
+     */
+    default void considered(Player player, PlayStrategyType type, PlayStrategy strategy, GameState gameState,
+                            long nanos) {}
+
+    /**
+     * Called once the round that ends the game has been performed
+     * @param gameState state of the game
+     * @param roundsPerformed rounds performed by this play of the game
+     * @param roundsRepeated rounds performed because the round before asked to repeat
+     */
+    default void gameOver(GameState gameState, long roundsPerformed, long roundsRepeated) {}
+}
@@ -0,0 +1,131 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Measures where play spends its time: rounds by class, and strategies considered
+ *
+ * Register the metrics as a listener with games and players.  Each round class and each strategy gets a histogram
+ * of nanos taken, whose count is its invocations.  Repeated rounds are counted by round class, and rounds repeated
+ * per game are counted in a histogram when each game is over.
+ *
+ * Games and players without listeners play uninstrumented, so build them without metrics to turn metrics off.
+ *
+ * This class is thread-safe, one instance may be shared by every game and player.
+ */
+public class GameMetrics implements GameListener {
+
+    private final ConcurrentMap<Class<?>, Histogram> rounds = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, LongAdder> repeats = new ConcurrentHashMap<>();
+    private final ConcurrentMap<PlayStrategy, Histogram> strategies = new ConcurrentHashMap<>();
+    private final Histogram repeatsPerGame = new Histogram();
+
+    /**
+     * Construct empty metrics
+     */
+    public GameMetrics() {}
+
+    /**
+     * Return the value for a key, creating it the first time the key is seen
+     * Looks up before creating, so keys already seen take no locks.
+     * @param map map of values
+     * @param key key
+     * @param newValue creates the value
+     * @param <K> type of key
+     * @param <V> type of value
+     * @return value for key
+     */
+    private static <K, V> V lookup(ConcurrentMap<K, V> map, K key, Function<K, V> newValue) {
+        V value = map.get(key);
+        return value != null ? value : map.computeIfAbsent(key, newValue);
+    }
+
+    /**
+     * Record nanos taken by a round, and count a repeat if it asked to repeat
+     * @param gameState state of the game
+     * @param round round performed
+     * @param nextRound round it asked for
+     * @param nanos time taken to perform the round
+     */
+    @Override
+    public void roundEnded(GameState gameState, GameRound round, GameRound nextRound, long nanos) {
+        lookup(rounds, round.getClass(), key -> new Histogram()).record(nanos);
+        if (nextRound == round) {
+            lookup(repeats, round.getClass(), key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Record nanos taken by a strategy
+     * @param player player considering
+     * @param type type of choice being considered
+     * @param strategy strategy considered
+     * @param gameState state of the game
+     * @param nanos time taken to consider the strategy
+     */
+    @Override
+    public void considered(Player player, PlayStrategyType type, PlayStrategy strategy, GameState gameState,
+                           long nanos) {
+        lookup(strategies, strategy, key -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * Record rounds repeated by a game
+     * @param gameState state of the game
+     * @param roundsPerformed rounds performed
+     * @param roundsRepeated rounds repeated
+     */
+    @Override
+    public void gameOver(GameState gameState, long roundsPerformed, long roundsRepeated) {
+        repeatsPerGame.record(roundsRepeated);
+    }
+
+    /**
+     * Return nanos taken by rounds, by round class
+     * @return histograms by round class, updated as play continues
+     */
+    public Map<Class<?>, Histogram> getRounds() {
+        return Collections.unmodifiableMap(rounds);
+    }
+
+    /**
+     * Return nanos taken by strategies, by strategy
+     * @return histograms by strategy, updated as play continues
+     */
+    public Map<PlayStrategy, Histogram> getStrategies() {
+        return Collections.unmodifiableMap(strategies);
+    }
+
+    /**
+     * Return the number of times rounds of a class asked to repeat
+     * @param roundClass class of round
+     * @return repeats
+     */
+    public long getRepeats(Class<?> roundClass) {
+        LongAdder count = repeats.get(roundClass);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Return rounds repeated per game, counted when each game is over
+     * @return histogram of repeats per game
+     */
+    public Histogram getRepeatsPerGame() {
+        return repeatsPerGame;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameMetrics: Rounds=%s, Strategies=%s, RepeatsPerGame=%s",
+                rounds, strategies, repeatsPerGame);
+    }
+}
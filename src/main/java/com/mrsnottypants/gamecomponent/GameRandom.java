@@ -0,0 +1,120 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.SplittableRandom;
+
+/**
+ * Source of randomness for one game or player, split deterministically from a root seed
+ *
+ * A root random is made from a seed, and split by index into a random per game, which can be split again by seat
+ * into a random per player.  A split depends only on its parent's seed and the index, never on how many values were
+ * drawn or which thread asked first, so games played in parallel draw the same values on every run.
+ *
+ * Values are drawn from a SplittableRandom, which takes no locks.  Each game owns its random: drawing values is not
+ * thread-safe.  Splitting only reads the seed, so a root random may be split from any thread.
+ */
+public class GameRandom {
+
+    // odd constant from the golden ratio, spaces out the seeds of splits
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    /**
+     * Construct a random from a seed
+     * @param seed seed, the same seed draws the same values
+     */
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Return the seed of this random
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Return a new random for a child of this random, ex: the game with an index, or the player in a seat
+     * @param index index of the child
+     * @return child random
+     */
+    public GameRandom split(long index) {
+        return new GameRandom(mix(seed + mix(index + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Return a well-mixed value of a long, from the finalizer of SplitMix64
+     * @param value value to mix
+     * @return mixed value
+     */
+    private static long mix(long value) {
+        value = (value ^ value >>> 30) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ value >>> 27) * 0x94D049BB133111EBL;
+        return value ^ value >>> 31;
+    }
+
+    /**
+     * Return a random int
+     * @return int
+     */
+    public int nextInt() {
+        return random.nextInt();
+    }
+
+    /**
+     * Return a random int from 0 to bound - 1
+     * @param bound number of values, positive
+     * @return int
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * Return a random long
+     * @return long
+     */
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * Return a random double from 0 up to 1
+     * @return double
+     */
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    /**
+     * Return a random double from the standard normal distribution, mean 0 and standard deviation 1
+     * @return double
+     */
+    public double nextGaussian() {
+
+        // Box-Muller, 1 - nextDouble is never 0 so the log is finite
+        double radius = Math.sqrt(-2.0 * Math.log(1.0 - random.nextDouble()));
+        return radius * Math.cos(2.0 * Math.PI * random.nextDouble());
+    }
+
+    /**
+     * Return a random boolean
+     * @return boolean
+     */
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameRandom: Seed=%d", seed);
+    }
+}
@@ -0,0 +1,66 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.Optional;
+
+/**
+ * Adapts a game round to the direct game round contract
+ *
+ * The adapted round still allocates its optional, but a round that repeats itself is answered with this adapter,
+ * so repeating rounds cost no more than the round itself.
+ */
+final class GameRoundAdapter implements DirectGameRound {
+
+    // adapted round
+    private final GameRound gameRound;
+
+    /**
+     * Construct an adapter
+     * @param gameRound adapted round
+     */
+    GameRoundAdapter(GameRound gameRound) {
+        this.gameRound = gameRound;
+    }
+
+    /**
+     * Return the adapted round
+     * @return adapted round
+     */
+    GameRound getGameRound() {
+        return gameRound;
+    }
+
+    /**
+     * Perform the adapted round
+     * @param gameState state of the game
+     * @return next round, or null to move on to the next scheduled round
+     */
+    @Override
+    public DirectGameRound performDirect(GameState gameState) {
+        Optional<GameRound> nextRound = gameRound.perform(gameState);
+        if (!nextRound.isPresent()) {
+            return null;
+        }
+
+        // a repeating round is answered with this adapter, rather than a new one
+        return nextRound.get() == gameRound ? this : DirectGameRound.of(nextRound.get());
+    }
+
+    /**
+     * Perform the adapted round, as is
+     * @param gameState state of the game
+     * @return next round, as returned by the adapted round
+     */
+    @Override
+    public Optional<GameRound> perform(GameState gameState) {
+        return gameRound.perform(gameState);
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return gameRound.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One game being played by a game session host
+ *
+ * This class is thread-safe.
+ */
+public class GameSession {
+
+    private final long id;
+    private final Game game;
+    private final GameState gameState;
+    private final FutureTask<GameState> task;
+    private final Runnable onStopped;
+
+    // claimed by whichever stops the session: its thread leaving the game, or a cancel before it started
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * Construct a session
+     * @param id session id, unique within its host
+     * @param game game to play
+     * @param gameState state of the game
+     * @param onStopped called once the session has stopped, however it ends, and no thread is playing it
+     */
+    GameSession(long id, Game game, GameState gameState, Runnable onStopped) {
+        this.id = id;
+        this.game = game;
+        this.gameState = gameState;
+        this.onStopped = onStopped;
+        this.task = new FutureTask<GameState>(this::play) {
+            @Override
+            protected void done() {
+
+                // a session cancelled while playing is stopped by its thread, once the round it is in finishes
+                if (claimed.compareAndSet(false, true)) {
+                    stop();
+                }
+            }
+        };
+    }
+
+    /**
+     * Play the game a round at a time, run by the host's executor
+     * Cancellation is checked between rounds, so a cancelled session stops even if no round is waiting
+     * @return final game state
+     */
+    private GameState play() {
+        if (!claimed.compareAndSet(false, true)) {
+            return gameState;
+        }
+        try {
+            GameCursor cursor = game.cursor(gameState);
+            while (!task.isCancelled() && cursor.step()) {
+                // keep stepping
+            }
+            return gameState;
+        } finally {
+            stop();
+        }
+    }
+
+    /**
+     * Mark the session stopped
+     */
+    private void stop() {
+        onStopped.run();
+        stopped.countDown();
+    }
+
+    /**
+     * Return the task that plays this session
+     * @return task
+     */
+    FutureTask<GameState> getTask() {
+        return task;
+    }
+
+    /**
+     * Return session id
+     * @return id
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Return state of the game, which changes while the session is playing
+     * @return game state
+     */
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    /**
+     * Cancel the session, interrupting a round that is waiting for player input
+     * @return true if cancelled, false if the session was already done
+     */
+    public boolean cancel() {
+        return task.cancel(true);
+    }
+
+    /**
+     * Return true if the session is done: the game is over, failed, or the session was cancelled
+     * @return true if done
+     */
+    public boolean isDone() {
+        return task.isDone();
+    }
+
+    /**
+     * Return true if the session was cancelled
+     * @return true if cancelled
+     */
+    public boolean isCancelled() {
+        return task.isCancelled();
+    }
+
+    /**
+     * Wait for the session to be done, and for its thread to stop playing it
+     * @return final game state
+     * @throws CancellationException if the session was cancelled
+     */
+    public GameState await() {
+        try {
+            return Simulation.await(task);
+        } finally {
+            try {
+                stopped.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameSession: Id=%d, Done=%s, Cancelled=%s", id, isDone(), isCancelled());
+    }
+}
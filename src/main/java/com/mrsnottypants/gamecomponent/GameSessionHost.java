@@ -0,0 +1,158 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hosts many concurrent games, each played as a session on its own thread
+ *
+ * By default sessions run on virtual threads when the Java runtime supports them, and on a cached thread pool
+ * otherwise.  A round waiting for a human player through player input parks its session's thread; on a virtual
+ * thread this frees the carrier thread for other sessions.
+ * The host admits a limited number of sessions at once, rejecting sessions beyond the limit, and each session can
+ * be cancelled on its own.
+ *
+ * This class is thread-safe.
+ */
+public class GameSessionHost {
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int maxSessions;
+    private final Semaphore admissions;
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Construct a host from a host builder
+     * @param builder host builder
+     */
+    private GameSessionHost(Builder builder) {
+        this.executor = builder.executor != null ? builder.executor : newVirtualThreadExecutor();
+        this.ownsExecutor = builder.executor == null;
+        this.maxSessions = builder.maxSessions;
+        this.admissions = new Semaphore(builder.maxSessions);
+    }
+
+    /**
+     * Return an executor that starts a virtual thread per task, or a cached thread pool if the runtime has no
+     * virtual threads
+     * @return executor
+     */
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Start playing a game in a new session
+     * @param game game to play
+     * @param gameState state of the game
+     * @return session
+     * @throws RejectedExecutionException if the host is already playing its maximum number of sessions
+     */
+    public GameSession start(Game game, GameState gameState) {
+        if (!admissions.tryAcquire()) {
+            throw new RejectedExecutionException(String.format("Host is full: %d sessions", maxSessions));
+        }
+        long id = nextId.getAndIncrement();
+        GameSession session = new GameSession(id, game, gameState, () -> {
+            sessions.remove(id);
+            admissions.release();
+        });
+        sessions.put(id, session);
+        try {
+            executor.execute(session.getTask());
+        } catch (RuntimeException ex) {
+            session.cancel();
+            throw ex;
+        }
+        return session;
+    }
+
+    /**
+     * Return a session that is still playing
+     * @param id session id
+     * @return session, or null if there is no such session, or it has stopped
+     */
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Return number of sessions still playing, including cancelled sessions still finishing a round
+     * @return number of active sessions
+     */
+    public int getActiveSessions() {
+        return maxSessions - admissions.availablePermits();
+    }
+
+    /**
+     * Cancel every session, and stop the executor if the host created it
+     */
+    public void shutdown() {
+        for (GameSession session : sessions.values()) {
+            session.cancel();
+        }
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameSessionHost: Active=%d, Max=%d", getActiveSessions(), maxSessions);
+    }
+
+    // Builder for constructing a game session host
+    //
+    public final static class Builder {
+
+        private final int maxSessions;
+        private ExecutorService executor = null;
+
+        /**
+         * Construct a host builder
+         * @param maxSessions most sessions played at once
+         */
+        public Builder(int maxSessions) {
+            if (maxSessions < 1) {
+                throw new IllegalArgumentException(String.format("Max sessions must be positive: %d", maxSessions));
+            }
+            this.maxSessions = maxSessions;
+        }
+
+        /**
+         * Play sessions on this executor instead of virtual threads
+         * The executor needs a thread per session that is waiting for player input, and is not shut down by the host
+         * @param executor executor that plays sessions
+         * @return this builder, for easy chaining
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Return a host
+         * @return host
+         */
+        public GameSessionHost build() {
+            return new GameSessionHost(this);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pools game states in front of a game factory, so games played back to back reuse a few state graphs
+ *
+ * Each thread has its own pool, so acquiring and releasing take no locks.  Acquiring takes a state from the
+ * thread's pool and resets it, or asks the factory for a new state if the pool is empty.  Releasing a state after
+ * its game is played returns it to the releasing thread's pool, if the state is resettable and the pool has room.
+ * States that are not resettable are left to the garbage collector.  A random state reset for a new random must
+ * replace its random, or it would replay the old game's draws.
+ *
+ * A released state must no longer be used by its releaser, ex: a simulation only releases states after reducing
+ * them, so collectors must not keep them.
+ *
+ * This class is thread-safe.
+ */
+public class GameStatePool {
+
+    private final GameFactory gameFactory;
+    private final int capacity;
+
+    // states ready for reuse, by thread
+    private final ThreadLocal<ArrayDeque<GameState>> pools = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    /**
+     * Construct a pool
+     * @param gameFactory creates states when a thread's pool is empty
+     * @param capacity most states pooled per thread
+     */
+    public GameStatePool(GameFactory gameFactory, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Capacity must be positive: %d", capacity));
+        }
+        this.gameFactory = gameFactory;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Return a state for a new game, reused if one is pooled
+     * @return new or reset game state
+     */
+    public GameState acquire() {
+        GameState gameState = pools.get().pollLast();
+        if (gameState == null) {
+            created.increment();
+            return gameFactory.newGameState();
+        }
+        reused.increment();
+        Resettable.class.cast(gameState).reset();
+        return gameState;
+    }
+
+    /**
+     * Return a state for a new game drawing from a random split for it, reused if one is pooled
+     * @param random source of randomness for the new game
+     * @return new or reset game state
+     * @throws IllegalStateException if a pooled random state kept its random when reset
+     */
+    public GameState acquire(GameRandom random) {
+        GameState gameState = pools.get().pollLast();
+        if (gameState == null) {
+            created.increment();
+            return gameFactory.newGameState(random);
+        }
+        GameRandom kept = gameState instanceof RandomState ? RandomState.class.cast(gameState).getRandom() : null;
+        Resettable.class.cast(gameState).reset(random);
+        if (kept != null && kept != random && RandomState.class.cast(gameState).getRandom() == kept) {
+            throw new IllegalStateException(String.format("Random state kept its random when reset: %s",
+                    gameState));
+        }
+        reused.increment();
+        return gameState;
+    }
+
+    /**
+     * Return a state whose game is over to this thread's pool, for reuse
+     * @param gameState state no longer used
+     */
+    public void release(GameState gameState) {
+        ArrayDeque<GameState> pool = pools.get();
+        if (gameState instanceof Resettable && pool.size() < capacity) {
+            pool.addLast(gameState);
+        }
+    }
+
+    /**
+     * Return the number of states the factory created
+     * @return states created
+     */
+    public long getCreated() {
+        return created.sum();
+    }
+
+    /**
+     * Return the number of states reset and reused
+     * @return states reused
+     */
+    public long getReused() {
+        return reused.sum();
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("GameStatePool: Capacity=%d, Created=%d, Reused=%d", capacity, getCreated(), getReused());
+    }
+}
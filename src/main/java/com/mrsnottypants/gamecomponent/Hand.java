@@ -0,0 +1,249 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * Card sets held in one long, one bit per card, for hands, tricks, discards and the cards seen so far
+ *
+ * A card of a standard deck is suit * 13 + rank, ranks from 0 for a two up to 12 for an ace, so the cards of one suit
+ * are 13 adjacent bits.  Union, intersection and difference are |, &amp; and &amp; ~; the other set operations and the
+ * suit and rank masks are here, and none of them allocate.
+ * ex: The hearts in a hand are hand &amp; Hand.suitMask(Hand.HEARTS), and the hand holds a pair of aces if
+ * Hand.count(hand &amp; Hand.rankMask(Hand.ACE)) &gt;= 2
+ *
+ * Decks of up to 64 cards of any layout may be held in hands; the suit and rank masks assume the standard layout.
+ */
+public final class Hand {
+
+    public static final int SUITS = 4;
+    public static final int RANKS = 13;
+    public static final int CARDS = SUITS * RANKS;
+
+    public static final int CLUBS = 0;
+    public static final int DIAMONDS = 1;
+    public static final int HEARTS = 2;
+    public static final int SPADES = 3;
+
+    public static final int JACK = 9;
+    public static final int QUEEN = 10;
+    public static final int KING = 11;
+    public static final int ACE = 12;
+
+    // no hand at all, and every card of a standard deck
+    public static final long EMPTY = 0L;
+    public static final long FULL = (1L << CARDS) - 1;
+
+    // every card of the lowest suit, and every suit of the lowest rank
+    private static final long SUIT = (1L << RANKS) - 1;
+    private static final long RANK = 1L | 1L << RANKS | 1L << 2 * RANKS | 1L << 3 * RANKS;
+
+    private static final String RANK_NAMES = "23456789TJQKA";
+    private static final String SUIT_NAMES = "\u2663\u2666\u2665\u2660";
+
+    /**
+     * No hands, only static methods
+     */
+    private Hand() {
+    }
+
+    /**
+     * Return the card of a suit and rank
+     * @param suit suit, from 0 to 3
+     * @param rank rank, from 0 for a two up to 12 for an ace
+     * @return card
+     */
+    public static int card(int suit, int rank) {
+        if (suit < 0 || suit >= SUITS || rank < 0 || rank >= RANKS) {
+            throw new IllegalArgumentException(String.format("No card of suit %d and rank %d", suit, rank));
+        }
+        return suit * RANKS + rank;
+    }
+
+    /**
+     * Return the suit of a card
+     * @param card card
+     * @return suit
+     */
+    public static int suitOf(int card) {
+        return card / RANKS;
+    }
+
+    /**
+     * Return the rank of a card
+     * @param card card
+     * @return rank
+     */
+    public static int rankOf(int card) {
+        return card % RANKS;
+    }
+
+    /**
+     * Return a hand holding cards
+     * @param cards cards, from 0 to 63
+     * @return hand
+     */
+    public static long of(int... cards) {
+        long hand = EMPTY;
+        for (int card : cards) {
+            hand = add(hand, card);
+        }
+        return hand;
+    }
+
+    /**
+     * Return a hand with a card added
+     * @param hand hand
+     * @param card card, from 0 to 63
+     * @return hand holding the card
+     */
+    public static long add(long hand, int card) {
+        return hand | bit(card);
+    }
+
+    /**
+     * Return a hand with a card removed
+     * @param hand hand
+     * @param card card, from 0 to 63
+     * @return hand without the card
+     */
+    public static long remove(long hand, int card) {
+        return hand & ~bit(card);
+    }
+
+    /**
+     * Return whether a hand holds a card
+     * @param hand hand
+     * @param card card, from 0 to 63
+     * @return true if the hand holds the card
+     */
+    public static boolean contains(long hand, int card) {
+        return (hand & bit(card)) != 0;
+    }
+
+    /**
+     * Return the bit of a card, checking the card is in range since shifts wrap at 64
+     * @param card card, from 0 to 63
+     * @return bit of the card
+     */
+    private static long bit(int card) {
+        if (card < 0 || card >= Long.SIZE) {
+            throw new IllegalArgumentException(String.format("Card out of range: %d", card));
+        }
+        return 1L << card;
+    }
+
+    /**
+     * Return whether a hand holds every card of another
+     * @param hand hand
+     * @param cards cards looked for
+     * @return true if the hand holds them all
+     */
+    public static boolean containsAll(long hand, long cards) {
+        return (hand & cards) == cards;
+    }
+
+    /**
+     * Return whether a hand holds any card of another
+     * @param hand hand
+     * @param cards cards looked for
+     * @return true if the hand holds any of them
+     */
+    public static boolean containsAny(long hand, long cards) {
+        return (hand & cards) != 0;
+    }
+
+    /**
+     * Return the number of cards in a hand
+     * @param hand hand
+     * @return card count
+     */
+    public static int count(long hand) {
+        return Long.bitCount(hand);
+    }
+
+    /**
+     * Return the lowest card of a hand, ex: to take each card of a hand in turn with hand = Hand.remove(hand, card)
+     * @param hand hand, not empty
+     * @return lowest card
+     */
+    public static int lowest(long hand) {
+        if (hand == EMPTY) {
+            throw new IllegalArgumentException("Empty hand has no lowest card");
+        }
+        return Long.numberOfTrailingZeros(hand);
+    }
+
+    /**
+     * Return the highest card of a hand, ex: the best card of a suit
+     * @param hand hand, not empty
+     * @return highest card
+     */
+    public static int highest(long hand) {
+        if (hand == EMPTY) {
+            throw new IllegalArgumentException("Empty hand has no highest card");
+        }
+        return Long.SIZE - 1 - Long.numberOfLeadingZeros(hand);
+    }
+
+    /**
+     * Return every card of a suit
+     * @param suit suit, from 0 to 3
+     * @return suit mask
+     */
+    public static long suitMask(int suit) {
+        if (suit < 0 || suit >= SUITS) {
+            throw new IllegalArgumentException(String.format("Suit out of range: %d", suit));
+        }
+        return SUIT << suit * RANKS;
+    }
+
+    /**
+     * Return every card of a rank
+     * @param rank rank, from 0 to 12
+     * @return rank mask
+     */
+    public static long rankMask(int rank) {
+        if (rank < 0 || rank >= RANKS) {
+            throw new IllegalArgumentException(String.format("Rank out of range: %d", rank));
+        }
+        return RANK << rank;
+    }
+
+    /**
+     * Return the ranks a hand holds in a suit, bit 0 for a two up to bit 12 for an ace
+     * @param hand hand
+     * @param suit suit, from 0 to 3
+     * @return ranks of the suit
+     */
+    public static int ranksOf(long hand, int suit) {
+        return (int) (hand >>> suit * RANKS & SUIT);
+    }
+
+    /**
+     * Return the ranks a hand holds in any suit, bit 0 for a two up to bit 12 for an ace
+     * @param hand hand
+     * @return ranks held
+     */
+    public static int ranks(long hand) {
+        return (int) ((hand | hand >>> RANKS | hand >>> 2 * RANKS | hand >>> 3 * RANKS) & SUIT);
+    }
+
+    /**
+     * Return a friendly description of a hand, ex: a two of clubs and an ace of spades are "2&clubs; A&spades;"
+     * @param hand hand of a standard deck
+     * @return description
+     */
+    public static String toString(long hand) {
+        StringBuilder description = new StringBuilder();
+        for (long cards = hand; cards != EMPTY; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            if (description.length() > 0) {
+                description.append(' ');
+            }
+            if (card < CARDS) {
+                description.append(RANK_NAMES.charAt(rankOf(card))).append(SUIT_NAMES.charAt(suitOf(card)));
+            } else {
+                description.append('#').append(card);
+            }
+        }
+        return description.toString();
+    }
+}
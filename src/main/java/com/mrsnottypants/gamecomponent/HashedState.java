@@ -0,0 +1,17 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * A game or player state that keeps a 64-bit fingerprint of itself, ex: for caching decisions or detecting
+ * transpositions in search
+ *
+ * The hash is kept up to date as the state changes, typically with a state hash, so reading it is O(1).  Equal
+ * states have equal hashes, unequal states almost always differ.
+ */
+public interface HashedState {
+
+    /**
+     * Return the fingerprint of this state
+     * @return 64-bit hash
+     */
+    long getHash();
+}
@@ -0,0 +1,143 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts non-negative values in log-linear buckets, ex: nanos taken by rounds
+ *
+ * Values below 32 each get their own bucket.  Above that, every power of 2 is split into 16 buckets, so any value is
+ * reported within about 6% of what was recorded.  Buckets are fixed, so recording is a few instructions and an
+ * atomic increment, with no locks and no allocation.
+ *
+ * This class is thread-safe.
+ */
+public class Histogram {
+
+    // values below this are counted exactly
+    private static final int LINEAR = 32;
+
+    // buckets per power of 2, above the linear range
+    private static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = 4;
+
+    // enough buckets for any non-negative long
+    private static final int BUCKETS = LINEAR + (63 - 5) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Return the bucket a value is counted in
+     * @param value non-negative value
+     * @return bucket index
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BITS;
+        return LINEAR + (magnitude - 5) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Return the highest value counted in a bucket
+     * @param bucket bucket index
+     * @return highest value
+     */
+    static long highestOf(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int magnitude = (bucket - LINEAR) / SUB_BUCKETS + 5;
+        int shift = magnitude - SUB_BITS;
+        long lowest = (long) (SUB_BUCKETS + (bucket - LINEAR) % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Count a value, negative values are counted as 0
+     * @param value value to count
+     */
+    public void record(long value) {
+        long recorded = Math.max(0, value);
+        counts.incrementAndGet(bucketOf(recorded));
+        count.incrementAndGet();
+        total.addAndGet(recorded);
+        long highest = max.get();
+        while (recorded > highest && !max.compareAndSet(highest, recorded)) {
+            highest = max.get();
+        }
+    }
+
+    /**
+     * Return the number of values counted
+     * @return count
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Return the sum of values counted
+     * @return total
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * Return the largest value counted
+     * @return max, 0 if nothing is counted
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Return the mean of values counted
+     * @return mean, 0 if nothing is counted
+     */
+    public double getMean() {
+        long counted = count.get();
+        return counted == 0 ? 0.0 : (double) total.get() / counted;
+    }
+
+    /**
+     * Return a value at or above the percentile of values counted, accurate to its bucket
+     * ex: getPercentile(99.0) for the 99th percentile
+     * @param percentile from 0 to 100
+     * @return value at the percentile, 0 if nothing is counted
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException(String.format("Percentile must be from 0 to 100: %f", percentile));
+        }
+        long counted = count.get();
+        if (counted == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * counted));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(highestOf(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("Histogram: Count=%d, Mean=%.1f, P50=%d, P99=%d, Max=%d",
+                getCount(), getMean(), getPercentile(50.0), getPercentile(99.0), getMax());
+    }
+}
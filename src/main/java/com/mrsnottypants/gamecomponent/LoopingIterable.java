@@ -8,6 +8,8 @@ import java.util.Iterator;
  * It is common for games to make endless loops through the same iterable, until outside state terminates it
  * ex: A list of game rounds, or a list of players
  *
+ * Each loop asks the source for a new iterator.  For a fixed list, ring-iterable loops without allocating.
+ *
  * Created by Eric on 6/21/2016.
  */
 public class LoopingIterable<E> implements Iterable<E> {
@@ -0,0 +1,34 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * To create games between seated players, ex: for a tournament
+ */
+public interface MatchFactory {
+
+    /**
+     * Return a new game
+     * Note: Game objects are stateless, and can be used for multiple games
+     * @return New game
+     */
+    Game newGame();
+
+    /**
+     * Return a new game state with players seated, which must be a seated state
+     * @param seats players, by seat
+     * @param random source of randomness for this game
+     * @return New game state
+     */
+    GameState newGameState(Player[] seats, GameRandom random);
+
+    /**
+     * Return a game state for another game with players seated, reusing a state whose game is over if possible
+     * By default this returns a new game state, factories whose states can be reseated override this.
+     * @param gameState state whose game is over, no longer used by the caller
+     * @param seats players, by seat
+     * @param random source of randomness for this game
+     * @return New or reset game state
+     */
+    default GameState resetGameState(GameState gameState, Player[] seats, GameRandom random) {
+        return newGameState(seats, random);
+    }
+}
@@ -0,0 +1,22 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * A play choice that can be split into partial choices and merged back together
+ *
+ * This lets a player consider strategies concurrently: each strategy updates its own partial choice, and the
+ * partials are merged into the original choice in strategy order, so the result does not depend on thread timing.
+ */
+public interface MergeablePlayChoice extends PlayChoice {
+
+    /**
+     * Return a new, empty choice of the same kind, to be updated by a single strategy
+     * @return empty partial choice
+     */
+    MergeablePlayChoice newPartial();
+
+    /**
+     * Merge a partial choice into this choice, as if the strategy that updated the partial had updated this choice
+     * @param partial partial choice, created by newPartial
+     */
+    void merge(MergeablePlayChoice partial);
+}
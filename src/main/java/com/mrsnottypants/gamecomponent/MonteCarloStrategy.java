@@ -0,0 +1,468 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A play strategy that weighs moves by Monte Carlo tree search
+ *
+ * Each iteration selects moves down the search tree by UCT, drawing moves at chance nodes by their probability,
+ * applies them to a copy of the game state, then plays a
+ * bounded rollout of random moves and scores the result for every player.  Iterations run on several threads sharing
+ * one tree: node statistics are updated lock-free, and virtual loss steers threads away from the same path.
+ * Search stops when the iteration budget or time budget is spent, and each root move is weighed by its visit count
+ * or win rate in the weighted play choice passed to consider.
+ *
+ * Rollouts are played through the search model from the leaf's own position, rather than by the game's rounds,
+ * whose schedule knows nothing of the moves applied in the tree.  Players' moves are picked uniformly at random,
+ * and chance moves by their probability.
+ *
+ * This is a flyweight class, meaning immutable with state externalized.
+ */
+public class MonteCarloStrategy<S extends GameState & Restorable> implements PlayStrategy {
+
+    /**
+     * What root moves are weighed by
+     */
+    public enum Weight {
+        VISITS,
+        WIN_RATE
+    }
+
+    // rewards are summed in fixed point, so they can be added atomically
+    private static final double REWARD_SCALE = 1 << 20;
+
+    // player of the moves of a chance node, which no player is credited for
+    private static final int CHANCE = -1;
+
+    private final SearchModel<S> model;
+    private final ExecutorService executor;
+    private final int threads;
+    private final long iterations;
+    private final long timeBudgetNanos;
+    private final long rolloutMoves;
+    private final double exploration;
+    private final int virtualLoss;
+    private final Weight weight;
+
+    /**
+     * Construct a strategy from a strategy builder
+     * @param builder strategy builder
+     */
+    private MonteCarloStrategy(Builder<S> builder) {
+        this.model = builder.model;
+        this.executor = builder.executor;
+        this.threads = builder.threads;
+        this.iterations = builder.iterations;
+        this.timeBudgetNanos = builder.timeBudgetNanos;
+        this.rolloutMoves = builder.rolloutMoves;
+        this.exploration = builder.exploration;
+        this.virtualLoss = builder.virtualLoss;
+        this.weight = builder.weight;
+    }
+
+    /**
+     * Search from the game state, and weigh each available move in the play choice
+     * @param playerState State of the player
+     * @param gameState State of the game, not changed
+     * @param playChoice Weighted play choice, updated with a weight per move id
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void consider(PlayerState playerState, GameState gameState, PlayChoice playChoice) {
+        S state = (S) gameState;
+        WeightedPlayChoice weightedPlayChoice = (WeightedPlayChoice) playChoice;
+        if (state.isGameOver()) {
+            return;
+        }
+
+        // helper threads search copies of the state, alongside this thread
+        Search search = new Search();
+        List<Future<?>> futures = new ArrayList<>(threads - 1);
+        for (int thread = 1; thread < threads; ++thread) {
+            S copy = model.copyState(state);
+            futures.add(executor.submit(() -> search.run(copy)));
+        }
+        try {
+            search.run(model.copyState(state));
+        } finally {
+            for (Future<?> future : futures) {
+                Simulation.await(future);
+            }
+        }
+        search.weigh(weightedPlayChoice);
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("MonteCarloStrategy: Threads=%d, Iterations=%d, TimeBudget=%dns, Weight=%s",
+                threads, iterations, timeBudgetNanos, weight);
+    }
+
+    // One search, shared by every thread searching for a decision
+    //
+    private final class Search {
+
+        private final Node root = new Node(-1, -1);
+        private final AtomicLong started = new AtomicLong();
+        private final long deadline = timeBudgetNanos > 0 ? System.nanoTime() + timeBudgetNanos : 0;
+        private volatile boolean stopped = false;
+
+        /**
+         * Return true if the budget allows another iteration
+         * @return true to continue
+         */
+        private boolean proceed() {
+            return !stopped && started.getAndIncrement() < iterations &&
+                    (deadline == 0 || System.nanoTime() - deadline < 0);
+        }
+
+        /**
+         * Run iterations on a state owned by this thread, until the budget is spent
+         * @param state copy of the game state
+         */
+        void run(S state) {
+            int[] moves = new int[model.getMoveCapacity()];
+            double[] rewards = new double[model.getPlayerCount()];
+            List<Node> path = new ArrayList<>();
+            Random random = ThreadLocalRandom.current();
+            try {
+                while (proceed()) {
+                    iterate(state, moves, rewards, path, random);
+                }
+            } catch (RuntimeException | Error ex) {
+                stopped = true;
+                throw ex;
+            }
+        }
+
+        /**
+         * Select and expand a path down the tree, roll out, and back up the rewards
+         * @param state copy of the game state, restored afterwards
+         * @param moves working space for moves
+         * @param rewards working space for rewards
+         * @param path working space for the selected path
+         * @param random picks rollout moves
+         */
+        private void iterate(S state, int[] moves, double[] rewards, List<Node> path, Random random) {
+            int snapshot = state.snapshot();
+            try {
+
+                // descend until a new leaf, or the end of the game
+                path.clear();
+                Node node = root;
+                while (!state.isGameOver()) {
+                    Node[] children = node.expand(model, state, moves);
+                    Node child = model.isChance(state) ? sampleChance(state, children, random) :
+                            node.select(children, exploration);
+                    if (child == null) {
+                        break;
+                    }
+                    Node.VIRTUAL.addAndGet(child, virtualLoss);
+                    path.add(child);
+                    model.applyMove(state, child.move);
+                    node = child;
+                    if (child.visits == 0) {
+                        break;
+                    }
+                }
+
+                // roll out, then score for every player
+                rollout(state, moves, random);
+                for (int player = 0; player < rewards.length; ++player) {
+                    rewards[player] = model.getReward(state, player);
+                }
+
+                // each node is scored for the player who made its move
+                Node.VISITS.incrementAndGet(root);
+                for (Node child : path) {
+                    if (child.player != CHANCE) {
+                        Node.REWARD.addAndGet(child, (long) (rewards[child.player] * REWARD_SCALE));
+                    }
+                    Node.VISITS.incrementAndGet(child);
+                    Node.VIRTUAL.addAndGet(child, -virtualLoss);
+                }
+            } finally {
+                state.restore(snapshot);
+            }
+        }
+
+        /**
+         * Play random moves until the game is over, or the rollout budget is spent
+         * @param state copy of the game state, at a leaf of the tree
+         * @param moves working space for moves
+         * @param random picks moves
+         */
+        private void rollout(S state, int[] moves, Random random) {
+            for (long played = 0; played < rolloutMoves && !state.isGameOver(); ++played) {
+                int count = model.getMoves(state, moves);
+                if (count == 0) {
+                    return;
+                }
+                int index = model.isChance(state) ? sampleChance(state, moves, count, random) : random.nextInt(count);
+                model.applyMove(state, moves[index]);
+            }
+        }
+
+        /**
+         * Return the index of a chance move, drawn by probability
+         * @param state game state at a chance node
+         * @param moves moves available
+         * @param count number of moves available
+         * @param random draws the move
+         * @return index of the move drawn
+         */
+        private int sampleChance(S state, int[] moves, int count, Random random) {
+            double draw = random.nextDouble();
+            for (int index = 0; index < count - 1; ++index) {
+                draw -= model.getChance(state, moves[index], count);
+                if (draw < 0.0) {
+                    return index;
+                }
+            }
+            return count - 1;
+        }
+
+        /**
+         * Return the child of a chance node reached by a chance move, drawn by probability
+         * @param state game state at the chance node
+         * @param children children of the chance node
+         * @param random draws the move
+         * @return child drawn, or null if there are no children
+         */
+        private Node sampleChance(S state, Node[] children, Random random) {
+            if (children.length == 0) {
+                return null;
+            }
+            double draw = random.nextDouble();
+            for (int index = 0; index < children.length - 1; ++index) {
+                draw -= model.getChance(state, children[index].move, children.length);
+                if (draw < 0.0) {
+                    return children[index];
+                }
+            }
+            return children[children.length - 1];
+        }
+
+        /**
+         * Weigh each root move by visits or win rate
+         * @param playChoice updated with a weight per move
+         */
+        void weigh(WeightedPlayChoice playChoice) {
+            Node[] children = root.children;
+            if (children == null) {
+                return;
+            }
+            for (Node child : children) {
+                int visits = child.visits;
+                playChoice.weigh(child.move, weight == Weight.VISITS ? visits :
+                        visits == 0 ? 0.0 : child.reward / REWARD_SCALE / visits);
+            }
+        }
+    }
+
+    // Search tree node, reached by a move
+    //
+    private static final class Node {
+
+        static final AtomicIntegerFieldUpdater<Node> VISITS =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+        static final AtomicIntegerFieldUpdater<Node> VIRTUAL =
+                AtomicIntegerFieldUpdater.newUpdater(Node.class, "virtual");
+        static final AtomicLongFieldUpdater<Node> REWARD =
+                AtomicLongFieldUpdater.newUpdater(Node.class, "reward");
+        static final AtomicReferenceFieldUpdater<Node, Node[]> CHILDREN =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, Node[].class, "children");
+
+        // move that reaches this node, and the player who made it, or CHANCE
+        final int move;
+        final int player;
+
+        volatile int visits = 0;
+        volatile int virtual = 0;
+        volatile long reward = 0;
+        volatile Node[] children = null;
+
+        Node(int move, int player) {
+            this.move = move;
+            this.player = player;
+        }
+
+        /**
+         * Return children, creating them from the available moves if this is the first visit to expand
+         * @param model describes the moves of the game
+         * @param state game state at this node
+         * @param moves working space for moves
+         * @param <S> type of game state
+         * @return children, empty if there are no moves
+         */
+        <S extends GameState & Restorable> Node[] expand(SearchModel<S> model, S state, int[] moves) {
+            Node[] expanded = children;
+            if (expanded != null) {
+                return expanded;
+            }
+            int count = model.getMoves(state, moves);
+            int player = model.isChance(state) ? CHANCE : model.getPlayerToMove(state);
+            expanded = new Node[count];
+            for (int index = 0; index < count; ++index) {
+                expanded[index] = new Node(moves[index], player);
+            }
+
+            // another thread may have expanded first, its children win
+            return CHILDREN.compareAndSet(this, null, expanded) ? expanded : children;
+        }
+
+        /**
+         * Return the child with the best upper confidence bound, counting virtual losses as visits without reward
+         * @param children children of this node
+         * @param exploration weight of exploration
+         * @return best child, or null if there are no children
+         */
+        Node select(Node[] children, double exploration) {
+            double logVisits = Math.log(Math.max(1, visits + virtual));
+            Node best = null;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                int count = child.visits + child.virtual;
+                if (count == 0) {
+                    return child;
+                }
+                double score = child.reward / REWARD_SCALE / count + exploration * Math.sqrt(logVisits / count);
+                if (score > bestScore) {
+                    best = child;
+                    bestScore = score;
+                }
+            }
+            return best;
+        }
+    }
+
+    // Builder for constructing a Monte Carlo strategy
+    //
+    public final static class Builder<S extends GameState & Restorable> {
+
+        private final SearchModel<S> model;
+        private ExecutorService executor = ForkJoinPool.commonPool();
+        private int threads = 1;
+        private long iterations = 10_000;
+        private long timeBudgetNanos = 0;
+        private long rolloutMoves = Long.MAX_VALUE;
+        private double exploration = Math.sqrt(2.0);
+        private int virtualLoss = 1;
+        private Weight weight = Weight.VISITS;
+
+        /**
+         * Construct a strategy builder
+         * @param model describes the moves of the game, and plays rollouts
+         */
+        public Builder(SearchModel<S> model) {
+            this.model = model;
+        }
+
+        /**
+         * Search on this many threads, the calling thread and helpers from the executor
+         * @param threads number of threads
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> threads(int threads) {
+            if (threads < 1) {
+                throw new IllegalArgumentException(String.format("Threads must be positive: %d", threads));
+            }
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Run helper threads on this executor instead of the common fork-join pool
+         * @param executor executor for helper threads
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Stop after this many iterations per decision, across all threads
+         * @param iterations iteration budget
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> iterations(long iterations) {
+            this.iterations = iterations;
+            return this;
+        }
+
+        /**
+         * Stop after this much time per decision, whether or not the iteration budget is spent
+         * @param time time budget
+         * @param unit unit of time
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> timeBudget(long time, TimeUnit unit) {
+            this.timeBudgetNanos = unit.toNanos(time);
+            return this;
+        }
+
+        /**
+         * Play at most this many moves per rollout
+         * @param rolloutMoves moves per rollout
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> rolloutMoves(long rolloutMoves) {
+            this.rolloutMoves = rolloutMoves;
+            return this;
+        }
+
+        /**
+         * Weight of exploration in the upper confidence bound
+         * @param exploration exploration constant
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> exploration(double exploration) {
+            this.exploration = exploration;
+            return this;
+        }
+
+        /**
+         * Visits without reward added to a node while a thread is searching below it
+         * @param virtualLoss virtual loss
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> virtualLoss(int virtualLoss) {
+            this.virtualLoss = virtualLoss;
+            return this;
+        }
+
+        /**
+         * Weigh root moves by visits or by win rate
+         * @param weight what root moves are weighed by
+         * @return this builder, for easy chaining
+         */
+        public Builder<S> weight(Weight weight) {
+            this.weight = weight;
+            return this;
+        }
+
+        /**
+         * Return a strategy
+         * @return strategy
+         */
+        public MonteCarloStrategy<S> build() {
+            return new MonteCarloStrategy<>(this);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.mrsnottypants.gamecomponent;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiFunction;
 
 /**
  * Represents one player, either computer controlled or human.  Contains sets of play strategies by type.  This is how
@@ -9,20 +12,89 @@ import java.util.*;
  * This is a flyweight class, meaning immutable with state externalized.
  * This allows for easy reuse without synchronization
  *
+ * Strategies are frozen into an array indexed by strategy type key, so strategy type keys should be small
+ * non-negative numbers.  Strategies of a type are considered in the order they were added.
+ *
+ * A player may opt in to considering strategies concurrently on a fork-join pool.  This only applies when the
+ * play choice is mergeable, and requires strategies that only read player and game state.
+ *
+ * A player with listeners reports each strategy considered, a player without listeners considers uninstrumented.
+ *
+ * A player may cache the choices of its strategies by state key, when its strategies are pure functions of the
+ * part of the state the key is extracted from.  This only applies when the play choice is mergeable.  Choices are
+ * keyed by the strategies considered too, so players sharing a cache only replay each other's choices when they
+ * consider the same strategy instances, in the same order.
+ *
  * Created by Eric on 6/24/2016.
  */
 public class Player {
 
+    // shared by keys without strategies
+    private static final PlayStrategy[] NO_STRATEGIES = new PlayStrategy[0];
+
     private final boolean computerControlled;
     private final Map<PlayStrategyType, Set<PlayStrategy>> playStrategies;
 
+    // strategies indexed by type key, and the hash of each key's strategies for cache keys
+    private final PlayStrategy[][] playStrategiesByKey;
+    private final int[] strategyHashesByKey;
+
+    // pool for considering strategies concurrently, or null to consider them one at a time
+    private final ForkJoinPool pool;
+
+    // observers of strategies considered, empty to consider uninstrumented
+    private final GameListener[] listeners;
+
+    // cache of choices by strategy type and state key, or null to always consider
+    private final DecisionCache cache;
+    private final BiFunction<? super PlayerState, ? super GameState, ?> cacheKeyFunction;
+
     /**
      * Construct a player
      * @param builder Player builder
      */
     private Player(Builder builder) {
         this.computerControlled = builder.computerControlled;
-        this.playStrategies = builder.playStrategies;
+        this.pool = builder.pool;
+        this.listeners = builder.listeners.toArray(new GameListener[builder.listeners.size()]);
+        this.cache = builder.cache;
+        this.cacheKeyFunction = builder.cacheKeyFunction;
+
+        // copy strategies, so later changes to the builder do not leak into this player
+        Map<PlayStrategyType, Set<PlayStrategy>> playStrategies = new LinkedHashMap<>();
+        for (Map.Entry<PlayStrategyType, Set<PlayStrategy>> entry : builder.playStrategies.entrySet()) {
+            playStrategies.put(entry.getKey(), Collections.unmodifiableSet(new LinkedHashSet<>(entry.getValue())));
+        }
+        this.playStrategies = Collections.unmodifiableMap(playStrategies);
+
+        // freeze strategies into a dense array indexed by key
+        int maxKey = -1;
+        for (PlayStrategyType type : playStrategies.keySet()) {
+            maxKey = Math.max(maxKey, type.getKey());
+        }
+        this.playStrategiesByKey = new PlayStrategy[maxKey + 1][];
+        Arrays.fill(playStrategiesByKey, NO_STRATEGIES);
+        for (Map.Entry<PlayStrategyType, Set<PlayStrategy>> entry : playStrategies.entrySet()) {
+            int key = entry.getKey().getKey();
+            PlayStrategy[] strategies = entry.getValue().toArray(new PlayStrategy[entry.getValue().size()]);
+            playStrategiesByKey[key] = concat(playStrategiesByKey[key], strategies);
+        }
+        this.strategyHashesByKey = new int[playStrategiesByKey.length];
+        for (int key = 0; key < playStrategiesByKey.length; ++key) {
+            strategyHashesByKey[key] = Arrays.hashCode(playStrategiesByKey[key]);
+        }
+    }
+
+    /**
+     * Return two arrays of strategies joined, for types that share a key
+     * @param first first strategies
+     * @param second second strategies
+     * @return joined strategies
+     */
+    private static PlayStrategy[] concat(PlayStrategy[] first, PlayStrategy[] second) {
+        PlayStrategy[] strategies = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, strategies, first.length, second.length);
+        return strategies;
     }
 
     /**
@@ -39,8 +111,8 @@ public class Player {
      */
     @Override
     public String toString() {
-        return String.format("Player: Computer=%s, Strategies=%s",
-                computerControlled, playStrategies.toString());
+        return String.format("Player: Computer=%s, Parallel=%s, Cached=%s, Strategies=%s",
+                computerControlled, pool != null, cache != null, playStrategies.toString());
     }
 
     /**
@@ -54,12 +126,168 @@ public class Player {
      */
     public void consider(PlayStrategyType type, PlayerState playerState, GameState gameState, PlayChoice playChoice) {
 
-        // default to empty set
-        Set<PlayStrategy> playStrategies = this.playStrategies.containsKey(type) ?
-                this.playStrategies.get(type) : Collections.emptySet();
+        // keys without strategies have nothing to consider
+        int key = type.getKey();
+        if (key < 0 || key >= playStrategiesByKey.length) {
+            return;
+        }
+
+        // replay cached choices if possible
+        PlayStrategy[] strategies = playStrategiesByKey[key];
+        if (cache != null && strategies.length > 0 && playChoice instanceof MergeablePlayChoice) {
+            cache.replay(new CacheKey(key, strategies, strategyHashesByKey[key],
+                            cacheKeyFunction.apply(playerState, gameState)),
+                    (MergeablePlayChoice) playChoice,
+                    partial -> considerStrategies(type, strategies, playerState, gameState, partial));
+            return;
+        }
+        considerStrategies(type, strategies, playerState, gameState, playChoice);
+    }
+
+    /**
+     * Updates playChoice with choice values generated by strategies of a type
+     * @param type Type of choice being considered
+     * @param strategies Strategies of that type
+     * @param playerState State of the player
+     * @param gameState State of the game
+     * @param playChoice Updated with choice values
+     */
+    private void considerStrategies(PlayStrategyType type, PlayStrategy[] strategies, PlayerState playerState,
+                                    GameState gameState, PlayChoice playChoice) {
+
+        // consider concurrently if possible and worthwhile
+        if (pool != null && strategies.length > 1 && playChoice instanceof MergeablePlayChoice) {
+            considerParallel(type, strategies, playerState, gameState, (MergeablePlayChoice) playChoice);
+            return;
+        }
 
         // update playChoice with choices made by relevant strategies
-        playStrategies.stream().forEach(strategy -> strategy.consider(playerState, gameState, playChoice));
+        if (listeners.length == 0) {
+            for (PlayStrategy strategy : strategies) {
+                strategy.consider(playerState, gameState, playChoice);
+            }
+            return;
+        }
+        for (PlayStrategy strategy : strategies) {
+            considerObserved(type, strategy, playerState, gameState, playChoice);
+        }
+    }
+
+    /**
+     * Considers a strategy, reporting it to the player's listeners
+     * @param type Type of choice being considered
+     * @param strategy Strategy to consider
+     * @param playerState State of the player
+     * @param gameState State of the game
+     * @param playChoice Updated with choice values
+     */
+    private void considerObserved(PlayStrategyType type, PlayStrategy strategy, PlayerState playerState,
+                                  GameState gameState, PlayChoice playChoice) {
+        long start = System.nanoTime();
+        strategy.consider(playerState, gameState, playChoice);
+        long nanos = System.nanoTime() - start;
+        for (GameListener listener : listeners) {
+            listener.considered(this, type, strategy, gameState, nanos);
+        }
+    }
+
+    /**
+     * Considers strategies concurrently, each updating its own partial choice, then merges partials in order
+     * @param type Type of choice being considered
+     * @param strategies Strategies to consider
+     * @param playerState State of the player
+     * @param gameState State of the game
+     * @param playChoice Updated with merged choice values
+     */
+    private void considerParallel(PlayStrategyType type, PlayStrategy[] strategies, PlayerState playerState,
+                                  GameState gameState, MergeablePlayChoice playChoice) {
+        MergeablePlayChoice[] partials = new MergeablePlayChoice[strategies.length];
+        for (int index = 0; index < partials.length; ++index) {
+            partials[index] = playChoice.newPartial();
+        }
+        pool.invoke(new ConsiderAction(this, type, strategies, playerState, gameState, partials,
+                0, strategies.length));
+
+        // merge in strategy order, so the result matches considering one at a time
+        for (MergeablePlayChoice partial : partials) {
+            playChoice.merge(partial);
+        }
+    }
+
+    // Key of cached choices: the strategy type key, the strategies considered, and the state key
+    //
+    private static final class CacheKey {
+
+        private final int type;
+        private final PlayStrategy[] strategies;
+        private final int strategiesHash;
+        private final Object state;
+
+        CacheKey(int type, PlayStrategy[] strategies, int strategiesHash, Object state) {
+            this.type = type;
+            this.strategies = strategies;
+            this.strategiesHash = strategiesHash;
+            this.state = state;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey key = (CacheKey) other;
+            return type == key.type && strategiesHash == key.strategiesHash &&
+                    (strategies == key.strategies || Arrays.equals(strategies, key.strategies)) &&
+                    Objects.equals(state, key.state);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * type + strategiesHash) * 31 + Objects.hashCode(state);
+        }
+    }
+
+    // Considers a range of strategies, splitting the range until a single strategy remains
+    //
+    private static final class ConsiderAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Player player;
+        private final PlayStrategyType type;
+        private final PlayStrategy[] strategies;
+        private final PlayerState playerState;
+        private final GameState gameState;
+        private final MergeablePlayChoice[] partials;
+        private final int from;
+        private final int to;
+
+        ConsiderAction(Player player, PlayStrategyType type, PlayStrategy[] strategies, PlayerState playerState,
+                       GameState gameState, MergeablePlayChoice[] partials, int from, int to) {
+            this.player = player;
+            this.type = type;
+            this.strategies = strategies;
+            this.playerState = playerState;
+            this.gameState = gameState;
+            this.partials = partials;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                if (player.listeners.length == 0) {
+                    strategies[from].consider(playerState, gameState, partials[from]);
+                } else {
+                    player.considerObserved(type, strategies[from], playerState, gameState, partials[from]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ConsiderAction(player, type, strategies, playerState, gameState, partials, from, middle),
+                    new ConsiderAction(player, type, strategies, playerState, gameState, partials, middle, to));
+        }
     }
 
     // Used to build a player
@@ -67,7 +295,11 @@ public class Player {
     public final static class Builder {
 
         private final boolean computerControlled;
-        private final Map<PlayStrategyType, Set<PlayStrategy>> playStrategies = new HashMap<>();
+        private final Map<PlayStrategyType, Set<PlayStrategy>> playStrategies = new LinkedHashMap<>();
+        private ForkJoinPool pool = null;
+        private final List<GameListener> listeners = new ArrayList<>();
+        private DecisionCache cache = null;
+        private BiFunction<? super PlayerState, ? super GameState, ?> cacheKeyFunction = null;
 
         /**
          * Construct a player builder
@@ -85,9 +317,15 @@ public class Player {
          */
         public Builder addPlayStrategy(PlayStrategyType type, PlayStrategy playStrategy) {
 
+            // strategies are indexed by key
+            if (type.getKey() < 0) {
+                throw new IllegalArgumentException(String.format("Strategy type key must not be negative: %d",
+                        type.getKey()));
+            }
+
             // add set for this type, if this is the first time we've seen this type
             if (!playStrategies.containsKey(type)) {
-                playStrategies.put(type, new HashSet<>());
+                playStrategies.put(type, new LinkedHashSet<>());
             }
 
             // save strategy by type
@@ -95,6 +333,45 @@ public class Player {
             return this;
         }
 
+        /**
+         * Consider the strategies of a type concurrently on the common fork-join pool
+         * @return builder, for easy chaining
+         */
+        public Builder parallel() {
+            return parallel(ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Consider the strategies of a type concurrently on the passed fork-join pool
+         * @param pool pool on which strategies are considered
+         * @return builder, for easy chaining
+         */
+        public Builder parallel(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Add an observer of strategies considered
+         * @param listener called as strategies are considered, must be thread-safe
+         * @return builder, for easy chaining
+         */
+        public Builder addListener(GameListener listener) {
+            listeners.add(listener);
+            return this;
+        }
+
+        /**
+         * Cache the choices of this player's strategies by strategy type, strategies and state key
+         * @param cache cache of choices, may be shared by players, who only share choices of the same strategies
+         * @param keyFunction extracts the part of the state the strategies depend on
+         * @return builder, for easy chaining
+         */
+        public Builder cache(DecisionCache cache, BiFunction<? super PlayerState, ? super GameState, ?> keyFunction) {
+            this.cache = cache;
+            this.cacheKeyFunction = keyFunction;
+            return this;
+        }
 
         /**
          * Construct and return a player
@@ -0,0 +1,122 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands input from a human player to the round waiting for it
+ *
+ * A round that needs a decision from a player who is not computer controlled waits here, while the server thread
+ * that receives the player's action offers it.  Waiting uses java.util.concurrent locks rather than synchronized,
+ * so a game session on a virtual thread unmounts from its carrier thread while the player thinks.
+ * Waiting is interruptible: cancelling the game session ends the wait with a cancellation exception.
+ *
+ * This class is thread-safe.
+ */
+public class PlayerInput<T> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Queue<T> inputs = new ArrayDeque<>();
+
+    /**
+     * Offer input from the player, waking the round waiting for it
+     * @param input player's input
+     */
+    public void offer(T input) {
+        lock.lock();
+        try {
+            inputs.add(input);
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for input from the player
+     * @return player's input
+     * @throws CancellationException if the waiting thread is interrupted, ex: its game session is cancelled
+     */
+    public T await() {
+        lock.lock();
+        try {
+            while (inputs.isEmpty()) {
+                available.await();
+            }
+            return inputs.remove();
+        } catch (InterruptedException ex) {
+            throw cancelled(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait a limited time for input from the player
+     * @param timeout most time to wait
+     * @param unit unit of timeout
+     * @return player's input, or null if the player did not act in time
+     * @throws CancellationException if the waiting thread is interrupted, ex: its game session is cancelled
+     */
+    public T await(long timeout, TimeUnit unit) {
+        lock.lock();
+        try {
+            long nanos = unit.toNanos(timeout);
+            while (inputs.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = available.awaitNanos(nanos);
+            }
+            return inputs.remove();
+        } catch (InterruptedException ex) {
+            throw cancelled(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Return input from the player if there is any, without waiting
+     * @return player's input, or null if there is none
+     */
+    public T poll() {
+        lock.lock();
+        try {
+            return inputs.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Restore the interrupt, and return an exception ending the wait
+     * @param ex interruption
+     * @return cancellation exception
+     */
+    private static CancellationException cancelled(InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        CancellationException cancelled = new CancellationException("Interrupted while waiting for player input");
+        cancelled.initCause(ex);
+        return cancelled;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return String.format("PlayerInput: Pending=%d", inputs.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * A game state that carries its game's source of randomness
+ *
+ * Rounds and strategies draw from the state's random, rather than bringing their own, so a game played from the
+ * same seed plays the same way.  Split the random by seat for each player.
+ */
+public interface RandomState {
+
+    /**
+     * Return the game's source of randomness
+     * @return random
+     */
+    GameRandom getRandom();
+}
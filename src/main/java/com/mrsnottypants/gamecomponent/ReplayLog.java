@@ -0,0 +1,267 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Appends every round transition and recorded choice to memory-mapped segment files, for audits and replays
+ *
+ * Register the log as a listener with games; rounds call recordChoice with the option each player chose.  Records
+ * are fixed-layout, see ReplayRecord.  Any number of threads may append: each claims the next record slot with one
+ * atomic increment, then writes the record straight into the mapped segment, with no locks and no copying.  When a
+ * segment is full the next segment file is created and mapped, named replay-00000000.log, replay-00000001.log, ...
+ *
+ * Records are written to the file system by the operating system in its own time, and are forced to storage when
+ * the log is closed.  Read a log with a replay reader once it is closed.  A log built on a directory that already
+ * holds a log appends after its last written record, so runs are never mixed record by record.
+ *
+ * This class is thread-safe.
+ */
+public class ReplayLog implements GameListener, Closeable {
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final ToLongFunction<? super GameState> gameId;
+
+    // next record slot to claim, across all segments
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    // mapped segments, by segment index
+    private final List<Segment> segments = new ArrayList<>();
+
+    // latest segment mapped, checked before looking up segments
+    private volatile Segment current = null;
+
+    private volatile boolean closed = false;
+
+    /**
+     * Construct a replay log from a replay log builder
+     * @param builder replay log builder
+     */
+    private ReplayLog(Builder builder) {
+        this.directory = builder.directory;
+        this.recordsPerSegment = builder.recordsPerSegment;
+        this.gameId = builder.gameId;
+        try {
+            Files.createDirectories(directory);
+            resume();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Claim slots from after the last record written to the directory by an earlier log, if any
+     * @throws IOException if an existing segment cannot be read
+     * @throws IllegalArgumentException if an existing segment was written with a different segment size
+     */
+    private void resume() throws IOException {
+        long tail = 0;
+        while (Files.exists(segmentFile(directory, tail))) {
+            ++tail;
+        }
+        if (tail == 0) {
+            return;
+        }
+
+        // segments before the last one are full, and are never mapped again
+        long last = tail - 1;
+        for (long index = 0; index < last; ++index) {
+            segments.add(null);
+        }
+        try (FileChannel channel = FileChannel.open(segmentFile(directory, last), StandardOpenOption.READ)) {
+            if (channel.size() != (long) recordsPerSegment * ReplayRecord.SIZE) {
+                throw new IllegalArgumentException(String.format(
+                        "Replay log segment holds %d bytes, not %d records: %s",
+                        channel.size(), recordsPerSegment, segmentFile(directory, last)));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ReplayRecord record = new ReplayRecord();
+            int written = recordsPerSegment;
+            while (written > 0 && !record.moveTo(buffer, (written - 1) * ReplayRecord.SIZE)) {
+                --written;
+            }
+            nextSlot.set(last * recordsPerSegment + written);
+        }
+    }
+
+    /**
+     * Return the file of a segment
+     * @param directory directory of the log
+     * @param index segment index
+     * @return segment file
+     */
+    static Path segmentFile(Path directory, long index) {
+        return directory.resolve(String.format("replay-%08d.log", index));
+    }
+
+    /**
+     * Record a round transition
+     * @param cursor cursor playing the game, positioned at the next round
+     */
+    @Override
+    public void stepped(GameCursor cursor) {
+        long position = (long) cursor.getProgramCounter() << 32 | cursor.getPendingRoundIndex() & 0xFFFFFFFFL;
+        append(ReplayRecord.Type.ROUND, cursor.getLastRoundIndex(), gameId.applyAsLong(cursor.getGameState()),
+                cursor.getRoundsPerformed(), position);
+    }
+
+    /**
+     * Record the end of a game
+     * @param gameState state of the game
+     * @param roundsPerformed rounds performed
+     * @param roundsRepeated rounds repeated
+     */
+    @Override
+    public void gameOver(GameState gameState, long roundsPerformed, long roundsRepeated) {
+        append(ReplayRecord.Type.GAME_OVER, 0, gameId.applyAsLong(gameState), roundsPerformed, roundsRepeated);
+    }
+
+    /**
+     * Record the option a player chose, ex: the argmax of a weighted play choice
+     * @param gameState state of the game
+     * @param type type of choice
+     * @param option option chosen
+     */
+    public void recordChoice(GameState gameState, PlayStrategyType type, int option) {
+        append(ReplayRecord.Type.CHOICE, type.getKey(), gameId.applyAsLong(gameState), option, 0);
+    }
+
+    /**
+     * Claim the next record slot and write a record into it
+     * @param type what the record records
+     * @param subject round index or strategy type key
+     * @param game game the record belongs to
+     * @param value rounds performed or option chosen
+     * @param position position after the round, or rounds repeated
+     */
+    private void append(ReplayRecord.Type type, int subject, long game, long value, long position) {
+        if (closed) {
+            throw new IllegalStateException("Replay log is closed");
+        }
+        long slot = nextSlot.getAndIncrement();
+        long index = slot / recordsPerSegment;
+        Segment segment = current;
+        if (segment == null || segment.index != index) {
+            segment = segment(index);
+        }
+        int offset = (int) (slot % recordsPerSegment) * ReplayRecord.SIZE;
+        ReplayRecord.write(segment.buffer, offset, type, subject, game, value, position);
+    }
+
+    /**
+     * Return a segment, creating and mapping it and any segments before it if needed
+     * @param index segment index
+     * @return segment
+     */
+    private synchronized Segment segment(long index) {
+        while (segments.size() <= index) {
+            long next = segments.size();
+            try (FileChannel channel = FileChannel.open(segmentFile(directory, next), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        (long) recordsPerSegment * ReplayRecord.SIZE);
+                current = new Segment(next, buffer);
+                segments.add(current);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        return segments.get((int) index);
+    }
+
+    /**
+     * Return the number of record slots claimed
+     * @return records appended, or being appended
+     */
+    public long getRecordCount() {
+        return nextSlot.get();
+    }
+
+    /**
+     * Force every segment mapped to storage, and stop appending
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        for (Segment segment : segments) {
+            if (segment != null) {
+                segment.buffer.force();
+            }
+        }
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("ReplayLog: Directory=%s, Records=%d, RecordsPerSegment=%d",
+                directory, getRecordCount(), recordsPerSegment);
+    }
+
+    // A mapped segment file
+    //
+    private static final class Segment {
+
+        final long index;
+        final MappedByteBuffer buffer;
+
+        Segment(long index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+    }
+
+    // Builder for constructing a replay log
+    //
+    public final static class Builder {
+
+        private final Path directory;
+        private final ToLongFunction<? super GameState> gameId;
+        private int recordsPerSegment = 1 << 20;
+
+        /**
+         * Construct a replay log builder
+         * @param directory directory for segment files, created if needed
+         * @param gameId returns the id of the game a state belongs to
+         */
+        public Builder(Path directory, ToLongFunction<? super GameState> gameId) {
+            this.directory = directory;
+            this.gameId = gameId;
+        }
+
+        /**
+         * Roll over to a new segment after this many records, instead of about a million
+         * @param recordsPerSegment records per segment file
+         * @return this builder, for easy chaining
+         */
+        public Builder recordsPerSegment(int recordsPerSegment) {
+            if (recordsPerSegment < 1 || recordsPerSegment > Integer.MAX_VALUE / ReplayRecord.SIZE) {
+                throw new IllegalArgumentException(String.format("Records per segment out of range: %d",
+                        recordsPerSegment));
+            }
+            this.recordsPerSegment = recordsPerSegment;
+            return this;
+        }
+
+        /**
+         * Return a replay log
+         * @return replay log
+         */
+        public ReplayLog build() {
+            return new ReplayLog(this);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads the records of a replay log in place, and re-drives games from them
+ *
+ * Segment files are mapped read-only, and records are read through one view moved from record to record, so
+ * reading copies nothing.  Records of one game are in the order they happened, since a game is played by one thread
+ * at a time.  The first read of a single game indexes the positions of every game's records in one pass, so later
+ * reads of a game visit only its own records.
+ *
+ * Replaying a game plays it again from a fresh state, checking every round transition against the log.  Rounds
+ * that choose options should take them from getChoices rather than asking players, ex: through player input, so the
+ * game follows the same path it did when it was logged.
+ *
+ * This class is not thread-safe.
+ */
+public class ReplayReader {
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final ReplayRecord record = new ReplayRecord();
+    private Map<Long, GameRecords> gameRecords;
+
+    /**
+     * Construct a reader of every segment in a log's directory
+     * @param directory directory of the log
+     */
+    public ReplayReader(Path directory) {
+        for (long index = 0; Files.exists(ReplayLog.segmentFile(directory, index)); ++index) {
+            try (FileChannel channel = FileChannel.open(ReplayLog.segmentFile(directory, index),
+                    StandardOpenOption.READ)) {
+                segments.add(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    /**
+     * Hand every record to the handler, in log order
+     * @param handler handles each record, must copy what it keeps
+     * @return number of records handled
+     */
+    public long forEach(Consumer<? super ReplayRecord> handler) {
+        long count = 0;
+        for (MappedByteBuffer segment : segments) {
+            for (int offset = 0; offset + ReplayRecord.SIZE <= segment.capacity(); offset += ReplayRecord.SIZE) {
+                if (record.moveTo(segment, offset)) {
+                    handler.accept(record);
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Hand every record of one game to the handler, in the order they happened
+     * @param gameId game to read
+     * @param handler handles each record, must copy what it keeps
+     * @return number of records handled
+     */
+    public long forEach(long gameId, Consumer<? super ReplayRecord> handler) {
+        GameRecords game = getGameRecords(gameId);
+        if (game == null) {
+            return 0;
+        }
+        for (int index = 0; index < game.size; ++index) {
+            long position = game.positions[index];
+            record.moveTo(segments.get((int) (position >>> 32)), (int) position);
+            handler.accept(record);
+        }
+        return game.size;
+    }
+
+    /**
+     * Return the options chosen in a game, in the order they were chosen
+     * @param gameId game to read
+     * @return options chosen
+     */
+    public int[] getChoices(long gameId) {
+        GameRecords game = getGameRecords(gameId);
+        int[] options = new int[game == null ? 0 : game.choices];
+        int[] count = {0};
+        forEach(gameId, read -> {
+            if (read.getType() == ReplayRecord.Type.CHOICE) {
+                options[count[0]++] = (int) read.getValue();
+            }
+        });
+        return options;
+    }
+
+    /**
+     * Play a logged game again, checking each round transition against the log
+     * @param game game that was logged
+     * @param gameState fresh state of the game
+     * @param gameId game to replay
+     * @return cursor at the end of the logged rounds
+     * @throws IllegalStateException if the game does not follow the logged transitions
+     */
+    public GameCursor replay(Game game, GameState gameState, long gameId) {
+        GameCursor cursor = game.cursor(gameState);
+        forEach(gameId, read -> {
+            if (read.getType() != ReplayRecord.Type.ROUND) {
+                return;
+            }
+            if (!cursor.step() || cursor.getLastRoundIndex() != read.getSubject() ||
+                    cursor.getProgramCounter() != read.getProgramCounter() ||
+                    cursor.getPendingRoundIndex() != read.getPendingRoundIndex()) {
+                throw new IllegalStateException(String.format("Game %d left the log at round %d",
+                        gameId, read.getValue()));
+            }
+        });
+        return cursor;
+    }
+
+    /**
+     * Return the positions of a game's records, indexing every game on first use
+     * @param gameId game to read
+     * @return positions of the game's records, or null if the game is not in the log
+     */
+    private GameRecords getGameRecords(long gameId) {
+        if (gameRecords == null) {
+            gameRecords = new HashMap<>();
+            for (int segment = 0; segment < segments.size(); ++segment) {
+                MappedByteBuffer buffer = segments.get(segment);
+                for (int offset = 0; offset + ReplayRecord.SIZE <= buffer.capacity(); offset += ReplayRecord.SIZE) {
+                    if (record.moveTo(buffer, offset)) {
+                        gameRecords.computeIfAbsent(record.getGameId(), id -> new GameRecords())
+                                .add(((long) segment << 32) | offset, record.getType() == ReplayRecord.Type.CHOICE);
+                    }
+                }
+            }
+        }
+        return gameRecords.get(gameId);
+    }
+
+    /**
+     * Return the number of segments read
+     * @return segment count
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("ReplayReader: Segments=%d", segments.size());
+    }
+
+    // Positions of one game's records, each segment index in the high word and offset in the low word
+    //
+    private static final class GameRecords {
+
+        private long[] positions = new long[16];
+        private int size;
+        private int choices;
+
+        void add(long position, boolean choice) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+            if (choice) {
+                ++choices;
+            }
+        }
+    }
+}
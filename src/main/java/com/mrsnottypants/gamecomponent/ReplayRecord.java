@@ -0,0 +1,143 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One fixed-layout record of a replay log, read in place from its segment
+ *
+ * Every record is 32 bytes: type (int), subject (int), game id (long), value (long), position (long).  A record
+ * with type 0 was claimed but never written, ex: by a process that crashed, and is skipped by readers.
+ *
+ *   ROUND      subject: program index of the round performed   value: rounds performed
+ *              position: program counter (high int) and pending round index (low int) after the round
+ *   CHOICE     subject: strategy type key                      value: option chosen
+ *   GAME_OVER  value: rounds performed                         position: rounds repeated
+ *
+ * A record read from a log is a view onto the log, moved from record to record, so it is only valid while it is
+ * being handled.
+ */
+public final class ReplayRecord {
+
+    /**
+     * What a record records
+     */
+    public enum Type {
+        ROUND,
+        CHOICE,
+        GAME_OVER
+    }
+
+    // bytes per record, and offsets of its fields
+    static final int SIZE = 32;
+    private static final int TYPE = 0;
+    private static final int SUBJECT = 4;
+    private static final int GAME_ID = 8;
+    private static final int VALUE = 16;
+    private static final int POSITION = 24;
+
+    private static final Type[] TYPES = Type.values();
+
+    private ByteBuffer buffer;
+    private int offset;
+
+    /**
+     * Construct a view, moved onto records as they are read
+     */
+    ReplayRecord() {}
+
+    /**
+     * Write a record, marking it written with its type
+     * @param buffer segment holding the record
+     * @param offset offset of the record in the segment
+     * @param type what the record records
+     * @param subject round index or strategy type key
+     * @param gameId game the record belongs to
+     * @param value rounds performed or option chosen
+     * @param position position after the round, or rounds repeated
+     */
+    static void write(ByteBuffer buffer, int offset, Type type, int subject, long gameId, long value, long position) {
+        buffer.putInt(offset + SUBJECT, subject);
+        buffer.putLong(offset + GAME_ID, gameId);
+        buffer.putLong(offset + VALUE, value);
+        buffer.putLong(offset + POSITION, position);
+        buffer.putInt(offset + TYPE, type.ordinal() + 1);
+    }
+
+    /**
+     * Move this view onto a record
+     * @param buffer segment holding the record
+     * @param offset offset of the record in the segment
+     * @return true if the record was written, false if it was claimed but never written
+     */
+    boolean moveTo(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        return buffer.getInt(offset + TYPE) != 0;
+    }
+
+    /**
+     * Return what this record records
+     * @return record type
+     */
+    public Type getType() {
+        return TYPES[buffer.getInt(offset + TYPE) - 1];
+    }
+
+    /**
+     * Return the program index of the round performed, or the strategy type key of a choice
+     * @return subject
+     */
+    public int getSubject() {
+        return buffer.getInt(offset + SUBJECT);
+    }
+
+    /**
+     * Return the game this record belongs to
+     * @return game id
+     */
+    public long getGameId() {
+        return buffer.getLong(offset + GAME_ID);
+    }
+
+    /**
+     * Return rounds performed, or the option chosen
+     * @return value
+     */
+    public long getValue() {
+        return buffer.getLong(offset + VALUE);
+    }
+
+    /**
+     * Return the program counter after a round
+     * @return program counter
+     */
+    public int getProgramCounter() {
+        return (int) (buffer.getLong(offset + POSITION) >>> 32);
+    }
+
+    /**
+     * Return the pending round index after a round
+     * @return pending round index, or NEXT
+     */
+    public int getPendingRoundIndex() {
+        return (int) buffer.getLong(offset + POSITION);
+    }
+
+    /**
+     * Return rounds repeated by a game that is over
+     * @return rounds repeated
+     */
+    public long getRoundsRepeated() {
+        return buffer.getLong(offset + POSITION);
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("ReplayRecord: Type=%s, Game=%d, Subject=%d, Value=%d",
+                getType(), getGameId(), getSubject(), getValue());
+    }
+}
@@ -0,0 +1,25 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * State that can be reset to how it was when new, so it can be reused for another game
+ *
+ * Game states and player states implement this to be pooled.  A game state resets its player states, and keeps
+ * whatever it can, ex: clearing hands and scores, and restacking its deck, rather than allocating new ones.
+ */
+public interface Resettable {
+
+    /**
+     * Reset to the state of a new game
+     */
+    void reset();
+
+    /**
+     * Reset to the state of a new game, drawing from a source of randomness split for that game
+     * States that carry their random must override this, ex: a random state replacing its random.  A game state pool
+     * fails rather than reuse a random state that kept its old random.
+     * @param random source of randomness for the new game
+     */
+    default void reset(GameRandom random) {
+        reset();
+    }
+}
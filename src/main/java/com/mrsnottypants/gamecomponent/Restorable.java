@@ -0,0 +1,23 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * State that can be snapshot, changed, and restored to the snapshot
+ *
+ * Game states and player states implement this to support search, which plays forward from a position many times.
+ * A game state and its player states usually share one undo log, so a single snapshot covers all of them.
+ */
+public interface Restorable {
+
+    /**
+     * Take a snapshot of the current state
+     * Snapshots nest: a later snapshot can be restored without losing an earlier one
+     * @return snapshot id
+     */
+    int snapshot();
+
+    /**
+     * Restore the state at the time of a snapshot, discarding that snapshot and any taken after it
+     * @param snapshot snapshot id
+     */
+    void restore(int snapshot);
+}
@@ -0,0 +1,202 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A looping-iterable over a snapshot array, cycling with an index rather than re-creating iterators each lap
+ *
+ * Unlike looping-iterable, this does not reflect later changes to the source collection.  In return, iterating
+ * allocates nothing past the iterator, and iterators can skip, reverse and seek.
+ * ex: A list of players, where a turn can skip the next player or reverse the direction of play
+ *
+ * The iterable is immutable, its iterators are not thread-safe.
+ */
+public class RingIterable<E> implements Iterable<E> {
+
+    // snapshot of the source collection
+    private final Object[] elements;
+
+    /**
+     * Return a ring-iterable over a snapshot of the passed collection
+     * @param collection source collection
+     * @param <E> type of elements the iterable serves
+     * @return ring-iterable
+     */
+    public static <E> RingIterable<E> of(Collection<? extends E> collection) {
+        return new RingIterable<>(collection.toArray());
+    }
+
+    /**
+     * Construct a ring-iterable
+     * @param elements snapshot of elements
+     */
+    private RingIterable(Object[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Return number of elements
+     * @return number of elements
+     */
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * Return an element
+     * @param index index of element
+     * @return element
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) elements[index];
+    }
+
+    /**
+     * Return index of an element
+     * @param element element to find
+     * @return index of element, or -1 if not found
+     */
+    public int indexOf(Object element) {
+        for (int index = 0; index < elements.length; ++index) {
+            if (elements[index] == null ? element == null : elements[index].equals(element)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return an iterator
+     * @return iterator
+     */
+    @Override
+    public RingIterator<E> iterator() {
+        return new RingIterator<>(this);
+    }
+
+    /**
+     * Return a turn order over the indexes of the elements, for rotating without touching elements
+     * @return turn order
+     */
+    public TurnOrder turnOrder() {
+        return new TurnOrder(elements.length);
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("Ring:: Elements=%s", Arrays.toString(elements));
+    }
+
+    // Ring-iterator implementation
+    //
+    public static final class RingIterator<E> implements Iterator<E> {
+
+        // elements, and the rotation over their indexes
+        private final RingIterable<E> iterable;
+        private final TurnOrder turnOrder;
+
+        /**
+         * Construct a ring iterator
+         * @param iterable elements to iterate
+         */
+        private RingIterator(RingIterable<E> iterable) {
+            this.iterable = iterable;
+            this.turnOrder = iterable.turnOrder();
+        }
+
+        /**
+         * There is always a next element, unless the iterable is itself empty
+         *
+         * @return true unless iterable is empty
+         */
+        @Override
+        public boolean hasNext() {
+            return turnOrder.hasNext();
+        }
+
+        /**
+         * Returns the next element in the iteration
+         * If the final element has been reached, loops back to the first
+         *
+         * @return the next element in the iteration
+         */
+        @Override
+        public E next() {
+            return iterable.get(turnOrder.nextInt());
+        }
+
+        /**
+         * Return the element the next call to next will return, without moving
+         * @return next element
+         */
+        public E peek() {
+            return iterable.get(turnOrder.peekInt());
+        }
+
+        /**
+         * Return index of the element last returned
+         * @return index of last element, or -1 if none returned yet
+         */
+        public int getPreviousIndex() {
+            return turnOrder.getPrevious();
+        }
+
+        /**
+         * Pass over the next element
+         */
+        public void skip() {
+            turnOrder.skip();
+        }
+
+        /**
+         * Pass over a number of elements, in the current direction
+         * @param count number of elements to pass over
+         */
+        public void skip(int count) {
+            turnOrder.skip(count);
+        }
+
+        /**
+         * Reverse direction, so the element after the last element returned is the one that preceded it
+         */
+        public void reverse() {
+            turnOrder.reverse();
+        }
+
+        /**
+         * Return true if iterating in reverse
+         * @return true if reversed
+         */
+        public boolean isReversed() {
+            return turnOrder.isReversed();
+        }
+
+        /**
+         * Move so the next call to next returns the passed element
+         * @param element element to return next
+         */
+        public void seek(E element) {
+            int index = iterable.indexOf(element);
+            if (index < 0) {
+                throw new NoSuchElementException(String.format("%s is not in %s", element, iterable));
+            }
+            turnOrder.seek(index);
+        }
+
+        /**
+         * Move so the next call to next returns the element at the passed index
+         * @param index index of element to return next
+         */
+        public void seekIndex(int index) {
+            turnOrder.seek(index);
+        }
+    }
+}
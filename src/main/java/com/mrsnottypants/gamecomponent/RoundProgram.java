@@ -0,0 +1,138 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The rounds of a game compiled into a flat array, so a game's progress is described by integers
+ *
+ * Scheduled rounds come first, in play order, followed by rounds that are never scheduled but may be spawned.  The
+ * program counter indexes the next scheduled round.  Performing a round returns an explicit transition: the index of
+ * the round itself when it repeats, the index of a spawned round, or NEXT to move on to the next scheduled round.
+ *
+ * A compiled game must register every round it can spawn.  Repeats and moving on cost nothing, spawns cost one
+ * lookup in a table of round indexes built with the program.
+ *
+ * This is a flyweight class, meaning immutable with state externalized.
+ */
+public final class RoundProgram {
+
+    /**
+     * Transition meaning move on to the next scheduled round
+     */
+    public static final int NEXT = -1;
+
+    // scheduled rounds, then spawnable rounds
+    private final DirectGameRound[] rounds;
+    private final int scheduledCount;
+
+    // index of each round, by the round it adapts, so spawned rounds are resolved without a search
+    private final Map<GameRound, Integer> indexes = new IdentityHashMap<>();
+
+    /**
+     * Construct a round program
+     * @param scheduledRounds rounds played in order, looping back to the first after the last
+     * @param spawnableRounds rounds that are only played when spawned
+     */
+    RoundProgram(List<DirectGameRound> scheduledRounds, List<DirectGameRound> spawnableRounds) {
+        this.scheduledCount = scheduledRounds.size();
+        this.rounds = new DirectGameRound[scheduledCount + spawnableRounds.size()];
+        for (int index = 0; index < rounds.length; ++index) {
+            rounds[index] = index < scheduledCount ?
+                    scheduledRounds.get(index) : spawnableRounds.get(index - scheduledCount);
+            indexes.putIfAbsent(unwrap(rounds[index]), index);
+        }
+    }
+
+    /**
+     * Return number of rounds in the program, scheduled and spawnable
+     * @return number of rounds
+     */
+    public int size() {
+        return rounds.length;
+    }
+
+    /**
+     * Return number of scheduled rounds
+     * @return number of scheduled rounds
+     */
+    public int getScheduledCount() {
+        return scheduledCount;
+    }
+
+    /**
+     * Return a round
+     * @param index index of round
+     * @return round
+     */
+    public DirectGameRound getRound(int index) {
+        return rounds[index];
+    }
+
+    /**
+     * Return the program counter that follows the passed counter, looping back to the first scheduled round
+     * @param counter program counter
+     * @return next program counter
+     */
+    public int next(int counter) {
+        return counter + 1 < scheduledCount ? counter + 1 : 0;
+    }
+
+    /**
+     * Return index of a round, matching adapted rounds by the round they adapt
+     * @param gameRound round to find
+     * @return index of round, or NEXT if not part of the program
+     */
+    public int indexOf(GameRound gameRound) {
+        Integer index = indexes.get(unwrap(gameRound));
+        return index != null ? index : NEXT;
+    }
+
+    /**
+     * Perform a round and return the transition it asks for
+     * @param index index of round to perform
+     * @param gameState state of the game
+     * @return index of the round to perform next, or NEXT to move on to the next scheduled round
+     * @throws IllegalStateException if the round spawns a round that is not part of the program
+     */
+    public int perform(int index, GameState gameState) {
+        DirectGameRound round = rounds[index];
+        DirectGameRound nextRound = round.performDirect(gameState);
+        if (nextRound == null) {
+            return NEXT;
+        }
+        if (nextRound == round) {
+            return index;
+        }
+
+        // spawned round must be registered
+        int nextIndex = indexOf(nextRound);
+        if (nextIndex == NEXT) {
+            throw new IllegalStateException(String.format(
+                    "Round %s spawned %s, which is not a scheduled or spawnable round", round, nextRound));
+        }
+        return nextIndex;
+    }
+
+    /**
+     * Return the round an adapter adapts, or the round itself
+     * @param gameRound round
+     * @return unwrapped round
+     */
+    static GameRound unwrap(GameRound gameRound) {
+        return gameRound instanceof GameRoundAdapter ? ((GameRoundAdapter) gameRound).getGameRound() : gameRound;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("RoundProgram: Scheduled=%s, Spawnable=%s",
+                Arrays.toString(Arrays.copyOfRange(rounds, 0, scheduledCount)),
+                Arrays.toString(Arrays.copyOfRange(rounds, scheduledCount, rounds.length)));
+    }
+}
@@ -0,0 +1,69 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * A play strategy whose weights are scaled, so a player's mix of strategies can be tuned as a vector of scales
+ *
+ * The wrapped strategy weighs into a scratch choice, which is merged into the player's choice with each weight
+ * scaled.  The scratch choice is owned by the player's choice and reused, so considering allocates nothing once
+ * warmed up, and a scaled strategy holds no state of its own.  The play choice must be a weighted play choice.
+ *
+ * This class is immutable and thread-safe if the wrapped strategy is.
+ */
+public class ScaledStrategy implements PlayStrategy {
+
+    private final PlayStrategy strategy;
+    private final double scale;
+
+    /**
+     * Construct a scaled strategy
+     * @param strategy weighs options
+     * @param scale multiplies each weight
+     */
+    public ScaledStrategy(PlayStrategy strategy, double scale) {
+        this.strategy = strategy;
+        this.scale = scale;
+    }
+
+    /**
+     * Return the wrapped strategy
+     * @return strategy
+     */
+    public PlayStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * Return the scale of each weight
+     * @return scale
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Weigh options with the wrapped strategy, scaled
+     * @param playerState State of the player
+     * @param gameState State of the game
+     * @param playChoice Updated with scaled weights, must be a weighted play choice
+     */
+    @Override
+    public void consider(PlayerState playerState, GameState gameState, PlayChoice playChoice) {
+        if (!(playChoice instanceof WeightedPlayChoice)) {
+            throw new IllegalArgumentException(String.format("Scaled strategies need a weighted play choice: %s",
+                    playChoice));
+        }
+        WeightedPlayChoice weighted = (WeightedPlayChoice) playChoice;
+        WeightedPlayChoice partial = weighted.getScaledPartial();
+        strategy.consider(playerState, gameState, partial);
+        weighted.merge(partial, scale);
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("ScaledStrategy: Scale=%s, Strategy=%s", scale, strategy);
+    }
+}
@@ -0,0 +1,83 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * Describes the moves of a game to a search strategy
+ *
+ * Moves are identified by small non-negative ids, which are also the option ids written to a weighted play choice.
+ * Moves are applied to a restorable game state, so applying a move must change the state through its undo log.
+ * Search strategies copy the state for each thread they search on, and never change the state they were given.
+ *
+ * Games with chance events, ex: dice rolls or cards drawn, describe them as moves of a chance node, each with its
+ * probability.  Strategies that cannot tell chance from choice treat chance moves as another player's moves.
+ */
+public interface SearchModel<S extends GameState & Restorable> {
+
+    /**
+     * Return the number of move ids, move ids are 0..capacity-1
+     * @return move capacity
+     */
+    int getMoveCapacity();
+
+    /**
+     * Return the number of players, players are 0..count-1
+     * @return player count
+     */
+    int getPlayerCount();
+
+    /**
+     * Fill the passed array with the moves available in a state
+     * @param state game state
+     * @param moves filled with move ids, holds at least move capacity ids
+     * @return number of moves filled, 0 if there are no moves
+     */
+    int getMoves(S state, int[] moves);
+
+    /**
+     * Apply a move to a state
+     * @param state game state, changed through its undo log
+     * @param move move id
+     */
+    void applyMove(S state, int move);
+
+    /**
+     * Return the player who chooses the next move
+     * @param state game state
+     * @return player
+     */
+    int getPlayerToMove(S state);
+
+    /**
+     * Return true if the next move is decided by chance rather than by a player
+     * @param state game state
+     * @return true at a chance node
+     */
+    default boolean isChance(S state) {
+        return false;
+    }
+
+    /**
+     * Return the probability of a chance move, by default every chance move is equally likely
+     * @param state game state at a chance node
+     * @param move move id
+     * @param moveCount number of moves available in the state
+     * @return probability, the probabilities of the moves available add to 1
+     */
+    default double getChance(S state, int move, int moveCount) {
+        return 1.0 / moveCount;
+    }
+
+    /**
+     * Return how good a state is for a player, whether or not the game is over
+     * @param state game state
+     * @param player player
+     * @return reward, 0 for a loss through 1 for a win
+     */
+    double getReward(S state, int player);
+
+    /**
+     * Return an independent copy of a state, for searching on another thread
+     * @param state game state
+     * @return copy of state
+     */
+    S copyState(S state);
+}
@@ -0,0 +1,16 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * A game state that seats players, and can return the state of the player in each seat
+ *
+ * Tournaments read each seat's score from the final state, to rate the players that were seated.
+ */
+public interface SeatedState {
+
+    /**
+     * Return the state of the player in a seat
+     * @param seat seat, from 0 to the number of seats - 1
+     * @return player state
+     */
+    PlayerState getPlayerState(int seat);
+}
@@ -0,0 +1,273 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collector;
+
+/**
+ * Plays a batch of games in parallel, for example to tune strategies with bot-vs-bot games
+ *
+ * The games are split into batches which are played on an executor, by default the common fork-join pool.
+ * Each game is played with a fresh game state, and its final state is handed to a collector.  Each batch
+ * accumulates into its own container, and containers are combined in batch order, so the collector itself
+ * does not need to be thread-safe.
+ *
+ * Game objects are flyweights, so a single game is shared by every batch.
+ *
+ * A seeded simulation splits a random per game from the seed, by game index, and passes it to the game factory.
+ * Which games a batch plays and how containers combine do not depend on threads, so a seeded simulation of games
+ * that only draw from their random gives the same result on every run.
+ *
+ * A pooled simulation reuses resettable game states: each state is released back to its thread's pool once the
+ * collector has reduced it, so collectors must reduce states to values rather than keep them.
+ */
+public class Simulation {
+
+    // batches per thread, so threads that finish early can pick up more work
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private final GameFactory gameFactory;
+    private final int gameCount;
+    private final ExecutorService executor;
+    private final int batchCount;
+
+    // root of every game's random, or null if games bring their own
+    private final GameRandom random;
+
+    // reuses game states, or null if every game gets a new state
+    private final GameStatePool pool;
+
+    /**
+     * Construct a simulation from a simulation builder
+     * @param builder simulation builder
+     */
+    private Simulation(Builder builder) {
+        this.gameFactory = builder.gameFactory;
+        this.gameCount = builder.gameCount;
+        this.executor = builder.executor;
+        this.batchCount = builder.batchCount > 0 ? builder.batchCount : defaultBatchCount(builder.executor);
+        this.random = builder.seeded ? new GameRandom(builder.seed) : null;
+        this.pool = builder.poolCapacity > 0 ? new GameStatePool(builder.gameFactory, builder.poolCapacity) : null;
+    }
+
+    /**
+     * Return the default number of batches for an executor
+     * @param executor executor that plays the batches
+     * @return number of batches
+     */
+    private static int defaultBatchCount(ExecutorService executor) {
+        int parallelism = executor instanceof ForkJoinPool ?
+                ((ForkJoinPool) executor).getParallelism() : Runtime.getRuntime().availableProcessors();
+        return parallelism * BATCHES_PER_THREAD;
+    }
+
+    /**
+     * Return number of games played by each run
+     * @return number of games
+     */
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Play all games, reducing each final game state with the collector
+     * @param collector reduces final game states into a result
+     * @param <A> type of the collector's mutable container
+     * @param <R> type of the result
+     * @return result of the reduction
+     */
+    public <A, R> R run(Collector<? super GameState, A, R> collector) {
+
+        // one game is enough, it is a flyweight
+        Game game = gameFactory.newGame();
+
+        // split the games into batches, the first few batches pick up the remainder
+        int batches = Math.max(1, Math.min(batchCount, gameCount));
+        List<Future<A>> futures = new ArrayList<>(batches);
+        int firstGame = 0;
+        for (int batch = 0; batch < batches; ++batch) {
+            int batchSize = gameCount / batches + (batch < gameCount % batches ? 1 : 0);
+            int batchFirstGame = firstGame;
+            futures.add(executor.submit(() -> playBatch(game, batchFirstGame, batchSize, collector)));
+            firstGame += batchSize;
+        }
+
+        // combine containers in batch order, so the result does not depend on thread timing
+        A result = collector.supplier().get();
+        for (Future<A> future : futures) {
+            result = collector.combiner().apply(result, await(future));
+        }
+        return collector.finisher().apply(result);
+    }
+
+    /**
+     * Play a batch of games, accumulating each final game state into a new container
+     * @param game game to play
+     * @param firstGame index of the batch's first game
+     * @param batchSize number of games to play
+     * @param collector reduces final game states
+     * @param <A> type of the collector's mutable container
+     * @return container holding the batch's results
+     */
+    private <A> A playBatch(Game game, int firstGame, int batchSize, Collector<? super GameState, A, ?> collector) {
+        A container = collector.supplier().get();
+        for (int i = 0; i < batchSize; ++i) {
+            GameState gameState = newGameState(firstGame + i);
+            game.play(gameState);
+            collector.accumulator().accept(container, gameState);
+            if (pool != null) {
+                pool.release(gameState);
+            }
+        }
+        return container;
+    }
+
+    /**
+     * Return a state for a game, from the pool if pooled
+     * @param gameIndex index of the game
+     * @return new or reset game state
+     */
+    private GameState newGameState(int gameIndex) {
+        if (pool != null) {
+            return random == null ? pool.acquire() : pool.acquire(random.split(gameIndex));
+        }
+        return random == null ? gameFactory.newGameState() : gameFactory.newGameState(random.split(gameIndex));
+    }
+
+    /**
+     * Return the pool reusing game states
+     * @return pool, or null if the simulation is not pooled
+     */
+    public GameStatePool getPool() {
+        return pool;
+    }
+
+    /**
+     * Wait for work submitted to an executor to complete, passing along any failure unchecked
+     * @param future work being done, ex: a batch being played
+     * @param <A> type of the work's result
+     * @return result of the work
+     */
+    static <A> A await(Future<A> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for work to complete", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Work failed", cause);
+        }
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("Simulation: Games=%d, Batches=%d, Seeded=%s, Pooled=%s",
+                gameCount, batchCount, random != null, pool != null);
+    }
+
+    // Builder for constructing a simulation
+    //
+    public final static class Builder {
+
+        private final GameFactory gameFactory;
+        private final int gameCount;
+        private ExecutorService executor = ForkJoinPool.commonPool();
+        private int batchCount = 0;
+        private boolean seeded = false;
+        private long seed = 0;
+        private int poolCapacity = 0;
+
+        /**
+         * Construct a simulation builder
+         * @param gameFactory creates the game, and a new game state for every game played
+         * @param gameCount number of games to play
+         */
+        public Builder(GameFactory gameFactory, int gameCount) {
+            if (gameCount < 0) {
+                throw new IllegalArgumentException(String.format("Game count must not be negative: %d", gameCount));
+            }
+            this.gameFactory = gameFactory;
+            this.gameCount = gameCount;
+        }
+
+        /**
+         * Play games on this executor instead of the common fork-join pool
+         * @param executor executor that plays batches of games
+         * @return this builder, for easy chaining
+         */
+        public Builder executor(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Split games into this many batches, instead of a few per available thread
+         * @param batchCount number of batches
+         * @return this builder, for easy chaining
+         */
+        public Builder batchCount(int batchCount) {
+            if (batchCount < 1) {
+                throw new IllegalArgumentException(String.format("Batch count must be positive: %d", batchCount));
+            }
+            this.batchCount = batchCount;
+            return this;
+        }
+
+        /**
+         * Split a random per game from this seed, and pass it to the game factory
+         * @param seed root seed, the same seed plays the same games
+         * @return this builder, for easy chaining
+         */
+        public Builder seed(long seed) {
+            this.seeded = true;
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Reuse resettable game states, pooling one per thread, enough since a thread plays one game at a time
+         * Collectors must reduce states to values, ex: summing scores, rather than keep the states.
+         * @return this builder, for easy chaining
+         */
+        public Builder pooled() {
+            return pooled(1);
+        }
+
+        /**
+         * Reuse resettable game states, pooling up to this many per thread
+         * Collectors must reduce states to values, ex: summing scores, rather than keep the states.
+         * @param poolCapacity most states pooled per thread
+         * @return this builder, for easy chaining
+         */
+        public Builder pooled(int poolCapacity) {
+            if (poolCapacity < 1) {
+                throw new IllegalArgumentException(String.format("Pool capacity must be positive: %d", poolCapacity));
+            }
+            this.poolCapacity = poolCapacity;
+            return this;
+        }
+
+        /**
+         * Return a simulation
+         * @return simulation
+         */
+        public Simulation build() {
+            return new Simulation(this);
+        }
+    }
+}
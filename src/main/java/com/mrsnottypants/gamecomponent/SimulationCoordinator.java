@@ -0,0 +1,472 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Splits a simulation into shards, and hands them to simulation workers connecting over local sockets
+ *
+ * The simulation plays a number of games for each configuration of players.  Game g of configuration c is seeded
+ * with the random split c, then g, of the root seed, so a game plays the same way on whichever worker plays it.
+ * Games are grouped into shards of consecutive games of one configuration, and each connected worker is handed one
+ * shard at a time.  A worker streams back a compact result record per game, then marks the shard done.
+ *
+ * Results of a shard are only handed on once the whole shard is done.  If a worker disconnects, fails, or sends
+ * nothing for the worker timeout before then, its shard's results are dropped and the shard goes back in the queue
+ * for another worker, so every game's result is handed on exactly once.  A shard that fails on too many workers,
+ * ex: because one of its games always throws, fails the simulation.  Workers may connect at any time while the
+ * simulation runs, ex: to replace workers that failed.
+ *
+ * Messages are frames: a 4-byte length, then a binary writer's bytes starting with the message type.  A worker is
+ * only handed shards once it has answered the job with the coordinator's version.
+ *
+ * This class is thread-safe.  Results are handed on one at a time, so the result handler need not be.
+ */
+public class SimulationCoordinator implements Closeable {
+
+    // format of the messages exchanged
+    static final int VERSION = 1;
+
+    // message types
+    static final int JOB = 1;
+    static final int SHARD = 2;
+    static final int RESULT = 3;
+    static final int DONE = 4;
+    static final int STOP = 5;
+    static final int READY = 6;
+
+    // longest frame read, so a stray connection cannot claim much memory
+    static final int MAX_FRAME = 1 << 20;
+
+    // how often connections waiting for a shard check whether the simulation is done
+    private static final long POLL_MILLIS = 100;
+
+    private final Class<? extends WorkerFactory> workerFactory;
+    private final int configurations;
+    private final long gamesPerConfiguration;
+    private final int shardSize;
+    private final long seed;
+    private final int maxAttempts;
+    private final int workerTimeoutMillis;
+    private final ServerSocket serverSocket;
+
+    // one thread accepting workers, and one per connected worker
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<Socket> sockets = new ArrayList<>();
+
+    // first failure accepting workers, of the result handler or of a shard, which stops the simulation
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    private volatile boolean closed = false;
+
+    /**
+     * Construct a coordinator from a coordinator builder, listening for workers on the loopback address
+     * @param builder coordinator builder
+     */
+    private SimulationCoordinator(Builder builder) {
+        this.workerFactory = builder.workerFactory;
+        this.configurations = builder.configurations;
+        this.gamesPerConfiguration = builder.gamesPerConfiguration;
+        this.shardSize = builder.shardSize;
+        this.seed = builder.seed;
+        this.maxAttempts = builder.maxAttempts;
+        this.workerTimeoutMillis = builder.workerTimeoutMillis;
+        try {
+            this.serverSocket = new ServerSocket(builder.port, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Return the port workers connect to
+     * @return port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Play every shard on the workers that connect, handing on each game's result
+     * @param handler handles each game's result
+     * @throws IllegalStateException if interrupted, or the coordinator is closed, before every shard is done, or
+     * if a shard fails on too many workers
+     * @throws RuntimeException thrown by the handler, which stops the simulation
+     * @throws UncheckedIOException if accepting workers fails, which stops the simulation
+     */
+    public void run(ResultHandler handler) {
+        BlockingQueue<Shard> pending = new LinkedBlockingQueue<>();
+        for (int configuration = 0; configuration < configurations; ++configuration) {
+            for (long firstGame = 0; firstGame < gamesPerConfiguration; firstGame += shardSize) {
+                pending.add(new Shard(pending.size(), configuration, firstGame,
+                        (int) Math.min(shardSize, gamesPerConfiguration - firstGame)));
+            }
+        }
+        CountDownLatch remaining = new CountDownLatch(pending.size());
+        executor.execute(() -> accept(pending, remaining, handler));
+        try {
+            while (!remaining.await(POLL_MILLIS, TimeUnit.MILLISECONDS) && failure.get() == null && !closed) {
+                // wait for shards
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", ex);
+        } finally {
+            close();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (remaining.getCount() > 0) {
+            throw new IllegalStateException(String.format("Coordinator closed with %d shards left",
+                    remaining.getCount()));
+        }
+    }
+
+    /**
+     * Accept workers until the coordinator is closed, serving each on its own thread, or until accepting fails, which
+     * stops the simulation
+     * @param pending shards not yet done
+     * @param remaining counts down as shards are done
+     * @param handler handles each game's result
+     */
+    private void accept(BlockingQueue<Shard> pending, CountDownLatch remaining, ResultHandler handler) {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                synchronized (sockets) {
+                    sockets.add(socket);
+                }
+                executor.execute(() -> serve(socket, pending, remaining, handler));
+            } catch (IOException ex) {
+                if (!closed) {
+                    failure.compareAndSet(null, new UncheckedIOException(ex));
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Hand shards to one worker until every shard is done or the coordinator closes, putting its shard back if the
+     * worker fails
+     * @param socket connection to the worker
+     * @param pending shards not yet done
+     * @param remaining counts down as shards are done
+     * @param handler handles each game's result
+     */
+    private void serve(Socket socket, BlockingQueue<Shard> pending, CountDownLatch remaining,
+                       ResultHandler handler) {
+        Shard shard = null;
+        Exception cause = null;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setSoTimeout(workerTimeoutMillis);
+            BinaryWriter writer = new BinaryWriter(256);
+            writeFrame(output, writer.clear().writeVarInt(JOB).writeVarInt(VERSION)
+                    .writeString(workerFactory.getName()).writeLong(seed));
+            output.flush();
+            BinaryReader ready = readFrame(input);
+            if (ready.readVarInt() != READY || ready.readVarInt() != VERSION) {
+                throw new IOException("Worker did not accept the job");
+            }
+            while (remaining.getCount() > 0 && !closed) {
+                shard = pending.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (shard == null) {
+                    continue;
+                }
+                writeFrame(output, writer.clear().writeVarInt(SHARD).writeVarInt(shard.id)
+                        .writeVarInt(shard.configuration).writeVarLong(shard.firstGame).writeVarInt(shard.gameCount));
+                output.flush();
+
+                // hold the shard's results until it is done
+                List<ByteBuffer> results = new ArrayList<>(shard.gameCount);
+                for (BinaryReader reader = readFrame(input); reader.readVarInt() == RESULT; reader = readFrame(input)) {
+                    results.add(reader.getBuffer());
+                }
+                if (results.size() != shard.gameCount) {
+                    throw new IOException(String.format("Shard %d done after %d of %d games",
+                            shard.id, results.size(), shard.gameCount));
+                }
+                int configuration = shard.configuration;
+                shard = null;
+                if (!handOn(configuration, results, handler)) {
+                    return;
+                }
+                remaining.countDown();
+            }
+            writeFrame(output, writer.clear().writeVarInt(STOP));
+        } catch (IOException | RuntimeException ex) {
+
+            // the worker failed, left, or went quiet, another worker plays its shard
+            cause = ex;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cause = ex;
+        } finally {
+            if (shard != null) {
+                retry(shard, pending, cause);
+            }
+            synchronized (sockets) {
+                sockets.remove(socket);
+            }
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                // already closing
+            }
+        }
+    }
+
+    /**
+     * Put a shard a worker failed to play back in the queue, or fail the simulation if it failed too often
+     * @param shard shard the worker held
+     * @param pending shards not yet done
+     * @param cause why the worker failed, if known
+     */
+    private void retry(Shard shard, BlockingQueue<Shard> pending, Exception cause) {
+        if (++shard.attempts < maxAttempts) {
+            pending.add(shard);
+            return;
+        }
+        failure.compareAndSet(null, new IllegalStateException(String.format(
+                "Shard %d of configuration %d failed on %d workers", shard.id, shard.configuration, shard.attempts),
+                cause));
+    }
+
+    /**
+     * Hand on the results of a done shard, one game at a time
+     * @param configuration configuration the shard was played with
+     * @param results each game's index and result
+     * @param handler handles each game's result
+     * @return false if the handler failed, stopping the simulation
+     */
+    private synchronized boolean handOn(int configuration, List<ByteBuffer> results, ResultHandler handler) {
+        if (failure.get() != null) {
+            return false;
+        }
+        try {
+            for (ByteBuffer result : results) {
+                BinaryReader reader = new BinaryReader(result);
+                long game = reader.readVarLong();
+                handler.accept(configuration, game, reader);
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            failure.compareAndSet(null, ex);
+            return false;
+        }
+    }
+
+    /**
+     * Write a frame holding what a writer has written
+     * @param output stream to write
+     * @param writer holds the message
+     * @throws IOException if the stream fails
+     */
+    static void writeFrame(DataOutputStream output, BinaryWriter writer) throws IOException {
+        ByteBuffer buffer = writer.getBuffer();
+        output.writeInt(buffer.position());
+        output.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+    }
+
+    /**
+     * Read a frame
+     * @param input stream to read
+     * @return reader of the message
+     * @throws IOException if the stream fails or ends, or the frame is longer than MAX_FRAME
+     */
+    static BinaryReader readFrame(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > MAX_FRAME) {
+            throw new IOException(String.format("Frame length out of range: %d", length));
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new BinaryReader(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Stop accepting workers, and disconnect every worker
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            serverSocket.close();
+        } catch (IOException ex) {
+            // already closing
+        }
+        synchronized (sockets) {
+            for (Socket socket : sockets) {
+                try {
+                    socket.shutdownInput();
+                } catch (IOException ex) {
+                    // already closed
+                }
+            }
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("SimulationCoordinator: Port=%d, Factory=%s, Configurations=%d, Games=%d, ShardSize=%d",
+                getPort(), workerFactory.getName(), configurations, gamesPerConfiguration, shardSize);
+    }
+
+    /**
+     * Handles the result of each game played by a worker
+     */
+    @FunctionalInterface
+    public interface ResultHandler {
+
+        /**
+         * Handle the result of a game
+         * @param configuration configuration the game was played with
+         * @param game index of the game within its configuration
+         * @param result reads the result as the worker factory wrote it, only valid during the call
+         */
+        void accept(int configuration, long game, BinaryReader result);
+    }
+
+    // Consecutive games of one configuration, and the workers that failed to play them
+    //
+    private static final class Shard {
+
+        final int id;
+        final int configuration;
+        final long firstGame;
+        final int gameCount;
+        int attempts = 0;
+
+        Shard(int id, int configuration, long firstGame, int gameCount) {
+            this.id = id;
+            this.configuration = configuration;
+            this.firstGame = firstGame;
+            this.gameCount = gameCount;
+        }
+    }
+
+    // Builder for constructing a coordinator
+    //
+    public final static class Builder {
+
+        private final Class<? extends WorkerFactory> workerFactory;
+        private final int configurations;
+        private final long gamesPerConfiguration;
+        private int shardSize = 1000;
+        private long seed = 0;
+        private int port = 0;
+        private int maxAttempts = 3;
+        private int workerTimeoutMillis = 60_000;
+
+        /**
+         * Construct a coordinator builder
+         * @param workerFactory class workers create their factory from, must be on the workers' class path
+         * @param configurations number of player configurations
+         * @param gamesPerConfiguration games to play with each configuration
+         */
+        public Builder(Class<? extends WorkerFactory> workerFactory, int configurations, long gamesPerConfiguration) {
+            if (configurations < 1 || gamesPerConfiguration < 0) {
+                throw new IllegalArgumentException(String.format("Games out of range: %d configurations of %d",
+                        configurations, gamesPerConfiguration));
+            }
+            this.workerFactory = workerFactory;
+            this.configurations = configurations;
+            this.gamesPerConfiguration = gamesPerConfiguration;
+        }
+
+        /**
+         * Hand workers this many games at a time, instead of 1000
+         * @param shardSize games per shard
+         * @return this builder, for easy chaining
+         */
+        public Builder shardSize(int shardSize) {
+            if (shardSize < 1) {
+                throw new IllegalArgumentException(String.format("Shard size must be positive: %d", shardSize));
+            }
+            this.shardSize = shardSize;
+            return this;
+        }
+
+        /**
+         * Split a random per game from this seed, instead of 0
+         * @param seed root seed, the same seed plays the same games
+         * @return this builder, for easy chaining
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Fail the simulation once a shard has failed on this many workers, instead of 3
+         * @param maxAttempts workers each shard is handed to at most
+         * @return this builder, for easy chaining
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException(String.format("Max attempts must be positive: %d", maxAttempts));
+            }
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Drop a worker that sends nothing for this long, instead of a minute
+         * Workers send a shard's results as their buffer fills, so allow for the slowest games.
+         * @param time longest a worker may go quiet
+         * @param unit unit of time
+         * @return this builder, for easy chaining
+         */
+        public Builder workerTimeout(long time, TimeUnit unit) {
+            long millis = unit.toMillis(time);
+            if (millis < 1 || millis > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Worker timeout out of range: %d %s", time, unit));
+            }
+            this.workerTimeoutMillis = (int) millis;
+            return this;
+        }
+
+        /**
+         * Listen for workers on this port, instead of any free port
+         * @param port port on the loopback address
+         * @return this builder, for easy chaining
+         */
+        public Builder port(int port) {
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Return a coordinator, listening for workers
+         * @return coordinator
+         */
+        public SimulationCoordinator build() {
+            return new SimulationCoordinator(this);
+        }
+    }
+}
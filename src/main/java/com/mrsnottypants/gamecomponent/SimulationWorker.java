@@ -0,0 +1,137 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Plays the shards a simulation coordinator hands out, usually one worker per process
+ *
+ * The worker connects to the coordinator, creates the coordinator's worker factory by class name, then plays each
+ * shard it is handed and streams back each game's result, until the coordinator tells it to stop.  Games are seeded
+ * from the coordinator's seed, by configuration then game index, and their states are pooled per configuration.
+ * ex: java -cp game-component.jar:my-game.jar com.mrsnottypants.gamecomponent.SimulationWorker 40123
+ *
+ * This class is not thread-safe, run each worker on one thread.
+ */
+public class SimulationWorker {
+
+    private final int port;
+
+    /**
+     * Construct a worker of a coordinator on this host
+     * @param port port the coordinator listens on
+     */
+    public SimulationWorker(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Play shards until the coordinator tells the worker to stop
+     * @return number of games played
+     * @throws UncheckedIOException if the connection fails
+     */
+    public long run() {
+        long played = 0;
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            BinaryReader job = SimulationCoordinator.readFrame(input);
+            if (job.readVarInt() != SimulationCoordinator.JOB) {
+                throw new IllegalStateException("Expected a job from the coordinator");
+            }
+            int version = job.readVarInt();
+            if (version != SimulationCoordinator.VERSION) {
+                throw new IllegalStateException(String.format("Unknown coordinator version: %d", version));
+            }
+            WorkerFactory workerFactory = newWorkerFactory(job.readString());
+            GameRandom random = new GameRandom(job.readLong());
+            BinaryWriter writer = new BinaryWriter(256);
+            SimulationCoordinator.writeFrame(output, writer.writeVarInt(SimulationCoordinator.READY)
+                    .writeVarInt(SimulationCoordinator.VERSION));
+            output.flush();
+
+            // games and pooled states of each configuration played so far
+            Map<Integer, Game> games = new HashMap<>();
+            Map<Integer, GameStatePool> pools = new HashMap<>();
+
+            for (BinaryReader message = SimulationCoordinator.readFrame(input);
+                 message.readVarInt() == SimulationCoordinator.SHARD;
+                 message = SimulationCoordinator.readFrame(input)) {
+                int shard = message.readVarInt();
+                int configuration = message.readVarInt();
+                long firstGame = message.readVarLong();
+                int gameCount = message.readVarInt();
+                if (!games.containsKey(configuration)) {
+                    GameFactory gameFactory = workerFactory.newGameFactory(configuration);
+                    games.put(configuration, gameFactory.newGame());
+                    pools.put(configuration, new GameStatePool(gameFactory, 1));
+                }
+                Game game = games.get(configuration);
+                GameStatePool pool = pools.get(configuration);
+                GameRandom configurationRandom = random.split(configuration);
+
+                for (long index = firstGame; index < firstGame + gameCount; ++index) {
+                    GameState gameState = pool.acquire(configurationRandom.split(index));
+                    game.play(gameState);
+                    writer.clear().writeVarInt(SimulationCoordinator.RESULT).writeVarLong(index);
+                    workerFactory.writeResult(gameState, writer);
+                    SimulationCoordinator.writeFrame(output, writer);
+                    pool.release(gameState);
+                    ++played;
+                }
+                SimulationCoordinator.writeFrame(output, writer.clear().writeVarInt(SimulationCoordinator.DONE)
+                        .writeVarInt(shard));
+                output.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return played;
+    }
+
+    /**
+     * Create a worker factory from its class name
+     * @param className class of the factory, with a no-argument constructor or a first enum constant
+     * @return worker factory
+     */
+    static WorkerFactory newWorkerFactory(String className) {
+        try {
+            Class<? extends WorkerFactory> factoryClass = Class.forName(className).asSubclass(WorkerFactory.class);
+            if (factoryClass.isEnum()) {
+                return factoryClass.getEnumConstants()[0];
+            }
+            return factoryClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException ex) {
+            throw new IllegalArgumentException(String.format("Cannot create worker factory: %s", className), ex);
+        }
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("SimulationWorker: Port=%d", port);
+    }
+
+    /**
+     * Run a worker in this process
+     * @param args port the coordinator listens on
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: SimulationWorker <coordinator port>");
+            System.exit(2);
+        }
+        new SimulationWorker(Integer.parseInt(args[0])).run();
+    }
+}
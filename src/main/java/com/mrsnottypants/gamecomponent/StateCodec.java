@@ -0,0 +1,25 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * Writes a game or player state to bytes, and reads it back
+ *
+ * A codec is the schema of its state: it writes each field in a fixed order with the binary writer, and reads them
+ * back in the same order, with no reflection.  Codecs that may read bytes written by older versions should write a
+ * version first.
+ */
+public interface StateCodec<S> {
+
+    /**
+     * Write a state
+     * @param state state to write, not changed
+     * @param writer writes the state's fields
+     */
+    void write(S state, BinaryWriter writer);
+
+    /**
+     * Read a state
+     * @param reader reads the state's fields
+     * @return new state
+     */
+    S read(BinaryReader reader);
+}
@@ -0,0 +1,81 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * Incrementally maintained Zobrist hash of a state
+ *
+ * A state holds one of these, and toggles feature values in and out as it changes.  A hash held in an undo log is
+ * restored along with the rest of the state, so searches that snapshot and restore never recompute it.
+ *
+ * This class is mutable and not thread-safe, like the state that holds it.
+ */
+public class StateHash implements HashedState {
+
+    // hash held in an undo log, or null to hold it in a field
+    private final UndoLog.LongCell cell;
+    private long hash;
+
+    /**
+     * Construct an empty hash, for a state that is not restorable
+     */
+    public StateHash() {
+        this.cell = null;
+        this.hash = 0;
+    }
+
+    /**
+     * Construct an empty hash, held in an undo log so it is restored with the state
+     * @param undoLog undo log of the state
+     */
+    public StateHash(UndoLog undoLog) {
+        this.cell = undoLog.newLong(0);
+    }
+
+    /**
+     * Return the hash
+     * @return 64-bit hash
+     */
+    @Override
+    public long getHash() {
+        return cell == null ? hash : cell.get();
+    }
+
+    /**
+     * XOR a value of a feature into the hash, or back out of it
+     * @param feature feature of the state
+     * @param value value of the feature
+     */
+    public void toggle(ZobristKeys.Feature feature, int value) {
+        xor(feature.key(value));
+    }
+
+    /**
+     * Change a feature from one value to another
+     * @param feature feature of the state
+     * @param oldValue value the feature had
+     * @param newValue value the feature has now
+     */
+    public void change(ZobristKeys.Feature feature, int oldValue, int newValue) {
+        xor(feature.key(oldValue) ^ feature.key(newValue));
+    }
+
+    /**
+     * XOR a key into the hash
+     * @param key key to XOR
+     */
+    private void xor(long key) {
+        if (cell == null) {
+            hash ^= key;
+        } else {
+            cell.set(cell.get() ^ key);
+        }
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("StateHash: Hash=%016x", getHash());
+    }
+}
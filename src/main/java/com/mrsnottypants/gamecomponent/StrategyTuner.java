@@ -0,0 +1,551 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Tunes the weights of a player's strategies with a genetic algorithm, playing games against opponents for fitness
+ *
+ * Each strategy added to the tuner is one weight of the vector being tuned, and a candidate vector is played as a
+ * player holding each strategy scaled by its weight.  A candidate's fitness is its score rate against the opponents,
+ * in games alternating seats.  Every candidate of a generation plays the same seeded games, so candidates are
+ * compared on the same deals, and each candidate's games against each opponent are a task on a fork-join pool.
+ * Each task reuses one game state for its games, through the match factory's reset.
+ *
+ * Each generation keeps its fittest candidates, and breeds the rest from parents picked by tournament selection,
+ * with blend crossover and Gaussian mutation.  After each generation the population is encoded and handed to a
+ * checkpoint sink, and a tuner can resume from any checkpoint and evolve on as if it had not stopped.
+ */
+public class StrategyTuner {
+
+    // format of checkpoints written
+    private static final int VERSION = 1;
+
+    // candidates compared when picking each parent
+    private static final int SELECTION_SIZE = 3;
+
+    // blend crossover reaches this fraction of the gap beyond either parent
+    private static final double BLEND = 0.25;
+
+    private final MatchFactory matchFactory;
+    private final PlayStrategyType[] types;
+    private final PlayStrategy[] strategies;
+    private final double[] initialWeights;
+    private final Player[] opponents;
+    private final int populationSize;
+    private final int eliteCount;
+    private final int gamesPerOpponent;
+    private final double mutationRate;
+    private final double mutationSigma;
+    private final ForkJoinPool pool;
+    private final GameRandom random;
+    private final Consumer<ByteBuffer> checkpoint;
+
+    /**
+     * Construct a tuner from a tuner builder
+     * @param builder tuner builder
+     */
+    private StrategyTuner(Builder builder) {
+        this.matchFactory = builder.matchFactory;
+        this.types = builder.types.toArray(new PlayStrategyType[builder.types.size()]);
+        this.strategies = builder.strategies.toArray(new PlayStrategy[builder.strategies.size()]);
+        this.initialWeights = new double[builder.weights.size()];
+        for (int index = 0; index < initialWeights.length; ++index) {
+            initialWeights[index] = builder.weights.get(index);
+        }
+        this.opponents = builder.opponents.toArray(new Player[builder.opponents.size()]);
+        this.populationSize = builder.populationSize;
+        this.eliteCount = Math.min(builder.eliteCount, builder.populationSize);
+        this.gamesPerOpponent = builder.gamesPerOpponent;
+        this.mutationRate = builder.mutationRate;
+        this.mutationSigma = builder.mutationSigma;
+        this.pool = builder.pool;
+        this.random = new GameRandom(builder.seed);
+        this.checkpoint = builder.checkpoint;
+    }
+
+    /**
+     * Return a player holding each strategy scaled by its weight
+     * @param weights weight of each strategy, in the order added
+     * @return computer controlled player
+     */
+    public Player newPlayer(double[] weights) {
+        if (weights.length != strategies.length) {
+            throw new IllegalArgumentException(String.format("Expected %d weights, not %d",
+                    strategies.length, weights.length));
+        }
+        Player.Builder builder = new Player.Builder(true);
+        for (int index = 0; index < strategies.length; ++index) {
+            builder.addPlayStrategy(types[index], new ScaledStrategy(strategies[index], weights[index]));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Evolve a population from the initial weights for some generations
+     * @param generations generations to evaluate
+     * @return population after the last generation, holding the fittest weights evaluated
+     */
+    public Population run(int generations) {
+        GameRandom seedRandom = random.split(-1);
+        double[][] weights = new double[populationSize][];
+        for (int candidate = 0; candidate < populationSize; ++candidate) {
+            weights[candidate] = initialWeights.clone();
+            if (candidate > 0) {
+                for (int gene = 0; gene < weights[candidate].length; ++gene) {
+                    weights[candidate][gene] += mutationSigma * seedRandom.nextGaussian();
+                }
+            }
+        }
+        return evolve(new Population(0, weights, null, Double.NEGATIVE_INFINITY), generations);
+    }
+
+    /**
+     * Resume evolving a population from a checkpoint for some generations
+     * @param reader reads the checkpoint
+     * @param generations generations to evaluate
+     * @return population after the last generation, holding the fittest weights evaluated
+     * @throws IllegalStateException if the checkpoint holds a different population size or number of weights
+     */
+    public Population resume(BinaryReader reader, int generations) {
+        Population population = Population.read(reader);
+        if (population.size() != populationSize) {
+            throw new IllegalStateException(String.format("Checkpoint holds %d candidates, not %d",
+                    population.size(), populationSize));
+        }
+        if (population.weights[0].length != strategies.length) {
+            throw new IllegalStateException(String.format("Checkpoint tunes %d weights, not %d",
+                    population.weights[0].length, strategies.length));
+        }
+        return evolve(population, generations);
+    }
+
+    /**
+     * Evaluate and breed generations, checkpointing each bred generation
+     * @param population population to evaluate first
+     * @param generations generations to evaluate
+     * @return population after the last generation
+     */
+    private Population evolve(Population population, int generations) {
+        Game game = matchFactory.newGame();
+        for (int generation = 0; generation < generations; ++generation) {
+            double[] fitness = evaluate(game, population);
+            population = breed(population, fitness);
+            if (checkpoint != null) {
+                BinaryWriter writer = new BinaryWriter(256);
+                population.write(writer);
+                ByteBuffer bytes = writer.getBuffer();
+                bytes.flip();
+                checkpoint.accept(bytes);
+            }
+        }
+        return population;
+    }
+
+    /**
+     * Play every candidate against every opponent in parallel
+     * @param game game to play
+     * @param population candidates to evaluate
+     * @return score rate of each candidate
+     */
+    private double[] evaluate(Game game, Population population) {
+        GameRandom generationRandom = random.split(population.generation);
+        double[][] points = new double[populationSize][opponents.length];
+        List<RecursiveAction> tasks = new ArrayList<>();
+        for (int candidate = 0; candidate < populationSize; ++candidate) {
+            Player player = newPlayer(population.weights[candidate]);
+            for (int opponent = 0; opponent < opponents.length; ++opponent) {
+                int candidateIndex = candidate;
+                int opponentIndex = opponent;
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        points[candidateIndex][opponentIndex] = play(game, player, opponentIndex, generationRandom);
+                    }
+                });
+            }
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+
+        double[] fitness = new double[populationSize];
+        for (int candidate = 0; candidate < populationSize; ++candidate) {
+            for (double opponentPoints : points[candidate]) {
+                fitness[candidate] += opponentPoints;
+            }
+            fitness[candidate] /= (double) opponents.length * gamesPerOpponent;
+        }
+        return fitness;
+    }
+
+    /**
+     * Play a candidate against an opponent, alternating seats
+     * @param game game to play
+     * @param player candidate player
+     * @param opponent opponent index
+     * @param generationRandom random of the generation, split by game
+     * @return points scored: 1 per win and 0.5 per draw
+     */
+    private double play(Game game, Player player, int opponent, GameRandom generationRandom) {
+        double points = 0.0;
+        Player[] seats = new Player[2];
+        GameState gameState = null;
+        for (int index = 0; index < gamesPerOpponent; ++index) {
+            int seat = index & 1;
+            seats[seat] = player;
+            seats[1 - seat] = opponents[opponent];
+            GameRandom gameRandom = generationRandom.split((long) opponent * gamesPerOpponent + index);
+            gameState = gameState == null ? matchFactory.newGameState(seats, gameRandom) :
+                    matchFactory.resetGameState(gameState, seats, gameRandom);
+            game.play(gameState);
+            SeatedState seatedState = SeatedState.class.cast(gameState);
+            points += Tournament.rate(seatedState.getPlayerState(seat).getScore(),
+                    seatedState.getPlayerState(1 - seat).getScore());
+        }
+        return points;
+    }
+
+    /**
+     * Return the next generation: the elites of this generation, and children bred from it
+     * @param population evaluated population
+     * @param fitness score rate of each candidate
+     * @return next population
+     */
+    private Population breed(Population population, double[] fitness) {
+        GameRandom breedRandom = random.split(population.generation).split(-1);
+        Integer[] ranking = new Integer[populationSize];
+        for (int candidate = 0; candidate < populationSize; ++candidate) {
+            ranking[candidate] = candidate;
+        }
+        Arrays.sort(ranking, (one, other) -> Double.compare(fitness[other], fitness[one]));
+
+        // remember the fittest weights ever evaluated
+        double[] best = population.bestWeights;
+        double bestFitness = population.bestFitness;
+        if (fitness[ranking[0]] > bestFitness) {
+            best = population.weights[ranking[0]].clone();
+            bestFitness = fitness[ranking[0]];
+        }
+
+        double[][] weights = new double[populationSize][];
+        for (int candidate = 0; candidate < eliteCount; ++candidate) {
+            weights[candidate] = population.weights[ranking[candidate]].clone();
+        }
+        for (int candidate = eliteCount; candidate < populationSize; ++candidate) {
+            double[] first = population.weights[select(fitness, breedRandom)];
+            double[] second = population.weights[select(fitness, breedRandom)];
+            double[] child = new double[first.length];
+            for (int gene = 0; gene < child.length; ++gene) {
+                double blend = -BLEND + (1.0 + 2.0 * BLEND) * breedRandom.nextDouble();
+                child[gene] = first[gene] + blend * (second[gene] - first[gene]);
+                if (breedRandom.nextDouble() < mutationRate) {
+                    child[gene] += mutationSigma * breedRandom.nextGaussian();
+                }
+            }
+            weights[candidate] = child;
+        }
+        return new Population(population.generation + 1, weights, best, bestFitness);
+    }
+
+    /**
+     * Return the fittest of a few candidates picked at random
+     * @param fitness score rate of each candidate
+     * @param breedRandom random of the breeding
+     * @return candidate index
+     */
+    private int select(double[] fitness, GameRandom breedRandom) {
+        int best = breedRandom.nextInt(fitness.length);
+        for (int pick = 1; pick < SELECTION_SIZE; ++pick) {
+            int candidate = breedRandom.nextInt(fitness.length);
+            if (fitness[candidate] > fitness[best]) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("StrategyTuner: Weights=%d, Population=%d, Elites=%d, Opponents=%d, Games=%d",
+                strategies.length, populationSize, eliteCount, opponents.length, gamesPerOpponent);
+    }
+
+    // A generation of candidate weights, and the fittest weights evaluated so far
+    //
+    public final static class Population {
+
+        private final int generation;
+        private final double[][] weights;
+        private final double[] bestWeights;
+        private final double bestFitness;
+
+        /**
+         * Construct a population
+         * @param generation generations evaluated before this one
+         * @param weights weights of each candidate
+         * @param bestWeights fittest weights evaluated, or null if none have been
+         * @param bestFitness score rate of the fittest weights
+         */
+        Population(int generation, double[][] weights, double[] bestWeights, double bestFitness) {
+            this.generation = generation;
+            this.weights = weights;
+            this.bestWeights = bestWeights;
+            this.bestFitness = bestFitness;
+        }
+
+        /**
+         * Return the number of generations evaluated before this one
+         * @return generation
+         */
+        public int getGeneration() {
+            return generation;
+        }
+
+        /**
+         * Return the weights of a candidate
+         * @param candidate candidate index
+         * @return weights, in the order strategies were added
+         */
+        public double[] getWeights(int candidate) {
+            return weights[candidate].clone();
+        }
+
+        /**
+         * Return the number of candidates
+         * @return size
+         */
+        public int size() {
+            return weights.length;
+        }
+
+        /**
+         * Return the fittest weights evaluated
+         * @return weights, or null if no generation has been evaluated
+         */
+        public double[] getBestWeights() {
+            return bestWeights == null ? null : bestWeights.clone();
+        }
+
+        /**
+         * Return the score rate of the fittest weights evaluated
+         * @return score rate, negative infinity if no generation has been evaluated
+         */
+        public double getBestFitness() {
+            return bestFitness;
+        }
+
+        /**
+         * Write this population: format version, generation, candidate and weight counts, each candidate's weights,
+         * then whether any weights were evaluated, and the fittest weights and their score rate if so
+         * @param writer writes the population
+         */
+        public void write(BinaryWriter writer) {
+            writer.writeVarInt(VERSION)
+                    .writeVarInt(generation)
+                    .writeVarInt(weights.length)
+                    .writeVarInt(weights[0].length);
+            for (double[] candidate : weights) {
+                for (double weight : candidate) {
+                    writer.writeDouble(weight);
+                }
+            }
+            writer.writeBoolean(bestWeights != null);
+            if (bestWeights != null) {
+                for (double weight : bestWeights) {
+                    writer.writeDouble(weight);
+                }
+                writer.writeDouble(bestFitness);
+            }
+        }
+
+        /**
+         * Read a population
+         * @param reader reads the population
+         * @return population
+         */
+        public static Population read(BinaryReader reader) {
+            int version = reader.readVarInt();
+            if (version != VERSION) {
+                throw new IllegalStateException(String.format("Unknown checkpoint version: %d", version));
+            }
+            int generation = reader.readVarInt();
+            double[][] weights = new double[reader.readVarInt()][reader.readVarInt()];
+            for (double[] candidate : weights) {
+                for (int gene = 0; gene < candidate.length; ++gene) {
+                    candidate[gene] = reader.readDouble();
+                }
+            }
+            double[] bestWeights = null;
+            double bestFitness = Double.NEGATIVE_INFINITY;
+            if (reader.readBoolean()) {
+                bestWeights = new double[weights[0].length];
+                for (int gene = 0; gene < bestWeights.length; ++gene) {
+                    bestWeights[gene] = reader.readDouble();
+                }
+                bestFitness = reader.readDouble();
+            }
+            return new Population(generation, weights, bestWeights, bestFitness);
+        }
+
+        /**
+         * Return friendly string description
+         * @return description
+         */
+        @Override
+        public String toString() {
+            return String.format("Population: Generation=%d, Size=%d, BestFitness=%s, BestWeights=%s",
+                    generation, weights.length, bestFitness, Arrays.toString(bestWeights));
+        }
+    }
+
+    // Builder for constructing a tuner
+    //
+    public final static class Builder {
+
+        private final MatchFactory matchFactory;
+        private final List<PlayStrategyType> types = new ArrayList<>();
+        private final List<PlayStrategy> strategies = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+        private final List<Player> opponents = new ArrayList<>();
+        private int populationSize = 32;
+        private int eliteCount = 4;
+        private int gamesPerOpponent = 64;
+        private double mutationRate = 0.2;
+        private double mutationSigma = 0.1;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private long seed = 0;
+        private Consumer<ByteBuffer> checkpoint = null;
+
+        /**
+         * Construct a tuner builder
+         * @param matchFactory creates the game, and a seated game state for every game played, reset when it can
+         */
+        public Builder(MatchFactory matchFactory) {
+            this.matchFactory = matchFactory;
+        }
+
+        /**
+         * Add a strategy to tune, as one weight of the vector being tuned
+         * @param type type of strategy, to which decisions does this strategy apply
+         * @param playStrategy the strategy, weighing into a weighted play choice
+         * @param initialWeight weight to start tuning from
+         * @return this builder, for easy chaining
+         */
+        public Builder addPlayStrategy(PlayStrategyType type, PlayStrategy playStrategy, double initialWeight) {
+            types.add(type);
+            strategies.add(playStrategy);
+            weights.add(initialWeight);
+            return this;
+        }
+
+        /**
+         * Add an opponent every candidate plays against
+         * @param opponent opponent player
+         * @return this builder, for easy chaining
+         */
+        public Builder addOpponent(Player opponent) {
+            opponents.add(opponent);
+            return this;
+        }
+
+        /**
+         * Evolve this many candidates, keeping the fittest few each generation, instead of 32 keeping 4
+         * @param populationSize candidates per generation
+         * @param eliteCount fittest candidates kept unchanged
+         * @return this builder, for easy chaining
+         */
+        public Builder population(int populationSize, int eliteCount) {
+            if (populationSize < 2 || eliteCount < 0 || eliteCount >= populationSize) {
+                throw new IllegalArgumentException(String.format("Population out of range: %d keeping %d",
+                        populationSize, eliteCount));
+            }
+            this.populationSize = populationSize;
+            this.eliteCount = eliteCount;
+            return this;
+        }
+
+        /**
+         * Play this many games against each opponent for each candidate, instead of 64
+         * @param gamesPerOpponent games per opponent, half in each seat when even
+         * @return this builder, for easy chaining
+         */
+        public Builder gamesPerOpponent(int gamesPerOpponent) {
+            if (gamesPerOpponent < 1) {
+                throw new IllegalArgumentException(String.format("Games per opponent must be positive: %d",
+                        gamesPerOpponent));
+            }
+            this.gamesPerOpponent = gamesPerOpponent;
+            return this;
+        }
+
+        /**
+         * Mutate each weight of a child with this chance and standard deviation, instead of 0.2 and 0.1
+         * @param mutationRate chance of mutating each weight
+         * @param mutationSigma standard deviation of a mutation
+         * @return this builder, for easy chaining
+         */
+        public Builder mutation(double mutationRate, double mutationSigma) {
+            if (mutationRate < 0.0 || mutationRate > 1.0 || mutationSigma < 0.0) {
+                throw new IllegalArgumentException(String.format("Mutation out of range: rate=%s, sigma=%s",
+                        mutationRate, mutationSigma));
+            }
+            this.mutationRate = mutationRate;
+            this.mutationSigma = mutationSigma;
+            return this;
+        }
+
+        /**
+         * Play games on this pool instead of the common fork-join pool
+         * @param pool fork-join pool that plays the games
+         * @return this builder, for easy chaining
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Seed games and breeding with this seed, instead of 0
+         * @param seed root seed, the same seed evolves the same weights
+         * @return this builder, for easy chaining
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Hand each bred generation to a sink, ex: one that writes it to a file
+         * @param checkpoint takes each checkpoint's bytes, only valid during the call
+         * @return this builder, for easy chaining
+         */
+        public Builder checkpoint(Consumer<ByteBuffer> checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        /**
+         * Return a tuner
+         * @return tuner
+         */
+        public StrategyTuner build() {
+            if (strategies.isEmpty() || opponents.isEmpty()) {
+                throw new IllegalStateException("A tuner needs strategies to tune and opponents to play");
+            }
+            return new StrategyTuner(this);
+        }
+    }
+}
@@ -0,0 +1,571 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plays a round-robin tournament between player configurations, rating each with Elo
+ *
+ * Every group of players that fills the seats of a game is a matchup, and every matchup is played in every seat
+ * permutation, so no player gains from its seat.  Matchups are played in parallel on a fork-join pool, and each
+ * matchup forks its games in blocks, so idle threads steal games from busy matchups.
+ *
+ * A matchup stops early once it has settled: after its fewest games, when the confidence interval of every pair's
+ * score rate is narrower than the tolerance.  Once every matchup is played, ratings are updated game by game, in
+ * matchup order and then in the order each matchup forked its games, counting each pair of seats as a game between
+ * two players, won by the higher score.  Games and ratings are reproducible from the seed, whatever order games
+ * finish in.
+ */
+public class Tournament {
+
+    private final MatchFactory matchFactory;
+    private final Player[] players;
+    private final int seats;
+    private final int minGames;
+    private final int maxGames;
+    private final int blockSize;
+    private final double z;
+    private final double tolerance;
+    private final double kFactor;
+    private final double initialRating;
+    private final ForkJoinPool pool;
+    private final GameRandom random;
+
+    /**
+     * Construct a tournament from a tournament builder
+     * @param builder tournament builder
+     */
+    private Tournament(Builder builder) {
+        this.matchFactory = builder.matchFactory;
+        this.players = builder.players.toArray(new Player[builder.players.size()]);
+        this.seats = builder.seats;
+        this.minGames = builder.minGames;
+        this.maxGames = Math.max(builder.minGames, builder.maxGames);
+        this.blockSize = builder.blockSize;
+        this.z = builder.z;
+        this.tolerance = builder.tolerance;
+        this.kFactor = builder.kFactor;
+        this.initialRating = builder.initialRating;
+        this.pool = builder.pool;
+        this.random = new GameRandom(builder.seed);
+    }
+
+    /**
+     * Play every matchup until it settles or plays its most games
+     * @return standings of the players
+     */
+    public Standings run() {
+        Game game = matchFactory.newGame();
+        Standings standings = new Standings(players.length, initialRating);
+        int[][] permutations = permutations(seats);
+        List<Matchup> matchups = new ArrayList<>();
+        for (int[] combination : combinations(players.length, seats)) {
+            matchups.add(new Matchup(game, combination, permutations, random.split(matchups.size())));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(matchups);
+            }
+        });
+        for (Matchup matchup : matchups) {
+            for (Played played : matchup.finished) {
+                standings.record(played.seatedPlayers, played.permutation, played.scores, kFactor);
+            }
+        }
+        return standings;
+    }
+
+    /**
+     * Return every group of size players, in order
+     * @param count number of players
+     * @param size players per group
+     * @return groups of player indexes, each ascending
+     */
+    static List<int[]> combinations(int count, int size) {
+        List<int[]> combinations = new ArrayList<>();
+        int[] combination = new int[size];
+        for (int index = 0; index < size; ++index) {
+            combination[index] = index;
+        }
+        while (size <= count) {
+            combinations.add(combination.clone());
+
+            // advance the rightmost index that can move, and reset the indexes after it
+            int index = size - 1;
+            while (index >= 0 && combination[index] == count - size + index) {
+                --index;
+            }
+            if (index < 0) {
+                break;
+            }
+            ++combination[index];
+            for (int next = index + 1; next < size; ++next) {
+                combination[next] = combination[next - 1] + 1;
+            }
+        }
+        return combinations;
+    }
+
+    /**
+     * Return every ordering of size seats
+     * @param size number of seats
+     * @return permutations, each holding which group member sits in each seat
+     */
+    static int[][] permutations(int size) {
+        List<int[]> permutations = new ArrayList<>();
+        permute(new int[size], new boolean[size], 0, permutations);
+        return permutations.toArray(new int[permutations.size()][]);
+    }
+
+    /**
+     * Fill the seats from one seat on with every ordering of the members not yet seated
+     * @param permutation members seated so far
+     * @param seated whether each member is seated
+     * @param seat next seat to fill
+     * @param permutations collects complete permutations
+     */
+    private static void permute(int[] permutation, boolean[] seated, int seat, List<int[]> permutations) {
+        if (seat == permutation.length) {
+            permutations.add(permutation.clone());
+            return;
+        }
+        for (int member = 0; member < permutation.length; ++member) {
+            if (!seated[member]) {
+                seated[member] = true;
+                permutation[seat] = member;
+                permute(permutation, seated, seat + 1, permutations);
+                seated[member] = false;
+            }
+        }
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("Tournament: Players=%d, Seats=%d, Games=%d..%d, Tolerance=%s",
+                players.length, seats, minGames, maxGames, tolerance);
+    }
+
+    // Plays one matchup in blocks of games, until it settles
+    //
+    private final class Matchup extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Game game;
+        private final int[] members;
+        private final int[][] permutations;
+        private final GameRandom random;
+
+        // outcomes of each pair of members: games, total score rate and total squared score rate of the lower member
+        private final int[] pairGames;
+        private final double[] pairSums;
+        private final double[] pairSquares;
+
+        // games played, in the order they were forked
+        private final List<Played> finished = new ArrayList<>();
+
+        Matchup(Game game, int[] members, int[][] permutations, GameRandom random) {
+            this.game = game;
+            this.members = members;
+            this.permutations = permutations;
+            this.random = random;
+            int pairs = members.length * (members.length - 1) / 2;
+            this.pairGames = new int[pairs];
+            this.pairSums = new double[pairs];
+            this.pairSquares = new double[pairs];
+        }
+
+        @Override
+        protected void compute() {
+            int played = 0;
+            while (played < maxGames && !(played >= minGames && isSettled())) {
+
+                // fork a block of games, a few of each seat permutation
+                List<Played> block = new ArrayList<>();
+                for (int round = 0; round < blockSize && played < maxGames; ++round) {
+                    for (int[] permutation : permutations) {
+                        if (played == maxGames) {
+                            break;
+                        }
+                        block.add(new Played(game, members, permutation, random.split(played++)));
+                    }
+                }
+                invokeAll(block);
+
+                // score rate of each member against each other member, in the order games were forked
+                for (Played result : block) {
+                    int pair = 0;
+                    for (int low = 0; low < members.length; ++low) {
+                        for (int high = low + 1; high < members.length; ++high, ++pair) {
+                            double rate = rate(result.scores[low], result.scores[high]);
+                            ++pairGames[pair];
+                            pairSums[pair] += rate;
+                            pairSquares[pair] += rate * rate;
+                        }
+                    }
+                }
+                finished.addAll(block);
+            }
+        }
+
+        /**
+         * Return whether every pair's score rate is known to within the tolerance
+         * @return true if settled
+         */
+        private boolean isSettled() {
+            for (int pair = 0; pair < pairGames.length; ++pair) {
+                int games = pairGames[pair];
+                double mean = pairSums[pair] / games;
+                double variance = Math.max(0.0, pairSquares[pair] / games - mean * mean) * games / (games - 1);
+                if (z * Math.sqrt(variance / games) > tolerance) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // Plays one game of a matchup in a seat permutation, keeping its scores
+    //
+    private final class Played extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Game game;
+        private final int[] permutation;
+        private final GameRandom random;
+        private final int[] seatedPlayers;
+        private final int[] scores;
+
+        Played(Game game, int[] members, int[] permutation, GameRandom random) {
+            this.game = game;
+            this.permutation = permutation;
+            this.random = random;
+            this.seatedPlayers = new int[permutation.length];
+            for (int seat = 0; seat < permutation.length; ++seat) {
+                seatedPlayers[seat] = members[permutation[seat]];
+            }
+            this.scores = new int[members.length];
+        }
+
+        @Override
+        protected void compute() {
+            Player[] seated = new Player[permutation.length];
+            for (int seat = 0; seat < permutation.length; ++seat) {
+                seated[seat] = players[seatedPlayers[seat]];
+            }
+            GameState gameState = matchFactory.newGameState(seated, random);
+            if (!(gameState instanceof SeatedState)) {
+                throw new IllegalStateException(String.format("Game state is not seated: %s", gameState));
+            }
+            game.play(gameState);
+            for (int seat = 0; seat < permutation.length; ++seat) {
+                scores[permutation[seat]] = SeatedState.class.cast(gameState).getPlayerState(seat).getScore();
+            }
+        }
+    }
+
+    /**
+     * Return the score rate of one score against another: 1 for a win, 0.5 for a draw, 0 for a loss
+     * @param score score
+     * @param other other score
+     * @return score rate
+     */
+    static double rate(int score, int other) {
+        return score > other ? 1.0 : score == other ? 0.5 : 0.0;
+    }
+
+    // Ratings and results of the players
+    //
+    public final static class Standings {
+
+        private final double[] ratings;
+        private final int[] games;
+        private final double[] points;
+
+        // games and points between each ordered pair of players
+        private final int[][] pairGames;
+        private final double[][] pairPoints;
+
+        /**
+         * Construct standings where no games have been played
+         * @param count number of players
+         * @param initialRating rating of every player before any games
+         */
+        Standings(int count, double initialRating) {
+            this.ratings = new double[count];
+            Arrays.fill(ratings, initialRating);
+            this.games = new int[count];
+            this.points = new double[count];
+            this.pairGames = new int[count][count];
+            this.pairPoints = new double[count][count];
+        }
+
+        /**
+         * Record a finished game, updating ratings
+         * @param seatedPlayers player in each seat
+         * @param permutation which matchup member sits in each seat
+         * @param scores score of each matchup member
+         * @param kFactor most rating gained or lost in a game
+         */
+        synchronized void record(int[] seatedPlayers, int[] permutation, int[] scores, double kFactor) {
+            int seats = seatedPlayers.length;
+            double[] changes = new double[seats];
+            for (int seat = 0; seat < seats; ++seat) {
+                int player = seatedPlayers[seat];
+                for (int other = 0; other < seats; ++other) {
+                    if (other == seat) {
+                        continue;
+                    }
+                    int opponent = seatedPlayers[other];
+                    double rate = rate(scores[permutation[seat]], scores[permutation[other]]);
+                    double expected = 1.0 / (1.0 + Math.pow(10.0, (ratings[opponent] - ratings[player]) / 400.0));
+                    changes[seat] += kFactor * (rate - expected) / (seats - 1);
+                    points[player] += rate / (seats - 1);
+                    ++pairGames[player][opponent];
+                    pairPoints[player][opponent] += rate;
+                }
+                ++games[player];
+            }
+
+            // every seat's change is from the ratings before the game
+            for (int seat = 0; seat < seats; ++seat) {
+                ratings[seatedPlayers[seat]] += changes[seat];
+            }
+        }
+
+        /**
+         * Return the number of players
+         * @return player count
+         */
+        public int size() {
+            return ratings.length;
+        }
+
+        /**
+         * Return a player's Elo rating
+         * @param player player index
+         * @return rating
+         */
+        public synchronized double getRating(int player) {
+            return ratings[player];
+        }
+
+        /**
+         * Return the number of games a player played
+         * @param player player index
+         * @return games
+         */
+        public synchronized int getGames(int player) {
+            return games[player];
+        }
+
+        /**
+         * Return a player's score rate over all games, 1 if it beat every opponent of every game
+         * @param player player index
+         * @return score rate, 0 if no games were played
+         */
+        public synchronized double getScoreRate(int player) {
+            return games[player] == 0 ? 0.0 : points[player] / games[player];
+        }
+
+        /**
+         * Return the number of games two players played against each other
+         * @param player player index
+         * @param opponent opponent index
+         * @return games
+         */
+        public synchronized int getGames(int player, int opponent) {
+            return pairGames[player][opponent];
+        }
+
+        /**
+         * Return a player's score rate against an opponent
+         * @param player player index
+         * @param opponent opponent index
+         * @return score rate, 0 if they played no games
+         */
+        public synchronized double getScoreRate(int player, int opponent) {
+            int played = pairGames[player][opponent];
+            return played == 0 ? 0.0 : pairPoints[player][opponent] / played;
+        }
+
+        /**
+         * Return the players, best rated first
+         * @return player indexes
+         */
+        public synchronized int[] getRanking() {
+            Integer[] ranking = new Integer[ratings.length];
+            for (int player = 0; player < ranking.length; ++player) {
+                ranking[player] = player;
+            }
+            Arrays.sort(ranking, (one, other) -> Double.compare(ratings[other], ratings[one]));
+            int[] indexes = new int[ranking.length];
+            for (int player = 0; player < indexes.length; ++player) {
+                indexes[player] = ranking[player];
+            }
+            return indexes;
+        }
+
+        /**
+         * Return friendly string description
+         * @return description
+         */
+        @Override
+        public synchronized String toString() {
+            StringBuilder description = new StringBuilder("Standings:");
+            for (int player : getRanking()) {
+                description.append(String.format(" %d=%.0f", player, ratings[player]));
+            }
+            return description.toString();
+        }
+    }
+
+    // Builder for constructing a tournament
+    //
+    public final static class Builder {
+
+        private final MatchFactory matchFactory;
+        private final List<Player> players = new ArrayList<>();
+        private int seats = 2;
+        private int minGames = 32;
+        private int maxGames = 1024;
+        private int blockSize = 8;
+        private double z = 1.96;
+        private double tolerance = 0.05;
+        private double kFactor = 16.0;
+        private double initialRating = 1500.0;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+        private long seed = 0;
+
+        /**
+         * Construct a tournament builder
+         * @param matchFactory creates the game, and a new game state for every game played
+         */
+        public Builder(MatchFactory matchFactory) {
+            this.matchFactory = matchFactory;
+        }
+
+        /**
+         * Enter a player configuration, players are indexed in the order they are added
+         * @param player player configuration
+         * @return this builder, for easy chaining
+         */
+        public Builder addPlayer(Player player) {
+            players.add(player);
+            return this;
+        }
+
+        /**
+         * Seat this many players per game, instead of 2
+         * @param seats seats per game
+         * @return this builder, for easy chaining
+         */
+        public Builder seats(int seats) {
+            if (seats < 2 || seats > 6) {
+                throw new IllegalArgumentException(String.format("Seats out of range: %d", seats));
+            }
+            this.seats = seats;
+            return this;
+        }
+
+        /**
+         * Play from minGames to maxGames games per matchup, instead of 32 to 1024
+         * @param minGames fewest games before a matchup may settle
+         * @param maxGames most games per matchup
+         * @return this builder, for easy chaining
+         */
+        public Builder games(int minGames, int maxGames) {
+            if (minGames < 2 || maxGames < minGames) {
+                throw new IllegalArgumentException(String.format("Games out of range: %d..%d", minGames, maxGames));
+            }
+            this.minGames = minGames;
+            this.maxGames = maxGames;
+            return this;
+        }
+
+        /**
+         * Fork this many games of each seat permutation between checks for settling, instead of 8
+         * @param blockSize games per permutation per block
+         * @return this builder, for easy chaining
+         */
+        public Builder blockSize(int blockSize) {
+            if (blockSize < 1) {
+                throw new IllegalArgumentException(String.format("Block size must be positive: %d", blockSize));
+            }
+            this.blockSize = blockSize;
+            return this;
+        }
+
+        /**
+         * Settle a matchup once every score rate is known to within this tolerance, instead of 5%
+         * @param z standard normal quantile of the confidence, ex: 1.96 for 95%
+         * @param tolerance half-width of the confidence interval
+         * @return this builder, for easy chaining
+         */
+        public Builder confidence(double z, double tolerance) {
+            if (z <= 0.0 || tolerance <= 0.0) {
+                throw new IllegalArgumentException(String.format("Confidence must be positive: z=%s, tolerance=%s",
+                        z, tolerance));
+            }
+            this.z = z;
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * Rate with this K-factor and initial rating, instead of 16 and 1500
+         * @param kFactor most rating gained or lost in a game
+         * @param initialRating rating of every player before any games
+         * @return this builder, for easy chaining
+         */
+        public Builder elo(double kFactor, double initialRating) {
+            if (kFactor <= 0.0) {
+                throw new IllegalArgumentException(String.format("K-factor must be positive: %s", kFactor));
+            }
+            this.kFactor = kFactor;
+            this.initialRating = initialRating;
+            return this;
+        }
+
+        /**
+         * Play games on this pool instead of the common fork-join pool
+         * @param pool fork-join pool that plays the games
+         * @return this builder, for easy chaining
+         */
+        public Builder pool(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        /**
+         * Split a random per game from this seed, instead of 0
+         * @param seed root seed, the same seed plays the same games
+         * @return this builder, for easy chaining
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Return a tournament
+         * @return tournament
+         */
+        public Tournament build() {
+            if (players.size() < seats) {
+                throw new IllegalStateException(String.format("%d players cannot fill %d seats",
+                        players.size(), seats));
+            }
+            return new Tournament(this);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * Fixed-size table of 64-bit values by state hash, ex: search results by position
+ *
+ * Entries live in two primitive arrays, so the table is two allocations however large it is, and costs the garbage
+ * collector nothing to trace.  A new entry always replaces the entry in its slot.
+ *
+ * The table takes no locks.  Each entry stores its hash XOR its value beside its value, so an entry torn by threads
+ * storing at once does not check out, and is reported missing rather than wrong.  Empty slots hold a check that
+ * belongs to another slot, so they never check out either, whatever the hash.
+ *
+ * This class is thread-safe.
+ */
+public class TranspositionTable {
+
+    private final long[] checks;
+    private final long[] values;
+    private final int mask;
+
+    /**
+     * Construct an empty table
+     * @param capacity number of entries, rounded up to a power of 2, at least 2
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException(String.format("Capacity must be from 1 to 2^30: %d", capacity));
+        }
+        int size = Math.max(2, Integer.highestOneBit(capacity));
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.checks = new long[size];
+        this.values = new long[size];
+        this.mask = size - 1;
+        clear();
+    }
+
+    /**
+     * Return the slot of a hash
+     * @param hash state hash
+     * @return slot index
+     */
+    private int slotOf(long hash) {
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    /**
+     * Store a value for a hash, replacing the entry in its slot
+     * @param hash state hash
+     * @param value value to store
+     */
+    public void store(long hash, long value) {
+        int slot = slotOf(hash);
+        values[slot] = value;
+        checks[slot] = hash ^ value;
+    }
+
+    /**
+     * Return the value stored for a hash
+     * @param hash state hash
+     * @param missing returned if there is no entry for the hash
+     * @return value stored, or missing
+     */
+    public long probe(long hash, long missing) {
+        int slot = slotOf(hash);
+        long value = values[slot];
+        return (checks[slot] ^ value) == hash ? value : missing;
+    }
+
+    /**
+     * Return true if a value is stored for a hash
+     * @param hash state hash
+     * @return true if stored
+     */
+    public boolean contains(long hash) {
+        int slot = slotOf(hash);
+        return (checks[slot] ^ values[slot]) == hash;
+    }
+
+    /**
+     * Remove every entry
+     */
+    public void clear() {
+        for (int slot = 0; slot < values.length; ++slot) {
+            values[slot] = 0;
+            checks[slot] = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Return number of entries
+     * @return capacity
+     */
+    public int getCapacity() {
+        return values.length;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("TranspositionTable: Capacity=%d", values.length);
+    }
+}
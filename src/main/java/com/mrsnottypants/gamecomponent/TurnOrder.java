@@ -0,0 +1,163 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Loops endlessly over the seats 0..size-1, for turn-order rotation without boxing or per-lap allocation
+ *
+ * Beyond plain rotation, card games often need to skip a player, reverse direction, or jump to a player.
+ * ex: After seat 2 plays a reverse card, the next seat is 1; after a skip card, the next seat is passed over
+ *
+ * This class is mutable and not thread-safe, use one turn order per game.
+ */
+public class TurnOrder implements PrimitiveIterator.OfInt {
+
+    // number of seats
+    private final int size;
+
+    // seat returned by the next call to next, and the seat last returned
+    private int position;
+    private int previous = -1;
+
+    // +1 for ascending seats, -1 for descending seats
+    private int direction = 1;
+
+    // seats passed over, and whether a seat was sought, since the seat last returned
+    private int skipped = 0;
+    private boolean sought = false;
+
+    /**
+     * Construct a turn order starting with seat 0
+     * @param size number of seats
+     */
+    public TurnOrder(int size) {
+        this(size, 0);
+    }
+
+    /**
+     * Construct a turn order starting with the passed seat
+     * @param size number of seats
+     * @param first first seat returned
+     */
+    public TurnOrder(int size, int first) {
+        if (size < 0) {
+            throw new IllegalArgumentException(String.format("Size must not be negative: %d", size));
+        }
+        this.size = size;
+        seek(first);
+    }
+
+    /**
+     * Return number of seats
+     * @return number of seats
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * There is always a next seat, unless there are no seats
+     * @return true unless there are no seats
+     */
+    @Override
+    public boolean hasNext() {
+        return size > 0;
+    }
+
+    /**
+     * Return the next seat, looping around in the current direction
+     * @return next seat
+     */
+    @Override
+    public int nextInt() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        previous = position;
+        skipped = 0;
+        sought = false;
+        position = direction > 0 ?
+                (position + 1 == size ? 0 : position + 1) :
+                (position == 0 ? size - 1 : position - 1);
+        return previous;
+    }
+
+    /**
+     * Return the seat the next call to next will return, without moving
+     * @return next seat
+     */
+    public int peekInt() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return position;
+    }
+
+    /**
+     * Return the seat last returned
+     * @return last seat returned, or -1 if none returned yet
+     */
+    public int getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Pass over the next seat
+     */
+    public void skip() {
+        skip(1);
+    }
+
+    /**
+     * Pass over a number of seats, in the current direction
+     * @param count number of seats to pass over
+     */
+    public void skip(int count) {
+        if (size > 0) {
+            position = Math.floorMod(position + count * direction, size);
+            skipped += count;
+        }
+    }
+
+    /**
+     * Reverse direction, so the seat after the last seat returned is the one that preceded it
+     * Seats already passed over since then are passed over in the new direction, and a sought seat is kept.
+     */
+    public void reverse() {
+        direction = -direction;
+        if (previous >= 0 && size > 0 && !sought) {
+            position = Math.floorMod(previous + direction * (1 + skipped % size), size);
+        }
+    }
+
+    /**
+     * Return true if seats are descending
+     * @return true if reversed
+     */
+    public boolean isReversed() {
+        return direction < 0;
+    }
+
+    /**
+     * Move so the next call to next returns the passed seat
+     * @param seat seat to return next
+     */
+    public void seek(int seat) {
+        if (seat < 0 || (seat >= size && size > 0)) {
+            throw new IndexOutOfBoundsException(String.format("Seat %d is not in 0..%d", seat, size - 1));
+        }
+        position = seat;
+        skipped = 0;
+        sought = true;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("TurnOrder: Size=%d, Next=%d, Reversed=%s", size, position, isReversed());
+    }
+}
@@ -0,0 +1,391 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.Arrays;
+
+/**
+ * Records changes to state cells, so state can be restored to a snapshot by undoing only what changed
+ *
+ * State is held in cells created by the log.  While a snapshot is active, the first change to a cell records its
+ * old value; later changes to the same cell record nothing until the next snapshot or restore.  Restoring undoes
+ * the recorded changes in reverse, so a rollout costs only the state it touches.
+ * ex: A game state keeps scores in an int array cell and the deck in a long cell, and its player states keep their
+ * hands in long cells created by the same log
+ *
+ * Cells should hold primitives or immutable values.  This class is mutable and not thread-safe, use one log per
+ * game state.
+ */
+public class UndoLog implements Restorable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // recorded changes: cell, old value, and element index for array cells
+    private Cell[] cells = new Cell[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    private Object[] objects = new Object[INITIAL_CAPACITY];
+    private int[] indexes = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // number of recorded changes when each active snapshot was taken
+    private int[] marks = new int[8];
+    private int depth = 0;
+
+    // identifies the current epoch; cells record at most one change per epoch, and epochs never repeat
+    private long epoch = 0;
+    private long nextEpoch = 1;
+
+    /**
+     * Take a snapshot of every cell in this log
+     * @return snapshot id
+     */
+    @Override
+    public int snapshot() {
+        if (depth == marks.length) {
+            marks = Arrays.copyOf(marks, depth * 2);
+        }
+        marks[depth] = size;
+        epoch = nextEpoch++;
+        return depth++;
+    }
+
+    /**
+     * Restore every cell in this log to its value at the time of a snapshot
+     * @param snapshot snapshot id
+     */
+    @Override
+    public void restore(int snapshot) {
+        if (snapshot < 0 || snapshot >= depth) {
+            throw new IllegalArgumentException(String.format("Snapshot %d is not active", snapshot));
+        }
+
+        // undo in reverse, so the oldest recorded value of each cell wins
+        int mark = marks[snapshot];
+        while (size > mark) {
+            --size;
+            cells[size].undo(values[size], objects[size], indexes[size]);
+            cells[size] = null;
+            objects[size] = null;
+        }
+        depth = snapshot;
+        epoch = depth == 0 ? 0 : nextEpoch++;
+    }
+
+    /**
+     * Return number of active snapshots
+     * @return number of active snapshots
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Return number of changes recorded since the oldest active snapshot
+     * @return number of recorded changes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Create an int cell
+     * @param value initial value
+     * @return int cell
+     */
+    public IntCell newInt(int value) {
+        return new IntCell(this, value);
+    }
+
+    /**
+     * Create a long cell
+     * @param value initial value
+     * @return long cell
+     */
+    public LongCell newLong(long value) {
+        return new LongCell(this, value);
+    }
+
+    /**
+     * Create a cell holding an immutable value
+     * @param value initial value
+     * @param <T> type of value
+     * @return value cell
+     */
+    public <T> ValueCell<T> newValue(T value) {
+        return new ValueCell<>(this, value);
+    }
+
+    /**
+     * Create an int array cell, with every element 0
+     * @param length number of elements
+     * @return int array cell
+     */
+    public IntArrayCell newIntArray(int length) {
+        return new IntArrayCell(this, length);
+    }
+
+    /**
+     * Record the old value of a cell, or of one element of an array cell
+     * @param cell changed cell
+     * @param value old primitive value
+     * @param object old object value
+     * @param index element index, for array cells
+     */
+    private void record(Cell cell, long value, Object object, int index) {
+
+        // without an active snapshot, there is nothing to restore
+        if (depth == 0) {
+            return;
+        }
+        if (size == cells.length) {
+            int capacity = size * 2;
+            cells = Arrays.copyOf(cells, capacity);
+            values = Arrays.copyOf(values, capacity);
+            objects = Arrays.copyOf(objects, capacity);
+            indexes = Arrays.copyOf(indexes, capacity);
+        }
+        cells[size] = cell;
+        values[size] = value;
+        objects[size] = object;
+        indexes[size++] = index;
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        return String.format("UndoLog: Snapshots=%d, Changes=%d", depth, size);
+    }
+
+    // State cell whose changes are recorded by an undo log
+    //
+    private abstract static class Cell {
+
+        protected final UndoLog log;
+
+        Cell(UndoLog log) {
+            this.log = log;
+        }
+
+        /**
+         * Put back a recorded old value
+         * @param value old primitive value
+         * @param object old object value
+         * @param index element index, for array cells
+         */
+        abstract void undo(long value, Object object, int index);
+    }
+
+    // An int held by an undo log
+    //
+    public static final class IntCell extends Cell {
+
+        private int value;
+        private long epoch;
+
+        private IntCell(UndoLog log, int value) {
+            super(log);
+            this.value = value;
+            this.epoch = log.epoch;
+        }
+
+        /**
+         * Return value
+         * @return value
+         */
+        public int get() {
+            return value;
+        }
+
+        /**
+         * Set value, recording the old value if this is the first change since the last snapshot
+         * @param value new value
+         */
+        public void set(int value) {
+            if (epoch != log.epoch) {
+                log.record(this, this.value, null, 0);
+                epoch = log.epoch;
+            }
+            this.value = value;
+        }
+
+        /**
+         * Add to value
+         * @param delta amount to add
+         */
+        public void add(int delta) {
+            set(value + delta);
+        }
+
+        @Override
+        void undo(long value, Object object, int index) {
+            this.value = (int) value;
+        }
+
+        @Override
+        public String toString() {
+            return Integer.toString(value);
+        }
+    }
+
+    // A long held by an undo log, also suited to bit sets such as hands of cards
+    //
+    public static final class LongCell extends Cell {
+
+        private long value;
+        private long epoch;
+
+        private LongCell(UndoLog log, long value) {
+            super(log);
+            this.value = value;
+            this.epoch = log.epoch;
+        }
+
+        /**
+         * Return value
+         * @return value
+         */
+        public long get() {
+            return value;
+        }
+
+        /**
+         * Set value, recording the old value if this is the first change since the last snapshot
+         * @param value new value
+         */
+        public void set(long value) {
+            if (epoch != log.epoch) {
+                log.record(this, this.value, null, 0);
+                epoch = log.epoch;
+            }
+            this.value = value;
+        }
+
+        /**
+         * Add to value
+         * @param delta amount to add
+         */
+        public void add(long delta) {
+            set(value + delta);
+        }
+
+        @Override
+        void undo(long value, Object object, int index) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return Long.toString(value);
+        }
+    }
+
+    // An immutable value held by an undo log
+    //
+    public static final class ValueCell<T> extends Cell {
+
+        private T value;
+        private long epoch;
+
+        private ValueCell(UndoLog log, T value) {
+            super(log);
+            this.value = value;
+            this.epoch = log.epoch;
+        }
+
+        /**
+         * Return value
+         * @return value
+         */
+        public T get() {
+            return value;
+        }
+
+        /**
+         * Set value, recording the old value if this is the first change since the last snapshot
+         * @param value new value
+         */
+        public void set(T value) {
+            if (epoch != log.epoch) {
+                log.record(this, 0, this.value, 0);
+                epoch = log.epoch;
+            }
+            this.value = value;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void undo(long value, Object object, int index) {
+            this.value = (T) object;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+
+    // An int array held by an undo log, recording each element separately
+    //
+    public static final class IntArrayCell extends Cell {
+
+        private final int[] values;
+        private final long[] epochs;
+
+        private IntArrayCell(UndoLog log, int length) {
+            super(log);
+            this.values = new int[length];
+            this.epochs = new long[length];
+            Arrays.fill(epochs, log.epoch);
+        }
+
+        /**
+         * Return number of elements
+         * @return number of elements
+         */
+        public int length() {
+            return values.length;
+        }
+
+        /**
+         * Return an element
+         * @param index element index
+         * @return element value
+         */
+        public int get(int index) {
+            return values[index];
+        }
+
+        /**
+         * Set an element, recording the old value if this is the element's first change since the last snapshot
+         * @param index element index
+         * @param value new value
+         */
+        public void set(int index, int value) {
+            if (epochs[index] != log.epoch) {
+                log.record(this, values[index], null, index);
+                epochs[index] = log.epoch;
+            }
+            values[index] = value;
+        }
+
+        /**
+         * Add to an element
+         * @param index element index
+         * @param delta amount to add
+         */
+        public void add(int index, int delta) {
+            set(index, values[index] + delta);
+        }
+
+        @Override
+        void undo(long value, Object object, int index) {
+            values[index] = (int) value;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(values);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.Random;
+
+/**
+ * A play choice holding a weight for each option, where options are identified by small non-negative ids
+ * ex: A card game can use the card number as the option id, and strategies weigh the cards in hand
+ *
+ * Weights are kept in primitive arrays, so weighing options allocates nothing.  When an option is weighed more than
+ * once, the weights are combined by adding, taking the maximum, or multiplying.  The first weight of an option is
+ * taken as is.  Options are remembered in the order they were first weighed, and ties are broken in that order.
+ *
+ * This class is mutable and not thread-safe.  Clear and reuse a choice rather than creating one per decision.
+ */
+public class WeightedPlayChoice implements MergeablePlayChoice {
+
+    /**
+     * How weights are combined when an option is weighed more than once
+     */
+    public enum Combine {
+        ADD,
+        MAX,
+        MULTIPLY
+    }
+
+    private final int capacity;
+    private final Combine combine;
+
+    // sparse set: options in the order first weighed, and the position of each option id
+    private final int[] options;
+    private final int[] positions;
+    private final double[] weights;
+    private int size = 0;
+
+    // working space for top-k selection
+    private int[] scratch;
+
+    // partial reused by scaled strategies weighing into this choice
+    private WeightedPlayChoice scaledPartial;
+
+    /**
+     * Construct a choice that adds weights
+     * @param capacity option ids are 0..capacity-1
+     */
+    public WeightedPlayChoice(int capacity) {
+        this(capacity, Combine.ADD);
+    }
+
+    /**
+     * Construct a choice
+     * @param capacity option ids are 0..capacity-1
+     * @param combine how weights are combined
+     */
+    public WeightedPlayChoice(int capacity, Combine combine) {
+        this.capacity = capacity;
+        this.combine = combine;
+        this.options = new int[capacity];
+        this.positions = new int[capacity];
+        this.weights = new double[capacity];
+    }
+
+    /**
+     * Return how weights are combined
+     * @return combine
+     */
+    public Combine getCombine() {
+        return combine;
+    }
+
+    /**
+     * Return the number of option ids
+     * @return capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Return number of options weighed
+     * @return number of options
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Return an option, by position in the order options were first weighed
+     * @param position position of option
+     * @return option id
+     */
+    public int getOption(int position) {
+        return options[position];
+    }
+
+    /**
+     * Return a weight, by position in the order options were first weighed
+     * @param position position of option
+     * @return weight
+     */
+    public double getWeightAt(int position) {
+        return weights[position];
+    }
+
+    /**
+     * Return true if an option has been weighed
+     * @param option option id
+     * @return true if weighed
+     */
+    public boolean contains(int option) {
+        int position = positions[option];
+        return position < size && options[position] == option;
+    }
+
+    /**
+     * Return the weight of an option
+     * @param option option id
+     * @return weight, or 0 if the option has not been weighed
+     */
+    public double getWeight(int option) {
+        return contains(option) ? weights[positions[option]] : 0.0;
+    }
+
+    /**
+     * Weigh an option, combining with any earlier weight
+     * @param option option id
+     * @param weight weight
+     */
+    public void weigh(int option, double weight) {
+        if (!contains(option)) {
+            positions[option] = size;
+            options[size] = option;
+            weights[size++] = weight;
+            return;
+        }
+        int position = positions[option];
+        switch (combine) {
+            case ADD:
+                weights[position] += weight;
+                break;
+            case MAX:
+                weights[position] = Math.max(weights[position], weight);
+                break;
+            default:
+                weights[position] *= weight;
+                break;
+        }
+    }
+
+    /**
+     * Forget all weights, so this choice can be reused
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Return the option with the highest weight
+     * @return option id, or -1 if no options have been weighed
+     */
+    public int argmax() {
+        int best = -1;
+        for (int position = 0; position < size; ++position) {
+            if (best < 0 || weights[position] > weights[best]) {
+                best = position;
+            }
+        }
+        return best < 0 ? -1 : options[best];
+    }
+
+    /**
+     * Fill the passed array with the options of highest weight, highest first
+     * @param k number of options wanted
+     * @param best filled with option ids, must hold at least min(k, size) ids
+     * @return number of options filled
+     */
+    public int topK(int k, int[] best) {
+        int count = Math.min(k, size);
+        if (count <= 0) {
+            return 0;
+        }
+
+        // select the best positions into the front of scratch, then order them
+        if (scratch == null) {
+            scratch = new int[capacity];
+        }
+        for (int position = 0; position < size; ++position) {
+            scratch[position] = position;
+        }
+        if (count < size) {
+            select(count);
+        }
+        for (int i = 1; i < count; ++i) {
+            int position = scratch[i];
+            int j = i - 1;
+            for (; j >= 0 && before(position, scratch[j]); --j) {
+                scratch[j + 1] = scratch[j];
+            }
+            scratch[j + 1] = position;
+        }
+        for (int i = 0; i < count; ++i) {
+            best[i] = options[scratch[i]];
+        }
+        return count;
+    }
+
+    /**
+     * Partition scratch so its first count positions are the best, in expected linear time
+     * @param count number of best positions wanted
+     */
+    private void select(int count) {
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+
+            // median-of-three pivot, moved to the high end
+            int middle = (low + high) >>> 1;
+            if (before(scratch[middle], scratch[low])) {
+                swap(middle, low);
+            }
+            if (before(scratch[high], scratch[low])) {
+                swap(high, low);
+            }
+            if (before(scratch[middle], scratch[high])) {
+                swap(middle, high);
+            }
+            int pivot = scratch[high];
+
+            // positions better than the pivot go to the front
+            int store = low;
+            for (int i = low; i < high; ++i) {
+                if (before(scratch[i], pivot)) {
+                    swap(i, store++);
+                }
+            }
+            swap(store, high);
+
+            if (store == count - 1 || store == count) {
+                return;
+            }
+            if (store < count) {
+                low = store + 1;
+            } else {
+                high = store - 1;
+            }
+        }
+    }
+
+    /**
+     * Return true if the first position ranks ahead of the second: higher weight, then weighed earlier
+     * @param first first position
+     * @param second second position
+     * @return true if first ranks ahead
+     */
+    private boolean before(int first, int second) {
+        return weights[first] > weights[second] || (weights[first] == weights[second] && first < second);
+    }
+
+    /**
+     * Swap two entries of scratch
+     * @param i first index
+     * @param j second index
+     */
+    private void swap(int i, int j) {
+        int position = scratch[i];
+        scratch[i] = scratch[j];
+        scratch[j] = position;
+    }
+
+    /**
+     * Pick an option at random, with probability by softmax of weights
+     * @param temperature higher is more random, 0 or less always picks the highest weight
+     * @param random source of randomness
+     * @return option id, or -1 if no options have been weighed
+     */
+    public int sample(double temperature, Random random) {
+        if (size == 0 || temperature <= 0.0) {
+            return argmax();
+        }
+        return sample(temperature, random.nextDouble());
+    }
+
+    /**
+     * Pick an option at random, with probability by softmax of weights, drawing from a game's random
+     * @param temperature higher is more random, 0 or less always picks the highest weight
+     * @param random source of randomness
+     * @return option id, or -1 if no options have been weighed
+     */
+    public int sample(double temperature, GameRandom random) {
+        if (size == 0 || temperature <= 0.0) {
+            return argmax();
+        }
+        return sample(temperature, random.nextDouble());
+    }
+
+    /**
+     * Pick an option, with probability by softmax of weights
+     * @param temperature higher is more random, positive
+     * @param uniform uniformly random from 0 up to 1
+     * @return option id
+     */
+    private int sample(double temperature, double uniform) {
+
+        // subtract the highest weight, so exponents cannot overflow
+        double max = Double.NEGATIVE_INFINITY;
+        for (int position = 0; position < size; ++position) {
+            max = Math.max(max, weights[position]);
+        }
+        double total = 0.0;
+        for (int position = 0; position < size; ++position) {
+            total += Math.exp((weights[position] - max) / temperature);
+        }
+
+        // walk the options until the running total passes the target
+        double target = uniform * total;
+        for (int position = 0; position < size; ++position) {
+            target -= Math.exp((weights[position] - max) / temperature);
+            if (target < 0.0) {
+                return options[position];
+            }
+        }
+        return options[size - 1];
+    }
+
+    /**
+     * Return a new, empty choice with the same capacity and combine
+     * @return empty partial choice
+     */
+    @Override
+    public WeightedPlayChoice newPartial() {
+        return new WeightedPlayChoice(capacity, combine);
+    }
+
+    /**
+     * Return a cleared partial choice owned by this choice, reused on every call
+     * A scaled strategy weighs into it before merging it back scaled.  Nested scaled strategies each weigh into the
+     * partial of the choice they were handed, so they never share one.
+     * @return empty partial choice
+     */
+    WeightedPlayChoice getScaledPartial() {
+        if (scaledPartial == null) {
+            scaledPartial = newPartial();
+        }
+        scaledPartial.clear();
+        return scaledPartial;
+    }
+
+    /**
+     * Weigh every option of a partial choice into this choice
+     * @param partial partial choice, created by newPartial
+     */
+    @Override
+    public void merge(MergeablePlayChoice partial) {
+        WeightedPlayChoice weighted = (WeightedPlayChoice) partial;
+        for (int position = 0; position < weighted.size; ++position) {
+            weigh(weighted.options[position], weighted.weights[position]);
+        }
+    }
+
+    /**
+     * Weigh every option of a partial choice into this choice, scaling each weight, ex: by a tuned strategy weight
+     * @param partial partial choice
+     * @param scale multiplies each weight of the partial choice
+     */
+    public void merge(WeightedPlayChoice partial, double scale) {
+        for (int position = 0; position < partial.size; ++position) {
+            weigh(partial.options[position], partial.weights[position] * scale);
+        }
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int position = 0; position < size; ++position) {
+            builder.append(position == 0 ? "" : ", ").append(options[position]).append('=').append(weights[position]);
+        }
+        return String.format("WeightedPlayChoice: Combine=%s, Weights={%s}", combine, builder);
+    }
+}
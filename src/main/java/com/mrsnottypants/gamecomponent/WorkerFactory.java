@@ -0,0 +1,24 @@
+package com.mrsnottypants.gamecomponent;
+
+/**
+ * To create the games a simulation worker plays, and to write each game's result compactly
+ *
+ * Workers create their factory by class name, so implementations need a no-argument constructor, or must be an enum
+ * whose first constant is the factory.
+ */
+public interface WorkerFactory {
+
+    /**
+     * Return a game factory seating the players of a configuration
+     * @param configuration configuration index, ex: which strategy mix the players use
+     * @return game factory
+     */
+    GameFactory newGameFactory(int configuration);
+
+    /**
+     * Write the result of a finished game, ex: each player's score
+     * @param gameState final state of the game
+     * @param writer writes the result
+     */
+    void writeResult(GameState gameState, BinaryWriter writer);
+}
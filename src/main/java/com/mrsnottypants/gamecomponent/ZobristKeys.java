@@ -0,0 +1,112 @@
+package com.mrsnottypants.gamecomponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for the features of a game's state, for Zobrist hashing
+ *
+ * Each feature of the state, ex: the card in each hand position, a score bucket, or the current round, is registered
+ * with the number of values it can take, and gets a random 64-bit key per value.  A state's hash is the XOR of the
+ * keys of its feature values, so changing a feature updates the hash in O(1): XOR out the old value's key and XOR in
+ * the new value's key.
+ *
+ * Keys come from a seed, so every process registering the same features in the same order gets the same keys.
+ * Register features during setup; once registered, features are immutable and may be shared across threads.
+ */
+public class ZobristKeys {
+
+    private final SplittableRandom random;
+    private final List<Feature> features = new ArrayList<>();
+
+    /**
+     * Construct keys from a seed
+     * @param seed seed of the random keys
+     */
+    public ZobristKeys(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Register a feature, drawing a key for each of its values
+     * @param valueCount number of values the feature can take, from 0 to valueCount - 1
+     * @return feature
+     */
+    public synchronized Feature feature(int valueCount) {
+        if (valueCount < 1) {
+            throw new IllegalArgumentException(String.format("Value count must be positive: %d", valueCount));
+        }
+        long[] keys = new long[valueCount];
+        for (int value = 0; value < valueCount; ++value) {
+            keys[value] = random.nextLong();
+        }
+        Feature feature = new Feature(features.size(), keys);
+        features.add(feature);
+        return feature;
+    }
+
+    /**
+     * Return the number of features registered
+     * @return feature count
+     */
+    public synchronized int size() {
+        return features.size();
+    }
+
+    /**
+     * Return friendly string description
+     * @return description
+     */
+    @Override
+    public synchronized String toString() {
+        return String.format("ZobristKeys: Features=%d", features.size());
+    }
+
+    // A feature of the state, with a random key per value
+    //
+    public static final class Feature {
+
+        private final int id;
+        private final long[] keys;
+
+        private Feature(int id, long[] keys) {
+            this.id = id;
+            this.keys = keys;
+        }
+
+        /**
+         * Return the order this feature was registered in
+         * @return feature id
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Return the number of values this feature can take
+         * @return value count
+         */
+        public int getValueCount() {
+            return keys.length;
+        }
+
+        /**
+         * Return the key of a value
+         * @param value value of the feature
+         * @return 64-bit key
+         */
+        public long key(int value) {
+            return keys[value];
+        }
+
+        /**
+         * Return friendly string description
+         * @return description
+         */
+        @Override
+        public String toString() {
+            return String.format("Feature: Id=%d, Values=%d", id, keys.length);
+        }
+    }
+}
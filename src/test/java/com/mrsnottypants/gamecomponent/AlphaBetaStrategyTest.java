@@ -0,0 +1,282 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class AlphaBetaStrategyTest {
+
+    // take 1 to 3 stones, taking the last stone wins
+    private static final int MAX_TAKE = 3;
+
+    // pile of stones and whose turn it is, held in an undo log, hashed by both
+    //
+    private static class NimState implements GameState, Restorable, HashedState {
+
+        private final UndoLog undoLog = new UndoLog();
+        private final UndoLog.IntCell pile;
+        private final UndoLog.IntCell toMove = undoLog.newInt(0);
+        private final UndoLog.IntCell winner = undoLog.newInt(-1);
+
+        NimState(int pile) {
+            this.pile = undoLog.newInt(pile);
+        }
+
+        void take(int stones) {
+            pile.add(-stones);
+            if (pile.get() == 0) {
+                winner.set(toMove.get());
+            }
+            toMove.set(1 - toMove.get());
+        }
+
+        @Override
+        public long getHash() {
+            return pile.get() * 2L + toMove.get();
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return pile.get() == 0;
+        }
+
+        @Override
+        public int snapshot() {
+            return undoLog.snapshot();
+        }
+
+        @Override
+        public void restore(int snapshot) {
+            undoLog.restore(snapshot);
+        }
+    }
+
+    // moves are the number of stones taken
+    //
+    private enum NimModel implements SearchModel<NimState> {
+
+        INSTANCE;
+
+        @Override
+        public int getMoveCapacity() {
+            return MAX_TAKE + 1;
+        }
+
+        @Override
+        public int getPlayerCount() {
+            return 2;
+        }
+
+        @Override
+        public int getMoves(NimState state, int[] moves) {
+            int count = 0;
+            for (int take = 1; take <= Math.min(MAX_TAKE, state.pile.get()); ++take) {
+                moves[count++] = take;
+            }
+            return count;
+        }
+
+        @Override
+        public void applyMove(NimState state, int move) {
+            state.take(move);
+        }
+
+        @Override
+        public int getPlayerToMove(NimState state) {
+            return state.toMove.get();
+        }
+
+        @Override
+        public double getReward(NimState state, int player) {
+            return state.winner.get() == player ? 1.0 : state.winner.get() < 0 ? 0.5 : 0.0;
+        }
+
+        @Override
+        public NimState copyState(NimState state) {
+            NimState copy = new NimState(state.pile.get());
+            copy.toMove.set(state.toMove.get());
+            return copy;
+        }
+    }
+
+    // bank a sure score, or roll a die for a score of its pips over 6
+    //
+    private static class DiceState implements GameState, Restorable {
+
+        private final UndoLog undoLog = new UndoLog();
+        private final UndoLog.IntCell phase = undoLog.newInt(0);
+        private final UndoLog.IntCell pips = undoLog.newInt(0);
+
+        @Override
+        public boolean isGameOver() {
+            return phase.get() == 2;
+        }
+
+        @Override
+        public int snapshot() {
+            return undoLog.snapshot();
+        }
+
+        @Override
+        public void restore(int snapshot) {
+            undoLog.restore(snapshot);
+        }
+    }
+
+    // move 0 banks, move 1 rolls, then moves 1 to 6 are the pips rolled, the 6 twice as likely as each other
+    //
+    private static class DiceModel implements SearchModel<DiceState> {
+
+        private final double bank;
+
+        DiceModel(double bank) {
+            this.bank = bank;
+        }
+
+        @Override
+        public int getMoveCapacity() {
+            return 7;
+        }
+
+        @Override
+        public int getPlayerCount() {
+            return 1;
+        }
+
+        @Override
+        public int getMoves(DiceState state, int[] moves) {
+            if (state.phase.get() == 0) {
+                moves[0] = 0;
+                moves[1] = 1;
+                return 2;
+            }
+            for (int pips = 1; pips <= 6; ++pips) {
+                moves[pips - 1] = pips;
+            }
+            return 6;
+        }
+
+        @Override
+        public void applyMove(DiceState state, int move) {
+            if (state.phase.get() == 1 || move == 0) {
+                state.pips.set(move);
+                state.phase.set(2);
+            } else {
+                state.phase.set(1);
+            }
+        }
+
+        @Override
+        public boolean isChance(DiceState state) {
+            return state.phase.get() == 1;
+        }
+
+        @Override
+        public double getChance(DiceState state, int move, int moveCount) {
+            return move == 6 ? 2.0 / 7.0 : 1.0 / 7.0;
+        }
+
+        @Override
+        public int getPlayerToMove(DiceState state) {
+            return 0;
+        }
+
+        @Override
+        public double getReward(DiceState state, int player) {
+            return state.phase.get() != 2 ? 0.0 : state.pips.get() == 0 ? bank : state.pips.get() / 6.0;
+        }
+
+        @Override
+        public DiceState copyState(DiceState state) {
+            DiceState copy = new DiceState();
+            copy.phase.set(state.phase.get());
+            copy.pips.set(state.pips.get());
+            return copy;
+        }
+    }
+
+    @Test
+    public void testSearch() {
+
+        // from 5 stones, taking 1 leaves the opponent a losing 4
+        AlphaBetaStrategy<NimState> strategy = new AlphaBetaStrategy.Builder<>(NimModel.INSTANCE)
+                .maxDepth(8)
+                .build();
+        NimState nimState = new NimState(5);
+        WeightedPlayChoice playChoice = new WeightedPlayChoice(NimModel.INSTANCE.getMoveCapacity());
+        strategy.consider(null, nimState, playChoice);
+        Assert.assertEquals(1, playChoice.argmax());
+        Assert.assertEquals(3, playChoice.size());
+        Assert.assertEquals(1.0, playChoice.getWeight(1), 0.0);
+
+        // the state searched from is not changed
+        Assert.assertEquals(5, nimState.pile.get());
+        Assert.assertEquals(0, nimState.toMove.get());
+    }
+
+    @Test
+    public void testParallelSearchWithTable() {
+
+        // from 41 stones, taking 1 leaves the opponent a losing 40: too deep to search without the table
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            AlphaBetaStrategy<NimState> strategy = new AlphaBetaStrategy.Builder<>(NimModel.INSTANCE)
+                    .threads(4)
+                    .executor(executor)
+                    .transpositionTable(1 << 12)
+                    .build();
+            for (int pile = 41; pile <= 43; ++pile) {
+                WeightedPlayChoice playChoice = new WeightedPlayChoice(NimModel.INSTANCE.getMoveCapacity());
+                strategy.consider(null, new NimState(pile), playChoice);
+                Assert.assertEquals(pile % 4, playChoice.argmax());
+                Assert.assertEquals(1.0, playChoice.getWeight(pile % 4), 0.0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void testTimeBudget() {
+
+        // without a table, 60 stones cannot be searched to the end, the deepest search completed is used
+        AlphaBetaStrategy<NimState> strategy = new AlphaBetaStrategy.Builder<>(NimModel.INSTANCE)
+                .timeBudget(50, TimeUnit.MILLISECONDS)
+                .build();
+        WeightedPlayChoice playChoice = new WeightedPlayChoice(NimModel.INSTANCE.getMoveCapacity());
+        long start = System.nanoTime();
+        strategy.consider(null, new NimState(60), playChoice);
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        Assert.assertEquals(3, playChoice.size());
+    }
+
+    @Test
+    public void testChance() {
+
+        // rolling is worth (1 + 2 + 3 + 4 + 5 + 2 * 6) / 7 / 6 = 27 / 42
+        WeightedPlayChoice playChoice = new WeightedPlayChoice(7);
+        new AlphaBetaStrategy.Builder<>(new DiceModel(0.6)).build().consider(null, new DiceState(), playChoice);
+        Assert.assertEquals(1, playChoice.argmax());
+        Assert.assertEquals(27.0 / 42.0, playChoice.getWeight(1), 1e-12);
+
+        // a better sure score is banked
+        playChoice.clear();
+        new AlphaBetaStrategy.Builder<>(new DiceModel(0.7)).build().consider(null, new DiceState(), playChoice);
+        Assert.assertEquals(0, playChoice.argmax());
+        Assert.assertEquals(0.7, playChoice.getWeight(0), 1e-12);
+    }
+
+    @Test
+    public void testGameOver() {
+
+        // nothing to weigh once the game is over
+        AlphaBetaStrategy<NimState> strategy = new AlphaBetaStrategy.Builder<>(NimModel.INSTANCE).build();
+        WeightedPlayChoice playChoice = new WeightedPlayChoice(NimModel.INSTANCE.getMoveCapacity());
+        strategy.consider(null, new NimState(0), playChoice);
+        Assert.assertEquals(0, playChoice.size());
+        Assert.assertNotNull(strategy.toString());
+    }
+}
@@ -0,0 +1,67 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+public class BinaryCodecTest {
+
+    @Test
+    public void testRoundTrip() {
+        BinaryWriter writer = new BinaryWriter(16)
+                .writeVarInt(0)
+                .writeVarInt(127)
+                .writeVarInt(Integer.MAX_VALUE)
+                .writeVarInt(-1)
+                .writeSignedVarInt(-1)
+                .writeSignedVarInt(Integer.MIN_VALUE)
+                .writeVarLong(Long.MAX_VALUE)
+                .writeSignedVarLong(Long.MIN_VALUE)
+                .writeLong(0x0123456789ABCDEFL)
+                .writeDouble(Math.PI)
+                .writeBoolean(true)
+                .writeByte(200)
+                .writeString("trump \u2660")
+                .writeIntArray(new int[] {3, -7, 1 << 20});
+        ByteBuffer buffer = writer.getBuffer();
+        buffer.flip();
+
+        BinaryReader reader = new BinaryReader(buffer);
+        Assert.assertEquals(0, reader.readVarInt());
+        Assert.assertEquals(127, reader.readVarInt());
+        Assert.assertEquals(Integer.MAX_VALUE, reader.readVarInt());
+        Assert.assertEquals(-1, reader.readVarInt());
+        Assert.assertEquals(-1, reader.readSignedVarInt());
+        Assert.assertEquals(Integer.MIN_VALUE, reader.readSignedVarInt());
+        Assert.assertEquals(Long.MAX_VALUE, reader.readVarLong());
+        Assert.assertEquals(Long.MIN_VALUE, reader.readSignedVarLong());
+        Assert.assertEquals(0x0123456789ABCDEFL, reader.readLong());
+        Assert.assertEquals(Math.PI, reader.readDouble(), 0.0);
+        Assert.assertTrue(reader.readBoolean());
+        Assert.assertEquals(200, reader.readByte());
+        Assert.assertEquals("trump \u2660", reader.readString());
+        Assert.assertArrayEquals(new int[] {3, -7, 1 << 20}, reader.readIntArray());
+        Assert.assertFalse(reader.hasRemaining());
+    }
+
+    @Test
+    public void testCompact() {
+
+        // small values take a byte, small negative values too when signed
+        BinaryWriter writer = new BinaryWriter(ByteBuffer.allocate(3));
+        writer.writeVarInt(100).writeSignedVarInt(-60).writeSignedVarInt(60);
+        Assert.assertEquals(3, writer.position());
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testOverflow() {
+        new BinaryWriter(ByteBuffer.allocate(4)).writeLong(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMalformed() {
+        new BinaryReader(ByteBuffer.wrap(new byte[] {-1, -1, -1, -1, -1, -1})).readVarInt();
+    }
+}
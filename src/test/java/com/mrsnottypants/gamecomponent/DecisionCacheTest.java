@@ -0,0 +1,136 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DecisionCacheTest {
+
+    // weighs the option matching its key, counting how often it is considered
+    //
+    private static class CountingStrategy implements PlayStrategy {
+
+        private final AtomicInteger considered = new AtomicInteger();
+
+        @Override
+        public void consider(PlayerState playerState, GameState gameState, PlayChoice playChoice) {
+            considered.incrementAndGet();
+            WeightedPlayChoice.class.cast(playChoice).weigh(Integer.parseInt(playerState.getName()), 1.0);
+        }
+    }
+
+    // player state holding just a name
+    //
+    private static PlayerState named(String name) {
+        return new PlayerState() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public int getScore() {
+                return 0;
+            }
+        };
+    }
+
+    @Test
+    public void testLeastRecentlyUsed() {
+
+        // a single segment evicts the least recently used entry
+        DecisionCache cache = new DecisionCache(2, 1);
+        WeightedPlayChoice one = new WeightedPlayChoice(4);
+        WeightedPlayChoice two = new WeightedPlayChoice(4);
+        cache.put("one", one);
+        cache.put("two", two);
+        Assert.assertSame(one, cache.get("one"));
+        cache.put("three", new WeightedPlayChoice(4));
+        Assert.assertNull(cache.get("two"));
+        Assert.assertSame(one, cache.get("one"));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictions());
+        Assert.assertEquals(2, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(2.0 / 3.0, cache.getHitRate(), 1e-9);
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCachingStrategy() {
+        CountingStrategy strategy = new CountingStrategy();
+        CachingStrategy caching = new CachingStrategy(strategy,
+                (playerState, gameState) -> playerState.getName(), new DecisionCache(64));
+
+        // a replayed choice matches considering the strategy
+        for (int repeat = 0; repeat < 3; ++repeat) {
+            WeightedPlayChoice playChoice = new WeightedPlayChoice(4);
+            playChoice.weigh(2, 1.0);
+            caching.consider(named("2"), null, playChoice);
+            caching.consider(named("3"), null, playChoice);
+            Assert.assertEquals(2.0, playChoice.getWeight(2), 0.0);
+            Assert.assertEquals(1.0, playChoice.getWeight(3), 0.0);
+        }
+        Assert.assertEquals(2, strategy.considered.get());
+        Assert.assertEquals(4, caching.getCache().getHits());
+    }
+
+    @Test
+    public void testSharedCache() {
+
+        // two strategies sharing a cache each consider their own choices
+        DecisionCache cache = new DecisionCache(64);
+        CountingStrategy first = new CountingStrategy();
+        CountingStrategy second = new CountingStrategy();
+        CachingStrategy firstCaching = new CachingStrategy(first,
+                (playerState, gameState) -> playerState.getName(), cache);
+        CachingStrategy secondCaching = new CachingStrategy(second,
+                (playerState, gameState) -> playerState.getName(), cache);
+        firstCaching.consider(named("1"), null, new WeightedPlayChoice(4));
+        secondCaching.consider(named("1"), null, new WeightedPlayChoice(4));
+        Assert.assertEquals(1, first.considered.get());
+        Assert.assertEquals(1, second.considered.get());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullKey() {
+        new CachingStrategy(new CountingStrategy(), (playerState, gameState) -> null, new DecisionCache(4))
+                .consider(named("1"), null, new WeightedPlayChoice(4));
+    }
+
+    @Test
+    public void testSharedAcrossThreads() throws Exception {
+        CountingStrategy strategy = new CountingStrategy();
+        CachingStrategy caching = new CachingStrategy(strategy,
+                (playerState, gameState) -> playerState.getName(), new DecisionCache(1024));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int thread = 0; thread < futures.length; ++thread) {
+                futures[thread] = executor.submit(() -> {
+                    for (int i = 0; i < 10_000; ++i) {
+                        WeightedPlayChoice playChoice = new WeightedPlayChoice(64);
+                        caching.consider(named(Integer.toString(i % 64)), null, playChoice);
+                        Assert.assertEquals(1.0, playChoice.getWeight(i % 64), 0.0);
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // racing misses may consider a key more than once, but never for long
+        Assert.assertTrue(strategy.considered.get() < 64 * 4 + 1);
+        Assert.assertEquals(40_000, caching.getCache().getHits() + caching.getCache().getMisses());
+    }
+}
@@ -0,0 +1,90 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DeckTest {
+
+    @Test
+    public void testDeal() {
+        Deck deck = new Deck();
+        Assert.assertEquals(52, deck.size());
+        Assert.assertEquals(Hand.FULL, deck.undealt());
+
+        // an unshuffled deck deals in order
+        Assert.assertEquals(0, deck.peek());
+        Assert.assertEquals(0, deck.deal());
+        Assert.assertEquals(Hand.of(1, 2, 3), deck.dealHand(3));
+        Assert.assertEquals(48, deck.remaining());
+        Assert.assertEquals(Hand.FULL & ~Hand.of(0, 1, 2, 3), deck.undealt());
+
+        deck.dealHand(48);
+        Assert.assertTrue(deck.isEmpty());
+        try {
+            deck.deal();
+            Assert.fail("Dealt from an empty deck");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+
+        try {
+            deck.dealHand(1);
+            Assert.fail("Dealt a hand from an empty deck");
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+
+        deck.reset();
+        Assert.assertEquals(52, deck.remaining());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDealNegativeHand() {
+        new Deck().dealHand(-1);
+    }
+
+    @Test
+    public void testShuffle() {
+
+        // a shuffle is a permutation, and the same seed shuffles the same way
+        Deck first = new Deck().shuffle(new GameRandom(5));
+        Deck second = new Deck().shuffle(new GameRandom(5));
+        long dealt = Hand.EMPTY;
+        boolean moved = false;
+        for (int index = 0; index < 52; ++index) {
+            int card = first.deal();
+            Assert.assertEquals(card, second.deal());
+            Assert.assertFalse(Hand.contains(dealt, card));
+            dealt = Hand.add(dealt, card);
+            moved |= card != index;
+        }
+        Assert.assertEquals(Hand.FULL, dealt);
+        Assert.assertTrue(moved);
+
+        // shuffling only moves the cards not yet dealt
+        Deck deck = new Deck(new int[] {7, 8, 9, 10, 11, 12});
+        Assert.assertEquals(7, deck.deal());
+        long rest = deck.undealt();
+        deck.shuffle(new GameRandom(6));
+        Assert.assertEquals(rest, deck.undealt());
+        Assert.assertEquals(7, deck.reset().peek());
+    }
+
+    @Test
+    public void testShuffleIsUniform() {
+
+        // each of the 6 orders of 3 cards comes up about as often
+        int[] orders = new int[6];
+        GameRandom random = new GameRandom(7);
+        Deck deck = new Deck(3);
+        for (int i = 0; i < 60_000; ++i) {
+            deck.reset().shuffle(random);
+            int first = deck.deal();
+            int second = deck.deal();
+            ++orders[first * 2 + (second > first ? second - 1 : second)];
+        }
+        for (int count : orders) {
+            Assert.assertTrue(count > 9_500 && count < 10_500);
+        }
+    }
+}
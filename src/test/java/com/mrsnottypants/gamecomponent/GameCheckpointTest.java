@@ -0,0 +1,123 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameCheckpointTest {
+
+    // deals a deck a few times
+    //
+    private static class DeckState implements GameState {
+
+        private int deckSize = 0;
+        private int dealtCount = 0;
+        private int lapCount = 0;
+
+        @Override
+        public boolean isGameOver() {
+            return lapCount >= 3;
+        }
+    }
+
+    // writes every field of a deck state, in order
+    //
+    private enum DeckCodec implements StateCodec<DeckState> {
+
+        INSTANCE;
+
+        @Override
+        public void write(DeckState state, BinaryWriter writer) {
+            writer.writeVarInt(state.deckSize).writeVarInt(state.dealtCount).writeVarInt(state.lapCount);
+        }
+
+        @Override
+        public DeckState read(BinaryReader reader) {
+            DeckState state = new DeckState();
+            state.deckSize = reader.readVarInt();
+            state.dealtCount = reader.readVarInt();
+            state.lapCount = reader.readVarInt();
+            return state;
+        }
+    }
+
+    private static final DirectGameRound SHUFFLE_ROUND = gameState -> {
+        DeckState.class.cast(gameState).deckSize = 5;
+        return null;
+    };
+
+    private static final DirectGameRound LAP_ROUND = gameState -> {
+        ++DeckState.class.cast(gameState).lapCount;
+        return null;
+    };
+
+    private static final DirectGameRound DEAL_ROUND = new DirectGameRound() {
+        @Override
+        public DirectGameRound performDirect(GameState gameState) {
+            DeckState deckState = DeckState.class.cast(gameState);
+            if (deckState.deckSize == 0) {
+                return LAP_ROUND;
+            }
+            --deckState.deckSize;
+            ++deckState.dealtCount;
+            return this;
+        }
+    };
+
+    @Test
+    public void testResume() {
+        for (boolean compiled : new boolean[] {false, true}) {
+
+            // checkpoint every 3 rounds while playing
+            List<byte[]> checkpoints = new ArrayList<>();
+            GameCheckpoint<DeckState> checkpoint = new GameCheckpoint<>(DeckCodec.INSTANCE, 3, (state, bytes) -> {
+                byte[] copy = new byte[bytes.remaining()];
+                bytes.get(copy);
+                checkpoints.add(copy);
+            });
+            Game.Builder builder = new Game.Builder()
+                    .addGameRound(SHUFFLE_ROUND)
+                    .addGameRound(DEAL_ROUND)
+                    .addSpawnableRound(LAP_ROUND)
+                    .addListener(checkpoint);
+            Game game = compiled ? builder.compile().build() : builder.build();
+            DeckState played = new DeckState();
+            long rounds = game.play(played, Long.MAX_VALUE);
+            int count = checkpoints.size();
+            Assert.assertEquals(rounds / 3, count);
+
+            // resuming from any checkpoint finishes the game the same way
+            for (int index = 0; index < count; ++index) {
+                GameCursor cursor = GameCheckpoint.read(game, DeckCodec.INSTANCE,
+                        new BinaryReader(ByteBuffer.wrap(checkpoints.get(index))));
+                Assert.assertEquals(rounds - 3 * (index + 1), cursor.step(Long.MAX_VALUE));
+                DeckState resumed = DeckState.class.cast(cursor.getGameState());
+                Assert.assertEquals(played.dealtCount, resumed.dealtCount);
+                Assert.assertEquals(played.lapCount, resumed.lapCount);
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnregisteredSpawn() {
+
+        // the lap round is spawned without being registered, so a checkpoint could not resume it
+        Game game = new Game.Builder()
+                .addGameRound(SHUFFLE_ROUND)
+                .addGameRound(DEAL_ROUND)
+                .build();
+        GameCursor cursor = game.cursor(new DeckState());
+        while (cursor.getCurrentRound() != LAP_ROUND) {
+            cursor.step();
+        }
+        GameCheckpoint.write(cursor, DeckCodec.INSTANCE, new BinaryWriter(64));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadPosition() {
+        new Game.Builder().addGameRound(SHUFFLE_ROUND).build().cursor(new DeckState(), 1, RoundProgram.NEXT);
+    }
+}
@@ -0,0 +1,147 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GameEventStreamTest {
+
+    // counts rounds until game over
+    //
+    private static class CountState implements GameState {
+
+        private int count = 0;
+        private int repeats = 0;
+
+        @Override
+        public boolean isGameOver() {
+            return count >= 2;
+        }
+    }
+
+    // repeats once, then spawns the count round
+    //
+    private static class RepeatRound implements GameRound {
+
+        private final GameRound countRound = new GameRound() {
+            @Override
+            public Optional<GameRound> perform(GameState gameState) {
+                ++CountState.class.cast(gameState).count;
+                return Optional.empty();
+            }
+        };
+
+        @Override
+        public Optional<GameRound> perform(GameState gameState) {
+            CountState countState = CountState.class.cast(gameState);
+            return ++countState.repeats % 2 == 1 ? Optional.of(this) : Optional.of(countRound);
+        }
+    }
+
+    private enum Choice implements PlayStrategyType {
+        ONLY;
+
+        @Override
+        public int getKey() {
+            return ordinal();
+        }
+    }
+
+    @Test
+    public void testGameEvents() {
+        GameEventStream stream = new GameEventStream(64);
+        RepeatRound repeatRound = new RepeatRound();
+        Game game = new Game.Builder()
+                .addGameRound(repeatRound)
+                .addListener(stream)
+                .build();
+        game.play(new CountState());
+
+        // per lap: repeat, repeat then spawn, count
+        List<GameEvent.Type> types = new ArrayList<>();
+        List<GameRound> rounds = new ArrayList<>();
+        Assert.assertEquals(15, stream.drain(event -> {
+            types.add(event.getType());
+            rounds.add(event.getRound());
+        }));
+        Assert.assertEquals(GameEvent.Type.ROUND_STARTED, types.get(0));
+        Assert.assertSame(repeatRound, rounds.get(0));
+        Assert.assertEquals(GameEvent.Type.ROUND_ENDED, types.get(1));
+        Assert.assertEquals(GameEvent.Type.ROUND_SPAWNED, types.get(4));
+        Assert.assertSame(repeatRound.countRound, rounds.get(4));
+        Assert.assertEquals(GameEvent.Type.GAME_OVER, types.get(14));
+        Assert.assertEquals(0, stream.drain(event -> {}));
+    }
+
+    @Test
+    public void testConsidered() {
+        GameEventStream stream = new GameEventStream(4);
+        PlayStrategy strategy = (playerState, gameState, playChoice) -> {};
+        Player player = new Player.Builder(true)
+                .addPlayStrategy(Choice.ONLY, strategy)
+                .addListener(stream)
+                .build();
+        player.consider(Choice.ONLY, null, null, null);
+
+        List<PlayStrategy> strategies = new ArrayList<>();
+        Assert.assertEquals(1, stream.drain(event -> {
+            Assert.assertEquals(GameEvent.Type.CONSIDERED, event.getType());
+            Assert.assertSame(player, event.getPlayer());
+            Assert.assertSame(Choice.ONLY, event.getStrategyType());
+            strategies.add(event.getStrategy());
+        }));
+        Assert.assertSame(strategy, strategies.get(0));
+    }
+
+    @Test
+    public void testBackpressure() {
+
+        // capacity rounds up, and a full ring drops rather than waits
+        GameEventStream stream = new GameEventStream(3);
+        Assert.assertEquals(4, stream.getCapacity());
+        for (int i = 0; i < 6; ++i) {
+            stream.gameOver(null, i, 0);
+        }
+        Assert.assertEquals(2, stream.getDropped());
+        List<Long> values = new ArrayList<>();
+        Assert.assertEquals(2, stream.drain(event -> values.add(event.getValue()), 2));
+        stream.gameOver(null, 6, 0);
+        Assert.assertEquals(3, stream.drain(event -> values.add(event.getValue())));
+        Assert.assertEquals("[0, 1, 2, 3, 6]", values.toString());
+    }
+
+    @Test
+    public void testConcurrentPublish() throws Exception {
+        GameEventStream stream = new GameEventStream(1 << 10);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; ++thread) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; ++i) {
+                        stream.gameOver(null, 1, 0);
+                    }
+                }));
+            }
+
+            // every event is either drained or dropped
+            long drained = 0;
+            for (Future<?> future : futures) {
+                while (!future.isDone()) {
+                    drained += stream.drain(event -> Assert.assertEquals(1, event.getValue()));
+                }
+                future.get();
+            }
+            drained += stream.drain(event -> {});
+            Assert.assertEquals(40_000, drained + stream.getDropped());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
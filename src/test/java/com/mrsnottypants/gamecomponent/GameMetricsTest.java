@@ -0,0 +1,87 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GameMetricsTest {
+
+    // deals a deck a few times
+    //
+    private static class DeckState implements GameState {
+
+        private int deckSize = 0;
+        private int shuffleCount = 0;
+
+        @Override
+        public boolean isGameOver() {
+            return shuffleCount > 3 && deckSize == 0;
+        }
+    }
+
+    private static class ShuffleRound implements DirectGameRound {
+
+        @Override
+        public DirectGameRound performDirect(GameState gameState) {
+            DeckState deckState = DeckState.class.cast(gameState);
+            deckState.deckSize = 10;
+            ++deckState.shuffleCount;
+            return null;
+        }
+    }
+
+    private static class DealRound implements DirectGameRound {
+
+        @Override
+        public DirectGameRound performDirect(GameState gameState) {
+            DeckState deckState = DeckState.class.cast(gameState);
+            return --deckState.deckSize > 0 ? this : null;
+        }
+    }
+
+    private enum Choice implements PlayStrategyType {
+        ONLY;
+
+        @Override
+        public int getKey() {
+            return ordinal();
+        }
+    }
+
+    @Test
+    public void testRounds() {
+        GameMetrics metrics = new GameMetrics();
+        Game game = new Game.Builder()
+                .addGameRound(new ShuffleRound())
+                .addGameRound(new DealRound())
+                .addListener(metrics)
+                .build();
+        game.play(new DeckState());
+        game.play(new DeckState());
+
+        // each deal of 10 cards repeats 9 times
+        Assert.assertEquals(8, metrics.getRounds().get(ShuffleRound.class).getCount());
+        Assert.assertEquals(80, metrics.getRounds().get(DealRound.class).getCount());
+        Assert.assertEquals(72, metrics.getRepeats(DealRound.class));
+        Assert.assertEquals(0, metrics.getRepeats(ShuffleRound.class));
+        Assert.assertEquals(2, metrics.getRepeatsPerGame().getCount());
+        Assert.assertEquals(36, metrics.getRepeatsPerGame().getMax());
+    }
+
+    @Test
+    public void testStrategies() {
+        GameMetrics metrics = new GameMetrics();
+        PlayStrategy first = (playerState, gameState, playChoice) -> {};
+        PlayStrategy second = (playerState, gameState, playChoice) -> {};
+        Player player = new Player.Builder(true)
+                .addPlayStrategy(Choice.ONLY, first)
+                .addPlayStrategy(Choice.ONLY, second)
+                .addListener(metrics)
+                .build();
+        for (int i = 0; i < 5; ++i) {
+            player.consider(Choice.ONLY, null, null, null);
+        }
+        Assert.assertEquals(5, metrics.getStrategies().get(first).getCount());
+        Assert.assertEquals(5, metrics.getStrategies().get(second).getCount());
+        Assert.assertNotNull(metrics.toString());
+    }
+}
@@ -0,0 +1,57 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GameRandomTest {
+
+    @Test
+    public void testSplit() {
+
+        // splits depend on the seed and index, not on values drawn
+        GameRandom root = new GameRandom(7);
+        long expected = root.split(3).nextLong();
+        root.nextLong();
+        Assert.assertEquals(expected, root.split(3).nextLong());
+        Assert.assertEquals(root.split(3).getSeed(), new GameRandom(7).split(3).getSeed());
+
+        // siblings, and children of siblings, differ
+        Assert.assertNotEquals(root.split(3).getSeed(), root.split(4).getSeed());
+        Assert.assertNotEquals(root.split(3).split(0).getSeed(), root.split(4).split(0).getSeed());
+        Assert.assertNotEquals(root.split(0).getSeed(), root.getSeed());
+    }
+
+    @Test
+    public void testSample() {
+
+        // sampling from a game's random is reproducible
+        WeightedPlayChoice playChoice = new WeightedPlayChoice(8);
+        for (int option = 0; option < 8; ++option) {
+            playChoice.weigh(option, option);
+        }
+        GameRandom first = new GameRandom(11);
+        GameRandom second = new GameRandom(11);
+        for (int i = 0; i < 100; ++i) {
+            int sampled = playChoice.sample(2.0, first);
+            Assert.assertEquals(sampled, playChoice.sample(2.0, second));
+            Assert.assertTrue(sampled >= 0 && sampled < 8);
+        }
+        Assert.assertEquals(7, playChoice.sample(0.0, first));
+    }
+
+    @Test
+    public void testGaussian() {
+
+        // standard normal: mean near 0, variance near 1
+        GameRandom random = new GameRandom(13);
+        double sum = 0.0;
+        double squares = 0.0;
+        for (int i = 0; i < 100_000; ++i) {
+            double value = random.nextGaussian();
+            sum += value;
+            squares += value * value;
+        }
+        Assert.assertEquals(0.0, sum / 100_000, 0.02);
+        Assert.assertEquals(1.0, squares / 100_000, 0.02);
+    }
+}
@@ -0,0 +1,171 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class GameSessionHostTest {
+
+    private static final int TARGET = 10;
+
+    // human player adds numbers until reaching the target
+    //
+    private static class AddState implements GameState {
+
+        private final PlayerInput<Integer> input = new PlayerInput<>();
+        private volatile int total = 0;
+
+        @Override
+        public boolean isGameOver() {
+            return total >= TARGET;
+        }
+    }
+
+    // waits for the player's number
+    //
+    private static final Game ADD_GAME = new Game.Builder()
+            .addGameRound((DirectGameRound) gameState -> {
+                AddState addState = AddState.class.cast(gameState);
+                addState.total += addState.input.await();
+                return null;
+            })
+            .build();
+
+    @Test
+    public void testSession() {
+        GameSessionHost host = new GameSessionHost.Builder(10).build();
+        try {
+
+            // the session waits for input, then finishes
+            AddState addState = new AddState();
+            GameSession session = host.start(ADD_GAME, addState);
+            Assert.assertSame(session, host.getSession(session.getId()));
+            addState.input.offer(4);
+            addState.input.offer(6);
+            Assert.assertSame(addState, session.await());
+            Assert.assertTrue(session.isDone());
+            Assert.assertFalse(session.isCancelled());
+            Assert.assertEquals(TARGET, addState.total);
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testAdmission() {
+        GameSessionHost host = new GameSessionHost.Builder(2).build();
+        try {
+
+            // the third session is rejected while two are waiting for input
+            AddState first = new AddState();
+            GameSession firstSession = host.start(ADD_GAME, first);
+            host.start(ADD_GAME, new AddState());
+            Assert.assertEquals(2, host.getActiveSessions());
+            boolean rejected = false;
+            try {
+                host.start(ADD_GAME, new AddState());
+            } catch (RejectedExecutionException ex) {
+                rejected = true;
+            }
+            Assert.assertTrue(rejected);
+
+            // finishing a session admits another
+            first.input.offer(TARGET);
+            firstSession.await();
+            Assert.assertEquals(1, host.getActiveSessions());
+            host.start(ADD_GAME, new AddState());
+            Assert.assertNotNull(host.toString());
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        GameSessionHost host = new GameSessionHost.Builder(1).build();
+        try {
+
+            // cancelling a session waiting for input frees its place
+            GameSession session = host.start(ADD_GAME, new AddState());
+            Thread.sleep(10);
+            Assert.assertTrue(session.cancel());
+            Assert.assertTrue(session.isCancelled());
+            boolean cancelled = false;
+            try {
+                session.await();
+            } catch (CancellationException ex) {
+                cancelled = true;
+            }
+            Assert.assertTrue(cancelled);
+            Assert.assertEquals(0, host.getActiveSessions());
+            Assert.assertNull(host.getSession(session.getId()));
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancelMidRound() throws Exception {
+        GameSessionHost host = new GameSessionHost.Builder(1).build();
+        CountDownLatch entered = new CountDownLatch(1);
+        AtomicBoolean release = new AtomicBoolean();
+        Game busyGame = new Game.Builder()
+                .addGameRound((DirectGameRound) gameState -> {
+                    entered.countDown();
+                    while (!release.get()) {
+                        // ignores interrupts
+                    }
+                    AddState.class.cast(gameState).total = TARGET;
+                    return null;
+                })
+                .build();
+        try {
+
+            // a cancelled session keeps its place until its thread leaves the round
+            GameSession session = host.start(busyGame, new AddState());
+            entered.await();
+            Assert.assertTrue(session.cancel());
+            Assert.assertEquals(1, host.getActiveSessions());
+            boolean rejected = false;
+            try {
+                host.start(ADD_GAME, new AddState());
+            } catch (RejectedExecutionException ex) {
+                rejected = true;
+            }
+            Assert.assertTrue(rejected);
+
+            release.set(true);
+            boolean cancelled = false;
+            try {
+                session.await();
+            } catch (CancellationException ex) {
+                cancelled = true;
+            }
+            Assert.assertTrue(cancelled);
+            Assert.assertEquals(0, host.getActiveSessions());
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testSharedExecutor() {
+
+        // shutting the host down leaves an executor it was given running
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            GameSessionHost host = new GameSessionHost.Builder(1).executor(executor).build();
+            host.start(ADD_GAME, new AddState());
+            host.shutdown();
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
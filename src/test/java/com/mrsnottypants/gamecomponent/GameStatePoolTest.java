@@ -0,0 +1,155 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class GameStatePoolTest {
+
+    // state counting its resets
+    //
+    private static class ResetState implements GameState, Resettable {
+
+        private int resets = 0;
+        private GameRandom random = null;
+
+        @Override
+        public void reset() {
+            ++resets;
+        }
+
+        @Override
+        public void reset(GameRandom random) {
+            reset();
+            this.random = random;
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return true;
+        }
+    }
+
+    // random state that resets without replacing its random
+    //
+    private static class KeptRandomState implements GameState, RandomState, Resettable {
+
+        private final GameRandom random = new GameRandom(0);
+
+        @Override
+        public GameRandom getRandom() {
+            return random;
+        }
+
+        @Override
+        public void reset() {
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return true;
+        }
+    }
+
+    // creates resettable states, or states that cannot be reset
+    //
+    private static class Factory implements GameFactory {
+
+        private final boolean resettable;
+
+        Factory(boolean resettable) {
+            this.resettable = resettable;
+        }
+
+        @Override
+        public Game newGame() {
+            return new Game.Builder().build();
+        }
+
+        @Override
+        public GameState newGameState() {
+            return resettable ? new ResetState() : new GameState() {
+                @Override
+                public boolean isGameOver() {
+                    return true;
+                }
+            };
+        }
+    }
+
+    @Test
+    public void testReuse() {
+        GameStatePool pool = new GameStatePool(new Factory(true), 2);
+
+        // released states are reset and reused, latest first
+        GameState first = pool.acquire();
+        GameState second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+        Assert.assertSame(second, pool.acquire());
+        Assert.assertEquals(1, ResetState.class.cast(second).resets);
+        GameRandom random = new GameRandom(1);
+        Assert.assertSame(first, pool.acquire(random));
+        Assert.assertSame(random, ResetState.class.cast(first).random);
+        Assert.assertEquals(2, pool.getCreated());
+        Assert.assertEquals(2, pool.getReused());
+
+        // states beyond capacity are dropped
+        GameState third = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+        pool.release(third);
+        pool.acquire();
+        pool.acquire();
+        Assert.assertNotSame(third, pool.acquire());
+        Assert.assertEquals(4, pool.getCreated());
+    }
+
+    @Test
+    public void testNotResettable() {
+
+        // states that cannot be reset are never pooled
+        GameStatePool pool = new GameStatePool(new Factory(false), 2);
+        GameState gameState = pool.acquire();
+        pool.release(gameState);
+        Assert.assertNotSame(gameState, pool.acquire());
+        Assert.assertEquals(0, pool.getReused());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRandomKept() {
+
+        // a random state must not keep its random when reset for a new one
+        GameStatePool pool = new GameStatePool(new GameFactory() {
+            @Override
+            public Game newGame() {
+                return new Game.Builder().build();
+            }
+
+            @Override
+            public GameState newGameState() {
+                return new KeptRandomState();
+            }
+        }, 2);
+        pool.release(pool.acquire());
+        pool.acquire(new GameRandom(1));
+    }
+
+    @Test
+    public void testPerThread() throws Exception {
+
+        // a state released on one thread is not reused by another
+        GameStatePool pool = new GameStatePool(new Factory(true), 2);
+        GameState gameState = pool.acquire();
+        pool.release(gameState);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Assert.assertNotSame(gameState, executor.submit(() -> pool.acquire()).get());
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertSame(gameState, pool.acquire());
+    }
+}
@@ -3,6 +3,8 @@ package com.mrsnottypants.gamecomponent;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
@@ -156,6 +158,55 @@ public class GameTest {
         }
     }
 
+    // records cards dealt and laps completed
+    //
+    private static class DealState implements GameState {
+
+        public static final int GAME_OVER_LAPS = 3;
+        public static final int DECK_SIZE = 5;
+
+        private int deckSize = 0;
+        private int dealtCount = 0;
+        private int lapCount = 0;
+
+        @Override
+        public boolean isGameOver() {
+            return lapCount >= GAME_OVER_LAPS;
+        }
+    }
+
+    // A fresh deck is shuffled
+    //
+    private static class ShuffleRound implements GameRound {
+
+        @Override
+        public Optional<GameRound> perform(GameState gameState) {
+            DealState.class.cast(gameState).deckSize = DealState.DECK_SIZE;
+            return Optional.empty();
+        }
+    }
+
+    // Deals one card, repeating until the deck is empty, then spawns the end-of-lap round
+    //
+    private static class DealRound implements DirectGameRound {
+
+        private static final DirectGameRound LAP_ROUND = gameState -> {
+            ++DealState.class.cast(gameState).lapCount;
+            return null;
+        };
+
+        @Override
+        public DirectGameRound performDirect(GameState gameState) {
+            DealState dealState = DealState.class.cast(gameState);
+            if (dealState.deckSize == 0) {
+                return LAP_ROUND;
+            }
+            --dealState.deckSize;
+            ++dealState.dealtCount;
+            return this;
+        }
+    }
+
     @Test
     public void testGame() {
 
@@ -176,6 +227,264 @@ public class GameTest {
         Assert.assertTrue(pickNumberState.getGuessCount() >= PickNumberState.GAME_OVER_COUNT);
     }
 
+    @Test
+    public void testDirectGame() {
+
+        // mix an adapted round with a direct round
+        Game game = new Game.Builder()
+                .addGameRound(new ShuffleRound())
+                .addGameRound(new DealRound())
+                .build();
+
+        // every lap deals the full deck
+        DealState dealState = new DealState();
+        game.play(dealState);
+        Assert.assertTrue(dealState.isGameOver());
+        Assert.assertEquals(DealState.GAME_OVER_LAPS, dealState.lapCount);
+        Assert.assertEquals(DealState.GAME_OVER_LAPS * DealState.DECK_SIZE, dealState.dealtCount);
+    }
+
+    @Test
+    public void testDirectAdapter() {
+
+        // a direct round wraps its next round when performed as a plain round
+        DealState dealState = new DealState();
+        DealRound dealRound = new DealRound();
+        Assert.assertFalse(dealRound.perform(dealState).get() == dealRound);
+        dealState.deckSize = 1;
+        Assert.assertSame(dealRound, dealRound.perform(dealState).get());
+
+        // an adapted round answers repeats with itself
+        GameRound repeatRound = new GameRound() {
+            @Override
+            public Optional<GameRound> perform(GameState gameState) {
+                return Optional.of(this);
+            }
+        };
+        DirectGameRound adapter = DirectGameRound.of(repeatRound);
+        Assert.assertSame(adapter, adapter.performDirect(dealState));
+        Assert.assertSame(repeatRound, adapter.perform(dealState).get());
+        Assert.assertSame(dealRound, DirectGameRound.of(dealRound));
+
+        // an adapted round that moves on returns null
+        Assert.assertNull(DirectGameRound.of(new ShuffleRound()).performDirect(dealState));
+    }
+
+    @Test
+    public void testCompiledGame() {
+
+        // the spawned end-of-lap round is registered with the program
+        Game game = new Game.Builder()
+                .addGameRound(new ShuffleRound())
+                .addGameRound(new DealRound())
+                .addSpawnableRound(DealRound.LAP_ROUND)
+                .compile()
+                .build();
+        Assert.assertTrue(game.isCompiled());
+
+        // compiled play matches direct play
+        DealState dealState = new DealState();
+        game.play(dealState);
+        Assert.assertTrue(dealState.isGameOver());
+        Assert.assertEquals(DealState.GAME_OVER_LAPS, dealState.lapCount);
+        Assert.assertEquals(DealState.GAME_OVER_LAPS * DealState.DECK_SIZE, dealState.dealtCount);
+    }
+
+    @Test
+    public void testRoundProgram() {
+
+        // scheduled rounds come first, then spawnable rounds
+        ShuffleRound shuffleRound = new ShuffleRound();
+        DealRound dealRound = new DealRound();
+        RoundProgram program = new Game.Builder()
+                .addGameRound(shuffleRound)
+                .addGameRound(dealRound)
+                .addSpawnableRound(DealRound.LAP_ROUND)
+                .build()
+                .getProgram();
+        Assert.assertEquals(3, program.size());
+        Assert.assertEquals(2, program.getScheduledCount());
+
+        // adapted rounds are found by the round they adapt
+        Assert.assertEquals(0, program.indexOf(shuffleRound));
+        Assert.assertEquals(1, program.indexOf(dealRound));
+        Assert.assertEquals(2, program.indexOf(DealRound.LAP_ROUND));
+        Assert.assertEquals(RoundProgram.NEXT, program.indexOf(new ShuffleRound()));
+
+        // the program counter loops over scheduled rounds only
+        Assert.assertEquals(1, program.next(0));
+        Assert.assertEquals(0, program.next(1));
+
+        // transitions: move on, repeat, spawn
+        DealState dealState = new DealState();
+        Assert.assertEquals(RoundProgram.NEXT, program.perform(0, dealState));
+        Assert.assertEquals(1, program.perform(1, dealState));
+        dealState.deckSize = 0;
+        Assert.assertEquals(2, program.perform(1, dealState));
+        Assert.assertEquals(RoundProgram.NEXT, program.perform(2, dealState));
+        Assert.assertNotNull(program.toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCompiledUnregisteredSpawn() {
+
+        // the end-of-lap round is not registered
+        Game game = new Game.Builder()
+                .addGameRound(new ShuffleRound())
+                .addGameRound(new DealRound())
+                .compile()
+                .build();
+        game.play(new DealState());
+    }
+
+    // counts down, in a cell of an undo log, so rollouts can be restored
+    //
+    private static class CountdownState implements GameState, Restorable {
+
+        private final UndoLog undoLog = new UndoLog();
+        private final UndoLog.IntCell remaining = undoLog.newInt(10);
+
+        @Override
+        public boolean isGameOver() {
+            return remaining.get() <= 0;
+        }
+
+        @Override
+        public int snapshot() {
+            return undoLog.snapshot();
+        }
+
+        @Override
+        public void restore(int snapshot) {
+            undoLog.restore(snapshot);
+        }
+    }
+
+    @Test
+    public void testRollout() {
+
+        // count down one per round
+        Game game = new Game.Builder()
+                .addGameRound((DirectGameRound) gameState -> {
+                    CountdownState.class.cast(gameState).remaining.add(-1);
+                    return null;
+                })
+                .build();
+
+        // a bounded rollout is evaluated, then undone
+        CountdownState countdownState = new CountdownState();
+        Assert.assertEquals(7.0, game.rollout(countdownState, 3, state -> state.remaining.get()), 0.0);
+        Assert.assertEquals(10, countdownState.remaining.get());
+
+        // a rollout stops at game over
+        Assert.assertEquals(0.0, game.rollout(countdownState, 100, state -> state.remaining.get()), 0.0);
+        Assert.assertEquals(10, countdownState.remaining.get());
+
+        // bounded play counts rounds performed
+        Assert.assertEquals(4, game.play(countdownState, 4));
+        Assert.assertEquals(6, game.play(countdownState, 100));
+        Assert.assertTrue(countdownState.isGameOver());
+    }
+
+    @Test
+    public void testRolloutFromPosition() {
+
+        // count down one, then two, per cycle of rounds
+        Game game = new Game.Builder()
+                .addGameRound((DirectGameRound) gameState -> {
+                    CountdownState.class.cast(gameState).remaining.add(-1);
+                    return null;
+                })
+                .addGameRound((DirectGameRound) gameState -> {
+                    CountdownState.class.cast(gameState).remaining.add(-2);
+                    return null;
+                })
+                .build();
+
+        // a rollout part way through the schedule resumes there, rather than at the first round
+        CountdownState countdownState = new CountdownState();
+        Assert.assertEquals(9.0, game.rollout(countdownState, 1, state -> state.remaining.get()), 0.0);
+        Assert.assertEquals(8.0, game.rollout(countdownState, 1, RoundProgram.NEXT, 1,
+                state -> state.remaining.get()), 0.0);
+        Assert.assertEquals(5.0, game.rollout(countdownState, 1, RoundProgram.NEXT, 3,
+                state -> state.remaining.get()), 0.0);
+        Assert.assertEquals(10, countdownState.remaining.get());
+    }
+
+    @Test
+    public void testCursor() {
+        DealRound dealRound = new DealRound();
+        for (boolean compiled : new boolean[] {false, true}) {
+            Game.Builder builder = new Game.Builder()
+                    .addGameRound(new ShuffleRound())
+                    .addGameRound(dealRound)
+                    .addSpawnableRound(DealRound.LAP_ROUND);
+            Game game = compiled ? builder.compile().build() : builder.build();
+
+            // the first step shuffles, then dealing repeats the deal round
+            DealState dealState = new DealState();
+            GameCursor cursor = game.cursor(dealState);
+            Assert.assertEquals(0, cursor.getCurrentRoundIndex());
+            Assert.assertTrue(cursor.step());
+            Assert.assertEquals(DealState.DECK_SIZE, dealState.deckSize);
+            Assert.assertSame(dealRound, cursor.getCurrentRound());
+            Assert.assertEquals(2, cursor.step(2));
+            Assert.assertSame(dealRound, cursor.getCurrentRound());
+            Assert.assertEquals(1, cursor.getCurrentRoundIndex());
+
+            // step until the spawned end-of-lap round is next
+            Assert.assertEquals(DealState.DECK_SIZE - 1,
+                    cursor.stepUntil(c -> c.getCurrentRound() == DealRound.LAP_ROUND));
+            Assert.assertEquals(2, cursor.getCurrentRoundIndex());
+            Assert.assertEquals(0, dealState.lapCount);
+            Assert.assertTrue(cursor.step());
+            Assert.assertEquals(1, dealState.lapCount);
+            Assert.assertEquals(0, cursor.getCurrentRoundIndex());
+
+            // stepping to the end matches playing
+            cursor.stepUntil(c -> false);
+            Assert.assertTrue(cursor.isGameOver());
+            Assert.assertFalse(cursor.step());
+            Assert.assertEquals(DealState.GAME_OVER_LAPS * DealState.DECK_SIZE, dealState.dealtCount);
+            Assert.assertEquals(DealState.GAME_OVER_LAPS * (DealState.DECK_SIZE + 3), cursor.getRoundsPerformed());
+        }
+    }
+
+    @Test
+    public void testInterleavedCursors() {
+        Game game = new Game.Builder()
+                .addGameRound(new ShuffleRound())
+                .addGameRound(new DealRound())
+                .build();
+
+        // many games advanced a round at a time on one thread
+        List<GameCursor> cursors = new ArrayList<>();
+        for (int i = 0; i < 100; ++i) {
+            cursors.add(game.cursor(new DealState()));
+        }
+        boolean stepped = true;
+        while (stepped) {
+            stepped = false;
+            for (GameCursor cursor : cursors) {
+                stepped |= cursor.step();
+            }
+        }
+        for (GameCursor cursor : cursors) {
+            Assert.assertEquals(DealState.GAME_OVER_LAPS, DealState.class.cast(cursor.getGameState()).lapCount);
+        }
+    }
+
+    @Test
+    public void testEmptyGame() {
+        GameState gameState = new DealState();
+        Game game = new Game.Builder().build();
+        game.play(gameState);
+        Assert.assertFalse(gameState.isGameOver());
+        GameCursor cursor = game.cursor(gameState);
+        Assert.assertNull(cursor.getCurrentRound());
+        Assert.assertFalse(cursor.step());
+    }
+
     @Test
     public void testToString() {
         Assert.assertNotNull(PickNumber.INSTANCE.newGame().toString());
@@ -0,0 +1,69 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HandTest {
+
+    @Test
+    public void testCards() {
+        int aceOfSpades = Hand.card(Hand.SPADES, Hand.ACE);
+        Assert.assertEquals(51, aceOfSpades);
+        Assert.assertEquals(Hand.SPADES, Hand.suitOf(aceOfSpades));
+        Assert.assertEquals(Hand.ACE, Hand.rankOf(aceOfSpades));
+
+        long hand = Hand.of(Hand.card(Hand.CLUBS, 0), aceOfSpades);
+        Assert.assertEquals(2, Hand.count(hand));
+        Assert.assertTrue(Hand.contains(hand, aceOfSpades));
+        Assert.assertFalse(Hand.contains(Hand.remove(hand, aceOfSpades), aceOfSpades));
+        Assert.assertEquals(0, Hand.lowest(hand));
+        Assert.assertEquals(aceOfSpades, Hand.highest(hand));
+        Assert.assertEquals("2\u2663 A\u2660", Hand.toString(hand));
+    }
+
+    @Test
+    public void testMasks() {
+
+        // suit masks partition the deck, and so do rank masks
+        long suits = Hand.EMPTY;
+        for (int suit = 0; suit < Hand.SUITS; ++suit) {
+            Assert.assertEquals(13, Hand.count(Hand.suitMask(suit)));
+            Assert.assertFalse(Hand.containsAny(suits, Hand.suitMask(suit)));
+            suits |= Hand.suitMask(suit);
+        }
+        Assert.assertEquals(Hand.FULL, suits);
+        long ranks = Hand.EMPTY;
+        for (int rank = 0; rank < Hand.RANKS; ++rank) {
+            Assert.assertEquals(4, Hand.count(Hand.rankMask(rank)));
+            Assert.assertFalse(Hand.containsAny(ranks, Hand.rankMask(rank)));
+            ranks |= Hand.rankMask(rank);
+        }
+        Assert.assertEquals(Hand.FULL, ranks);
+
+        // a pair of aces, and a king of hearts
+        long hand = Hand.of(Hand.card(Hand.HEARTS, Hand.ACE), Hand.card(Hand.CLUBS, Hand.ACE),
+                Hand.card(Hand.HEARTS, Hand.KING));
+        Assert.assertEquals(2, Hand.count(hand & Hand.rankMask(Hand.ACE)));
+        Assert.assertEquals(2, Hand.count(hand & Hand.suitMask(Hand.HEARTS)));
+        Assert.assertTrue(Hand.containsAll(hand, Hand.of(Hand.card(Hand.CLUBS, Hand.ACE))));
+        Assert.assertEquals(1 << Hand.ACE | 1 << Hand.KING, Hand.ranksOf(hand, Hand.HEARTS));
+        Assert.assertEquals(1 << Hand.ACE, Hand.ranksOf(hand, Hand.CLUBS));
+        Assert.assertEquals(0, Hand.ranksOf(hand, Hand.SPADES));
+        Assert.assertEquals(1 << Hand.ACE | 1 << Hand.KING, Hand.ranks(hand));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyHandHasNoLowest() {
+        Hand.lowest(Hand.EMPTY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemoveOutOfRange() {
+        Hand.remove(Hand.of(0), Long.SIZE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testContainsOutOfRange() {
+        Hand.contains(Hand.of(0), -64);
+    }
+}
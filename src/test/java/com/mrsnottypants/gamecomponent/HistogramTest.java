@@ -0,0 +1,45 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void testBuckets() {
+
+        // every bucket holds the values between its neighbours' highest values
+        long lowest = 0;
+        for (int bucket = 0; bucket < 900; ++bucket) {
+            long highest = Histogram.highestOf(bucket);
+            Assert.assertEquals(bucket, Histogram.bucketOf(lowest));
+            Assert.assertEquals(bucket, Histogram.bucketOf(highest));
+            lowest = highest + 1;
+        }
+        Assert.assertTrue(Histogram.bucketOf(Long.MAX_VALUE) > 0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.getPercentile(50.0));
+        for (long value = 1; value <= 1000; ++value) {
+            histogram.record(value);
+        }
+        histogram.record(-5);
+        Assert.assertEquals(1001, histogram.getCount());
+        Assert.assertEquals(1000, histogram.getMax());
+        Assert.assertEquals(500500, histogram.getTotal());
+
+        // percentiles are accurate to their bucket
+        Assert.assertEquals(500, histogram.getPercentile(50.0), 500 / 16);
+        Assert.assertEquals(990, histogram.getPercentile(99.0), 990 / 16);
+        Assert.assertEquals(0, histogram.getPercentile(0.0));
+        Assert.assertEquals(1000, histogram.getPercentile(100.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadPercentile() {
+        new Histogram().getPercentile(101.0);
+    }
+}
@@ -177,6 +177,147 @@ public class PlayerTest {
         Assert.assertEquals(10 + HIGH_RANK, playChoice.getWeight(10));
     }
 
+    // play choice recording the order strategies were considered
+    private class OrderPlayChoice implements MergeablePlayChoice {
+        private final List<Integer> order = new ArrayList<>();
+
+        @Override
+        public MergeablePlayChoice newPartial() {
+            return new OrderPlayChoice();
+        }
+
+        @Override
+        public void merge(MergeablePlayChoice partial) {
+            order.addAll(OrderPlayChoice.class.cast(partial).order);
+        }
+    }
+
+    // strategy recording its id
+    //
+    private class OrderStrategy implements PlayStrategy {
+
+        private final int id;
+        OrderStrategy(int id) { this.id = id; }
+
+        @Override
+        public void consider(PlayerState playerState, GameState gameState, PlayChoice playChoice) {
+            OrderPlayChoice.class.cast(playChoice).order.add(id);
+        }
+    }
+
+    @Test
+    public void testStrategyOrder() {
+
+        // strategies are considered in the order they were added
+        Player.Builder builder = new Player.Builder(true);
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 0; id < 32; ++id) {
+            builder.addPlayStrategy(TestStrategyType.PLAY_CARD, new OrderStrategy(id));
+            expected.add(id);
+        }
+        Player player = builder.build();
+
+        // adding to the builder afterwards does not change the player
+        builder.addPlayStrategy(TestStrategyType.PLAY_CARD, new OrderStrategy(-1));
+
+        OrderPlayChoice playChoice = new OrderPlayChoice();
+        player.consider(TestStrategyType.PLAY_CARD, new TestPlayerState("Bob"), new TestGameState(), playChoice);
+        Assert.assertEquals(expected, playChoice.order);
+
+        // types without strategies, and keys beyond any strategy, consider nothing
+        playChoice = new OrderPlayChoice();
+        player.consider(TestStrategyType.PICK_CARD, new TestPlayerState("Bob"), new TestGameState(), playChoice);
+        player.consider(() -> 99, new TestPlayerState("Bob"), new TestGameState(), playChoice);
+        Assert.assertTrue(playChoice.order.isEmpty());
+    }
+
+    @Test
+    public void testParallel() {
+
+        // strategies considered concurrently are merged in the order they were added
+        Player.Builder builder = new Player.Builder(true).parallel();
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 0; id < 64; ++id) {
+            builder.addPlayStrategy(TestStrategyType.PLAY_CARD, new OrderStrategy(id));
+            expected.add(id);
+        }
+        Player player = builder.build();
+        for (int repeat = 0; repeat < 10; ++repeat) {
+            OrderPlayChoice playChoice = new OrderPlayChoice();
+            player.consider(TestStrategyType.PLAY_CARD, new TestPlayerState("Bob"), new TestGameState(), playChoice);
+            Assert.assertEquals(expected, playChoice.order);
+        }
+
+        // a choice that cannot be merged is considered one at a time
+        player = new Player.Builder(true)
+                .parallel()
+                .addPlayStrategy(TestStrategyType.PLAY_CARD, new HighCardStrategy())
+                .addPlayStrategy(TestStrategyType.PLAY_CARD, new UnplayedStrategy())
+                .build();
+        TestPlayerState playerState = new TestPlayerState("Alice");
+        playerState.addToHand(10);
+        TestPlayChoice playChoice = new TestPlayChoice();
+        player.consider(TestStrategyType.PLAY_CARD, playerState, new TestGameState(), playChoice);
+        Assert.assertEquals(10 + HIGH_RANK, playChoice.getWeight(10));
+    }
+
+    @Test
+    public void testCache() {
+
+        // strategies are considered once per type and player name, then replayed
+        DecisionCache cache = new DecisionCache(16);
+        Player player = new Player.Builder(true)
+                .addPlayStrategy(TestStrategyType.PLAY_CARD, new OrderStrategy(1))
+                .addPlayStrategy(TestStrategyType.PLAY_CARD, new OrderStrategy(2))
+                .addPlayStrategy(TestStrategyType.PICK_CARD, new OrderStrategy(3))
+                .cache(cache, (playerState, gameState) -> playerState.getName())
+                .build();
+        for (int repeat = 0; repeat < 3; ++repeat) {
+            OrderPlayChoice playChoice = new OrderPlayChoice();
+            player.consider(TestStrategyType.PLAY_CARD, new TestPlayerState("Bob"), new TestGameState(), playChoice);
+            player.consider(TestStrategyType.PICK_CARD, new TestPlayerState("Bob"), new TestGameState(), playChoice);
+            Assert.assertEquals(Arrays.asList(1, 2, 3), playChoice.order);
+        }
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(4, cache.getHits());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testSharedCache() {
+
+        // players sharing a cache only replay choices of the same strategies
+        DecisionCache cache = new DecisionCache(16);
+        OrderStrategy shared = new OrderStrategy(1);
+        Player first = new Player.Builder(true)
+                .addPlayStrategy(TestStrategyType.PLAY_CARD, shared)
+                .cache(cache, (playerState, gameState) -> playerState.getName())
+                .build();
+        Player same = new Player.Builder(true)
+                .addPlayStrategy(TestStrategyType.PLAY_CARD, shared)
+                .cache(cache, (playerState, gameState) -> playerState.getName())
+                .build();
+        Player other = new Player.Builder(true)
+                .addPlayStrategy(TestStrategyType.PLAY_CARD, new OrderStrategy(2))
+                .cache(cache, (playerState, gameState) -> playerState.getName())
+                .build();
+        int[] expected = {1, 1, 2};
+        Player[] players = {first, same, other};
+        for (int index = 0; index < players.length; ++index) {
+            OrderPlayChoice playChoice = new OrderPlayChoice();
+            players[index].consider(TestStrategyType.PLAY_CARD, new TestPlayerState("Bob"), new TestGameState(),
+                    playChoice);
+            Assert.assertEquals(Collections.singletonList(expected[index]), playChoice.order);
+        }
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeKey() {
+        new Player.Builder(true).addPlayStrategy(() -> -1, new HighCardStrategy());
+    }
+
     @Test
     public void testToString() {
 
@@ -0,0 +1,218 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public class ReplayLogTest {
+
+    private static final int CHOICES_PER_GAME = 10;
+
+    private enum Choice implements PlayStrategyType {
+        PICK;
+
+        @Override
+        public int getKey() {
+            return ordinal();
+        }
+    }
+
+    // picks options, randomly while logging, or from the log while replaying
+    //
+    private static class PickState implements GameState {
+
+        private final long id;
+        private final Random random;
+        private final int[] replayed;
+        private int picked = 0;
+        private int bonus = 0;
+
+        PickState(long id, int[] replayed) {
+            this.id = id;
+            this.random = new Random();
+            this.replayed = replayed;
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return picked >= CHOICES_PER_GAME;
+        }
+    }
+
+    private static final DirectGameRound BONUS_ROUND = gameState -> {
+        ++PickState.class.cast(gameState).bonus;
+        return null;
+    };
+
+    // picks an option, spawning the bonus round on option 2
+    //
+    private static class PickRound implements DirectGameRound {
+
+        private final ReplayLog log;
+
+        PickRound(ReplayLog log) {
+            this.log = log;
+        }
+
+        @Override
+        public DirectGameRound performDirect(GameState gameState) {
+            PickState pickState = PickState.class.cast(gameState);
+            int option;
+            if (pickState.replayed == null) {
+                option = pickState.random.nextInt(3);
+                log.recordChoice(pickState, Choice.PICK, option);
+            } else {
+                option = pickState.replayed[pickState.picked];
+            }
+            ++pickState.picked;
+            return option == 2 ? BONUS_ROUND : null;
+        }
+    }
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("replay");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testLogAndReplay() throws Exception {
+
+        // small segments, so games roll over several times
+        ReplayLog log = new ReplayLog.Builder(directory, gameState -> PickState.class.cast(gameState).id)
+                .recordsPerSegment(64)
+                .build();
+        Game game = new Game.Builder()
+                .addGameRound(new PickRound(log))
+                .addSpawnableRound(BONUS_ROUND)
+                .addListener(log)
+                .build();
+
+        // games logged from several threads at once
+        int games = 40;
+        PickState[] played = new PickState[games];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[games];
+            for (int id = 0; id < games; ++id) {
+                played[id] = new PickState(id, null);
+                PickState state = played[id];
+                futures[id] = executor.submit(() -> game.play(state));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        log.close();
+
+        ReplayReader reader = new ReplayReader(directory);
+        Assert.assertTrue(reader.getSegmentCount() > 1);
+        Assert.assertEquals(log.getRecordCount(), reader.forEach(record -> {}));
+
+        // each game replays from its logged choices, along its logged transitions
+        Game replayGame = new Game.Builder()
+                .addGameRound(new PickRound(null))
+                .addSpawnableRound(BONUS_ROUND)
+                .build();
+        for (int id = 0; id < games; ++id) {
+            int[] choices = reader.getChoices(id);
+            Assert.assertEquals(CHOICES_PER_GAME, choices.length);
+            PickState replayed = new PickState(id, choices);
+            GameCursor cursor = reader.replay(replayGame, replayed, id);
+            Assert.assertTrue(cursor.isGameOver());
+            Assert.assertEquals(played[id].bonus, replayed.bonus);
+        }
+    }
+
+    @Test
+    public void testReopen() {
+
+        // a longer run, then a shorter one on the same directory
+        PickState first = new PickState(1, null);
+        PickState second = new PickState(2, null);
+        ReplayLog log = new ReplayLog.Builder(directory, gameState -> PickState.class.cast(gameState).id)
+                .recordsPerSegment(8)
+                .build();
+        for (int option = 0; option < 20; ++option) {
+            log.recordChoice(first, Choice.PICK, option);
+        }
+        log.close();
+        log = new ReplayLog.Builder(directory, gameState -> PickState.class.cast(gameState).id)
+                .recordsPerSegment(8)
+                .build();
+        Assert.assertEquals(20, log.getRecordCount());
+        for (int option = 0; option < 5; ++option) {
+            log.recordChoice(second, Choice.PICK, option);
+        }
+        log.close();
+
+        // the second run follows the first, which is kept whole
+        ReplayReader reader = new ReplayReader(directory);
+        Assert.assertEquals(25, reader.forEach(record -> {}));
+        Assert.assertEquals(20, reader.getChoices(1).length);
+        Assert.assertArrayEquals(new int[] {0, 1, 2, 3, 4}, reader.getChoices(2));
+        Assert.assertEquals(5, reader.forEach(2, record -> Assert.assertEquals(2, record.getGameId())));
+        Assert.assertEquals(0, reader.forEach(3, record -> Assert.fail()));
+        Assert.assertEquals(0, reader.getChoices(3).length);
+        long[] games = new long[25];
+        int[] count = {0};
+        reader.forEach(record -> games[count[0]++] = record.getGameId());
+        Assert.assertEquals(1, games[19]);
+        Assert.assertEquals(2, games[20]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReopenResized() {
+        ReplayLog log = new ReplayLog.Builder(directory, gameState -> 0L).recordsPerSegment(8).build();
+        log.recordChoice(new PickState(0, null), Choice.PICK, 0);
+        log.close();
+        new ReplayLog.Builder(directory, gameState -> 0L).recordsPerSegment(16).build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDiverged() {
+        ReplayLog log = new ReplayLog.Builder(directory, gameState -> 0L).build();
+        Game game = new Game.Builder()
+                .addGameRound(new PickRound(log))
+                .addSpawnableRound(BONUS_ROUND)
+                .addListener(log)
+                .build();
+        game.play(new PickState(0, null));
+        log.close();
+
+        // replaying with every option spawning the bonus round leaves the log, unless the log did too
+        int[] choices = new int[CHOICES_PER_GAME];
+        Arrays.fill(choices, 2);
+        ReplayReader reader = new ReplayReader(directory);
+        if (Arrays.equals(choices, reader.getChoices(0))) {
+            choices[0] = 0;
+        }
+        Game replayGame = new Game.Builder()
+                .addGameRound(new PickRound(null))
+                .addSpawnableRound(BONUS_ROUND)
+                .build();
+        reader.replay(replayGame, new PickState(0, choices), 0);
+    }
+}
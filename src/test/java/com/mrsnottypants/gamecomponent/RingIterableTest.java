@@ -0,0 +1,137 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class RingIterableTest {
+
+    private static final List<String> PLAYERS = Arrays.asList("Alice", "Bob", "Carol", "Dave");
+
+    @Test
+    public void testList() {
+
+        // confirm two passes repeat the list
+        Iterator<String> iterator = RingIterable.of(PLAYERS).iterator();
+        for (int pass = 0; pass < 2; ++pass) {
+            for (String element : PLAYERS) {
+                Assert.assertTrue(iterator.hasNext());
+                Assert.assertEquals(element, iterator.next());
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshot() {
+
+        // later changes to the source are not seen
+        List<String> source = new ArrayList<>(PLAYERS);
+        RingIterable<String> iterable = RingIterable.of(source);
+        source.clear();
+        Assert.assertEquals(PLAYERS.size(), iterable.size());
+        Assert.assertEquals("Alice", iterable.iterator().next());
+    }
+
+    @Test
+    public void testSkipReverseSeek() {
+        RingIterable.RingIterator<String> iterator = RingIterable.of(PLAYERS).iterator();
+
+        // Alice plays a skip card, Bob is passed over
+        Assert.assertEquals("Alice", iterator.next());
+        iterator.skip();
+        Assert.assertEquals("Carol", iterator.next());
+
+        // Carol plays a reverse card, Bob is next, then Alice, then loop to Dave
+        iterator.reverse();
+        Assert.assertTrue(iterator.isReversed());
+        Assert.assertEquals("Bob", iterator.next());
+        Assert.assertEquals("Alice", iterator.next());
+        Assert.assertEquals("Dave", iterator.peek());
+        Assert.assertEquals("Dave", iterator.next());
+        Assert.assertEquals(3, iterator.getPreviousIndex());
+
+        // Dave plays a skip card and a reverse card together, Alice is passed over the other way
+        iterator.skip();
+        iterator.reverse();
+        Assert.assertEquals("Bob", iterator.next());
+        iterator.reverse();
+
+        // seek to Bob, still reversed
+        iterator.seek("Bob");
+        Assert.assertEquals("Bob", iterator.next());
+        Assert.assertEquals("Alice", iterator.next());
+
+        // seek to unknown player
+        boolean noSuchElement = false;
+        try {
+            iterator.seek("Eve");
+        } catch (NoSuchElementException ex) {
+            noSuchElement = true;
+        }
+        Assert.assertTrue(noSuchElement);
+    }
+
+    @Test
+    public void testTurnOrder() {
+
+        // rotate seats without boxing
+        TurnOrder turnOrder = new TurnOrder(3, 1);
+        Assert.assertEquals(1, turnOrder.nextInt());
+        Assert.assertEquals(2, turnOrder.nextInt());
+        Assert.assertEquals(0, turnOrder.nextInt());
+
+        // skip more than a full lap
+        turnOrder.skip(4);
+        Assert.assertEquals(2, turnOrder.nextInt());
+
+        // reverse, then loop backwards past the first seat
+        turnOrder.reverse();
+        Assert.assertEquals(1, turnOrder.nextInt());
+        Assert.assertEquals(0, turnOrder.nextInt());
+        Assert.assertEquals(2, turnOrder.nextInt());
+
+        // skip, then reverse in the same turn: the seat before is passed over instead
+        TurnOrder both = new TurnOrder(4);
+        Assert.assertEquals(0, both.nextInt());
+        both.skip();
+        both.reverse();
+        Assert.assertEquals(2, both.nextInt());
+        Assert.assertEquals(1, both.nextInt());
+
+        // reverse after seeking keeps the seat sought
+        both.seek(3);
+        both.reverse();
+        Assert.assertEquals(3, both.nextInt());
+        Assert.assertEquals(0, both.nextInt());
+
+        // reverse before anything is returned keeps the first seat
+        TurnOrder fresh = new TurnOrder(3);
+        fresh.reverse();
+        Assert.assertEquals(0, fresh.nextInt());
+        Assert.assertEquals(2, fresh.nextInt());
+        Assert.assertNotNull(fresh.toString());
+    }
+
+    @Test
+    public void testEmpty() {
+
+        // should not indicate it has a next element
+        RingIterable<Integer> iterable = RingIterable.of(Collections.emptyList());
+        Assert.assertFalse(iterable.iterator().hasNext());
+
+        // an attempt to get an element throws a no-such-element exception
+        boolean noSuchElement = false;
+        try {
+            iterable.iterator().next();
+        } catch (NoSuchElementException ex) {
+            noSuchElement = true;
+        }
+        Assert.assertTrue(noSuchElement);
+    }
+
+    @Test
+    public void testToString() {
+        Assert.assertNotNull(RingIterable.of(PLAYERS).toString());
+    }
+}
@@ -0,0 +1,299 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SimulationCoordinatorTest {
+
+    private static final int ROLLS_PER_GAME = 5;
+
+    // rolls dice, each roll adding the configuration to the total
+    //
+    private static class DiceState implements GameState, Resettable {
+
+        private final int configuration;
+        private GameRandom random;
+        private int rolls = 0;
+        private long total = 0;
+
+        DiceState(int configuration, GameRandom random) {
+            this.configuration = configuration;
+            this.random = random;
+        }
+
+        @Override
+        public void reset() {
+            rolls = 0;
+            total = 0;
+        }
+
+        @Override
+        public void reset(GameRandom random) {
+            reset();
+            this.random = random;
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return rolls >= ROLLS_PER_GAME;
+        }
+    }
+
+    // plays dice games, crashing its process on the first result if asked to
+    //
+    enum Dice implements WorkerFactory {
+        INSTANCE;
+
+        @Override
+        public GameFactory newGameFactory(int configuration) {
+            return new GameFactory() {
+                @Override
+                public Game newGame() {
+                    return new Game.Builder()
+                            .addGameRound((DirectGameRound) gameState -> {
+                                DiceState diceState = DiceState.class.cast(gameState);
+                                diceState.total += 1 + diceState.random.nextInt(6) + diceState.configuration;
+                                ++diceState.rolls;
+                                return null;
+                            })
+                            .build();
+                }
+
+                @Override
+                public GameState newGameState() {
+                    return new DiceState(configuration, new GameRandom(System.nanoTime()));
+                }
+
+                @Override
+                public GameState newGameState(GameRandom random) {
+                    return new DiceState(configuration, random);
+                }
+            };
+        }
+
+        @Override
+        public void writeResult(GameState gameState, BinaryWriter writer) {
+            if (Boolean.getBoolean("gamecomponent.test.crash")) {
+                Runtime.getRuntime().halt(1);
+            }
+            writer.writeVarLong(DiceState.class.cast(gameState).total);
+        }
+    }
+
+    // plays dice games, failing every game of configuration 1
+    //
+    enum FailingDice implements WorkerFactory {
+        INSTANCE;
+
+        @Override
+        public GameFactory newGameFactory(int configuration) {
+            return Dice.INSTANCE.newGameFactory(configuration);
+        }
+
+        @Override
+        public void writeResult(GameState gameState, BinaryWriter writer) {
+            if (DiceState.class.cast(gameState).configuration == 1) {
+                throw new IllegalStateException("Configuration 1 always fails");
+            }
+            Dice.INSTANCE.writeResult(gameState, writer);
+        }
+    }
+
+    /**
+     * Return the totals of every game, played in this thread
+     * @param seed root seed
+     * @param configurations number of configurations
+     * @param games games per configuration
+     * @return total of each game, by configuration then game
+     */
+    private static long[][] expected(long seed, int configurations, int games) {
+        long[][] totals = new long[configurations][games];
+        GameRandom random = new GameRandom(seed);
+        for (int configuration = 0; configuration < configurations; ++configuration) {
+            GameFactory gameFactory = Dice.INSTANCE.newGameFactory(configuration);
+            Game game = gameFactory.newGame();
+            for (int index = 0; index < games; ++index) {
+                GameState gameState = gameFactory.newGameState(random.split(configuration).split(index));
+                game.play(gameState);
+                totals[configuration][index] = DiceState.class.cast(gameState).total;
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Run a coordinator, checking every game's result is handed on once and matches the game played here
+     * @param coordinator coordinator
+     * @param seed root seed
+     * @param configurations number of configurations
+     * @param games games per configuration
+     */
+    private static void runAndCheck(SimulationCoordinator coordinator, long seed, int configurations, int games) {
+        Map<Long, Long> totals = new HashMap<>();
+        coordinator.run((configuration, game, result) ->
+                Assert.assertNull(totals.put(configuration * (long) games + game, result.readVarLong())));
+        long[][] expected = expected(seed, configurations, games);
+        Assert.assertEquals(configurations * games, totals.size());
+        for (int configuration = 0; configuration < configurations; ++configuration) {
+            for (int game = 0; game < games; ++game) {
+                Assert.assertEquals(expected[configuration][game],
+                        (long) totals.get(configuration * (long) games + game));
+            }
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void testWorkerThreads() throws Exception {
+        SimulationCoordinator coordinator = new SimulationCoordinator.Builder(Dice.class, 3, 250)
+                .shardSize(40)
+                .seed(8)
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Long>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 3; ++worker) {
+                workers.add(executor.submit(() -> new SimulationWorker(coordinator.getPort()).run()));
+            }
+            runAndCheck(coordinator, 8, 3, 250);
+
+            // every game was played once, by some worker
+            long played = 0;
+            for (Future<Long> worker : workers) {
+                played += worker.get();
+            }
+            Assert.assertEquals(750, played);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 120_000)
+    public void testWorkerProcesses() throws Exception {
+        SimulationCoordinator coordinator = new SimulationCoordinator.Builder(Dice.class, 2, 300)
+                .shardSize(25)
+                .seed(9)
+                .build();
+
+        // the first worker process crashes on its first game, and its shard is played by the others
+        List<Process> workers = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> run = executor.submit(() -> runAndCheck(coordinator, 9, 2, 300));
+            workers.add(startWorker(coordinator.getPort(), true));
+            Assert.assertTrue(workers.get(0).waitFor(30, TimeUnit.SECONDS));
+            workers.add(startWorker(coordinator.getPort(), false));
+            workers.add(startWorker(coordinator.getPort(), false));
+            run.get();
+            for (Process worker : workers) {
+                Assert.assertTrue(worker.waitFor(30, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(1, workers.get(0).exitValue());
+            Assert.assertEquals(0, workers.get(1).exitValue());
+            Assert.assertEquals(0, workers.get(2).exitValue());
+        } finally {
+            for (Process worker : workers) {
+                worker.destroyForcibly();
+            }
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void testShardFailsTooOften() throws Exception {
+        SimulationCoordinator coordinator = new SimulationCoordinator.Builder(FailingDice.class, 2, 10)
+                .shardSize(10)
+                .maxAttempts(2)
+                .build();
+
+        // each worker handed the failing shard dies, and the shard fails the simulation after two of them
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int worker = 0; worker < 4; ++worker) {
+                executor.submit(() -> new SimulationWorker(coordinator.getPort()).run());
+            }
+            try {
+                coordinator.run((configuration, game, result) -> {});
+                Assert.fail("Expected the simulation to fail");
+            } catch (IllegalStateException ex) {
+                Assert.assertTrue(ex.getMessage().contains("configuration 1 failed on 2 workers"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void testStrayAndHungWorkers() throws Exception {
+        SimulationCoordinator coordinator = new SimulationCoordinator.Builder(Dice.class, 1, 50)
+                .shardSize(10)
+                .seed(3)
+                .workerTimeout(200, TimeUnit.MILLISECONDS)
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (Socket stray = new Socket(InetAddress.getLoopbackAddress(), coordinator.getPort());
+             Socket hung = new Socket(InetAddress.getLoopbackAddress(), coordinator.getPort())) {
+            Future<?> run = executor.submit(() -> runAndCheck(coordinator, 3, 1, 50));
+
+            // a stray connection claims an impossible frame, and is dropped without a shard
+            DataOutputStream strayOutput = new DataOutputStream(stray.getOutputStream());
+            strayOutput.writeInt(Integer.MAX_VALUE);
+            strayOutput.flush();
+
+            // a hung worker accepts the job and takes a shard, then goes quiet until its shard is taken back
+            DataInputStream hungInput = new DataInputStream(hung.getInputStream());
+            DataOutputStream hungOutput = new DataOutputStream(hung.getOutputStream());
+            Assert.assertEquals(SimulationCoordinator.JOB, SimulationCoordinator.readFrame(hungInput).readVarInt());
+            SimulationCoordinator.writeFrame(hungOutput, new BinaryWriter(16)
+                    .writeVarInt(SimulationCoordinator.READY).writeVarInt(SimulationCoordinator.VERSION));
+            hungOutput.flush();
+            Assert.assertEquals(SimulationCoordinator.SHARD, SimulationCoordinator.readFrame(hungInput).readVarInt());
+
+            // a healthy worker plays every shard
+            Future<Long> worker = executor.submit(() -> new SimulationWorker(coordinator.getPort()).run());
+            run.get();
+            Assert.assertEquals(50, (long) worker.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testFrameTooLong() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeInt(SimulationCoordinator.MAX_FRAME + 1);
+        SimulationCoordinator.readFrame(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    /**
+     * Start a worker process on this class path
+     * @param port port the coordinator listens on
+     * @param crash true if the worker crashes on its first game
+     * @return worker process
+     * @throws IOException if the process cannot start
+     */
+    private static Process startWorker(int port, boolean crash) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(java, "-Dgamecomponent.test.crash=" + crash,
+                "-cp", System.getProperty("java.class.path"), SimulationWorker.class.getName(),
+                Integer.toString(port))
+                .inheritIO()
+                .start();
+    }
+}
@@ -0,0 +1,224 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+public class SimulationTest {
+
+    private static final int ROUNDS_PER_GAME = 10;
+
+    // game is over after a fixed number of rounds
+    //
+    private static class CountState implements GameState {
+
+        private int roundCount = 0;
+
+        void incrementRoundCount() { ++roundCount; }
+        int getRoundCount() { return roundCount; }
+
+        @Override
+        public boolean isGameOver() {
+            return roundCount >= ROUNDS_PER_GAME;
+        }
+    }
+
+    // counts itself
+    //
+    private static class CountRound implements GameRound {
+
+        @Override
+        public Optional<GameRound> perform(GameState gameState) {
+            CountState.class.cast(gameState).incrementRoundCount();
+            return Optional.empty();
+        }
+    }
+
+    // Singleton counting game factory
+    //
+    private enum Count implements GameFactory {
+
+        INSTANCE {
+            @Override
+            public Game newGame() {
+                return new Game.Builder()
+                        .addGameRound(new CountRound())
+                        .addGameRound(new CountRound())
+                        .build();
+            }
+            @Override
+            public GameState newGameState() {
+                return new CountState();
+            }
+        }
+    }
+
+    @Test
+    public void testRun() {
+
+        // play a batch of games on the common pool
+        Simulation simulation = new Simulation.Builder(Count.INSTANCE, 1000).build();
+        int rounds = simulation.run(Collectors.summingInt(state -> CountState.class.cast(state).getRoundCount()));
+        Assert.assertEquals(1000 * ROUNDS_PER_GAME, rounds);
+
+        // every game is over
+        int over = simulation.run(Collectors.summingInt(state -> state.isGameOver() ? 1 : 0));
+        Assert.assertEquals(1000, over);
+    }
+
+    @Test
+    public void testExecutor() {
+
+        // more batches than games
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Simulation simulation = new Simulation.Builder(Count.INSTANCE, 7)
+                    .executor(executor)
+                    .batchCount(16)
+                    .build();
+            Assert.assertEquals(7L, (long) simulation.run(Collectors.counting()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // rolls a die each round, from the game's random
+    //
+    private static class DiceState implements GameState, RandomState, Resettable {
+
+        private GameRandom random;
+        private int rolls = 0;
+        private long total = 0;
+
+        DiceState(GameRandom random) {
+            this.random = random;
+        }
+
+        @Override
+        public void reset() {
+            rolls = 0;
+            total = 0;
+        }
+
+        @Override
+        public void reset(GameRandom random) {
+            reset();
+            this.random = random;
+        }
+
+        @Override
+        public GameRandom getRandom() {
+            return random;
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return rolls >= ROUNDS_PER_GAME;
+        }
+    }
+
+    // Singleton dice game factory, reproducible when seeded
+    //
+    private enum Dice implements GameFactory {
+
+        INSTANCE {
+            @Override
+            public Game newGame() {
+                return new Game.Builder()
+                        .addGameRound((DirectGameRound) gameState -> {
+                            DiceState diceState = DiceState.class.cast(gameState);
+                            diceState.total += 1 + diceState.getRandom().nextInt(6);
+                            ++diceState.rolls;
+                            return null;
+                        })
+                        .build();
+            }
+            @Override
+            public GameState newGameState() {
+                return new DiceState(new GameRandom(System.nanoTime()));
+            }
+            @Override
+            public GameState newGameState(GameRandom random) {
+                return new DiceState(random);
+            }
+        }
+    }
+
+    @Test
+    public void testSeeded() {
+
+        // the same seed plays the same games, however they are batched
+        List<Long> first = new Simulation.Builder(Dice.INSTANCE, 200)
+                .seed(42)
+                .build()
+                .run(Collectors.mapping(state -> DiceState.class.cast(state).total, Collectors.toList()));
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Long> second = new Simulation.Builder(Dice.INSTANCE, 200)
+                    .seed(42)
+                    .executor(executor)
+                    .batchCount(7)
+                    .build()
+                    .run(Collectors.mapping(state -> DiceState.class.cast(state).total, Collectors.toList()));
+            Assert.assertEquals(first, second);
+        } finally {
+            executor.shutdown();
+        }
+
+        // games differ from each other, and from another seed
+        Assert.assertTrue(new HashSet<>(first).size() > 10);
+        List<Long> other = new Simulation.Builder(Dice.INSTANCE, 200)
+                .seed(43)
+                .build()
+                .run(Collectors.mapping(state -> DiceState.class.cast(state).total, Collectors.toList()));
+        Assert.assertFalse(first.equals(other));
+    }
+
+    @Test
+    public void testPooled() {
+
+        // a pooled simulation plays the same games, reusing one state per thread
+        List<Long> unpooled = new Simulation.Builder(Dice.INSTANCE, 200)
+                .seed(42)
+                .build()
+                .run(Collectors.mapping(state -> DiceState.class.cast(state).total, Collectors.toList()));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Simulation simulation = new Simulation.Builder(Dice.INSTANCE, 200)
+                    .seed(42)
+                    .executor(executor)
+                    .batchCount(4)
+                    .pooled()
+                    .build();
+            List<Long> pooled = simulation.run(
+                    Collectors.mapping(state -> DiceState.class.cast(state).total, Collectors.toList()));
+            Assert.assertEquals(unpooled, pooled);
+            Assert.assertEquals(1, simulation.getPool().getCreated());
+            Assert.assertEquals(199, simulation.getPool().getReused());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoGames() {
+        Simulation simulation = new Simulation.Builder(Count.INSTANCE, 0).build();
+        Assert.assertEquals(0L, (long) simulation.run(Collectors.counting()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeGameCount() {
+        new Simulation.Builder(Count.INSTANCE, -1);
+    }
+
+    @Test
+    public void testToString() {
+        Assert.assertNotNull(new Simulation.Builder(Count.INSTANCE, 1).build().toString());
+    }
+}
@@ -0,0 +1,109 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StateHashTest {
+
+    private static final int CARDS = 52;
+
+    // a hand of cards, hashed as it changes
+    //
+    private static class HandState implements GameState, HashedState, Restorable {
+
+        private final UndoLog undoLog = new UndoLog();
+        private final StateHash hash = new StateHash(undoLog);
+        private final ZobristKeys.Feature inHand;
+        private final ZobristKeys.Feature scoreBucket;
+        private final UndoLog.IntCell score = undoLog.newInt(0);
+
+        HandState(ZobristKeys keys) {
+            this.inHand = keys.feature(CARDS);
+            this.scoreBucket = keys.feature(10);
+            hash.toggle(scoreBucket, 0);
+        }
+
+        void deal(int card) {
+            hash.toggle(inHand, card);
+        }
+
+        void score(int points) {
+            int oldBucket = score.get() / 10;
+            score.add(points);
+            hash.change(scoreBucket, oldBucket, score.get() / 10);
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return false;
+        }
+
+        @Override
+        public long getHash() {
+            return hash.getHash();
+        }
+
+        @Override
+        public int snapshot() {
+            return undoLog.snapshot();
+        }
+
+        @Override
+        public void restore(int snapshot) {
+            undoLog.restore(snapshot);
+        }
+    }
+
+    @Test
+    public void testIncremental() {
+
+        // the same features registered from the same seed get the same keys
+        HandState first = new HandState(new ZobristKeys(42));
+        HandState second = new HandState(new ZobristKeys(42));
+        Assert.assertEquals(first.getHash(), second.getHash());
+
+        // hashes do not depend on the order changes were made in
+        first.deal(3);
+        first.deal(17);
+        first.score(25);
+        second.score(12);
+        second.deal(17);
+        second.score(13);
+        second.deal(3);
+        Assert.assertEquals(first.getHash(), second.getHash());
+
+        // toggling a card twice takes it back out
+        long hash = first.getHash();
+        first.deal(40);
+        Assert.assertNotEquals(hash, first.getHash());
+        first.deal(40);
+        Assert.assertEquals(hash, first.getHash());
+    }
+
+    @Test
+    public void testRestore() {
+        HandState state = new HandState(new ZobristKeys(7));
+        state.deal(1);
+        long hash = state.getHash();
+
+        // the hash is restored with the rest of the state
+        int snapshot = state.snapshot();
+        state.deal(2);
+        state.score(50);
+        state.restore(snapshot);
+        Assert.assertEquals(hash, state.getHash());
+    }
+
+    @Test
+    public void testPlainHash() {
+        ZobristKeys keys = new ZobristKeys(1);
+        ZobristKeys.Feature round = keys.feature(4);
+        StateHash hash = new StateHash();
+        hash.toggle(round, 0);
+        Assert.assertEquals(round.key(0), hash.getHash());
+        hash.change(round, 0, 3);
+        Assert.assertEquals(round.key(3), hash.getHash());
+        Assert.assertEquals(1, keys.size());
+        Assert.assertEquals(0, round.getId());
+    }
+}
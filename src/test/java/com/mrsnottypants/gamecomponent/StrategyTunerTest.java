@@ -0,0 +1,253 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StrategyTunerTest {
+
+    // the only choice in a duel
+    //
+    private enum Pick implements PlayStrategyType {
+        INSTANCE;
+
+        @Override
+        public int getKey() {
+            return 0;
+        }
+    }
+
+    // player with a score
+    //
+    private static class Score implements PlayerState {
+
+        private int score = 0;
+
+        @Override
+        public String getName() {
+            return "Score";
+        }
+
+        @Override
+        public int getScore() {
+            return score;
+        }
+    }
+
+    // two seated players, each picking a risky option 1 worth 3 more than option 0
+    //
+    private static class DuelState implements GameState, SeatedState {
+
+        private final Player[] players;
+        private final Score[] scores = {new Score(), new Score()};
+        private GameRandom random;
+        private boolean over = false;
+
+        DuelState(Player[] players, GameRandom random) {
+            this.players = players.clone();
+            this.random = random;
+        }
+
+        void reseat(Player[] seats, GameRandom random) {
+            System.arraycopy(seats, 0, players, 0, players.length);
+            for (Score score : scores) {
+                score.score = 0;
+            }
+            this.random = random;
+            this.over = false;
+        }
+
+        @Override
+        public PlayerState getPlayerState(int seat) {
+            return scores[seat];
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return over;
+        }
+    }
+
+    // plays duels
+    //
+    private enum Duel implements MatchFactory {
+        INSTANCE;
+
+        @Override
+        public Game newGame() {
+            return new Game.Builder()
+                    .addGameRound((DirectGameRound) gameState -> {
+                        DuelState duelState = DuelState.class.cast(gameState);
+                        WeightedPlayChoice playChoice = new WeightedPlayChoice(2);
+                        for (int seat = 0; seat < 2; ++seat) {
+                            playChoice.clear();
+                            duelState.players[seat].consider(Pick.INSTANCE, duelState.scores[seat], duelState,
+                                    playChoice);
+                            int bonus = playChoice.argmax() == 1 ? 3 : 0;
+                            duelState.scores[seat].score = duelState.random.nextInt(10) + bonus;
+                        }
+                        duelState.over = true;
+                        return null;
+                    })
+                    .build();
+        }
+
+        @Override
+        public GameState newGameState(Player[] seats, GameRandom random) {
+            return new DuelState(seats, random);
+        }
+
+        @Override
+        public GameState resetGameState(GameState gameState, Player[] seats, GameRandom random) {
+            DuelState.class.cast(gameState).reseat(seats, random);
+            return gameState;
+        }
+    }
+
+    // plays duels, counting the states created, and resetting states if asked to
+    //
+    private static class CountingDuel implements MatchFactory {
+
+        private final boolean reset;
+        private final AtomicInteger created = new AtomicInteger();
+
+        CountingDuel(boolean reset) {
+            this.reset = reset;
+        }
+
+        @Override
+        public Game newGame() {
+            return Duel.INSTANCE.newGame();
+        }
+
+        @Override
+        public GameState newGameState(Player[] seats, GameRandom random) {
+            created.incrementAndGet();
+            return Duel.INSTANCE.newGameState(seats, random);
+        }
+
+        @Override
+        public GameState resetGameState(GameState gameState, Player[] seats, GameRandom random) {
+            return reset ? Duel.INSTANCE.resetGameState(gameState, seats, random) : newGameState(seats, random);
+        }
+    }
+
+    // strategies that each favour one option
+    private static final PlayStrategy RISKY = (playerState, gameState, playChoice) ->
+            WeightedPlayChoice.class.cast(playChoice).weigh(1, 1.0);
+    private static final PlayStrategy SAFE = (playerState, gameState, playChoice) ->
+            WeightedPlayChoice.class.cast(playChoice).weigh(0, 1.0);
+
+    /**
+     * Return a tuner starting from weights that favour the safe option
+     * @param checkpoints collects checkpoints
+     * @return tuner
+     */
+    private static StrategyTuner tuner(List<byte[]> checkpoints) {
+        return tuner(checkpoints, 12);
+    }
+
+    /**
+     * Return a tuner of a population size starting from weights that favour the safe option
+     * @param checkpoints collects checkpoints
+     * @param populationSize candidates per generation
+     * @return tuner
+     */
+    private static StrategyTuner tuner(List<byte[]> checkpoints, int populationSize) {
+        return tuner(Duel.INSTANCE, checkpoints, populationSize);
+    }
+
+    /**
+     * Return a tuner of a population size playing a factory's duels, starting from weights that favour the safe option
+     * @param matchFactory plays duels
+     * @param checkpoints collects checkpoints
+     * @param populationSize candidates per generation
+     * @return tuner
+     */
+    private static StrategyTuner tuner(MatchFactory matchFactory, List<byte[]> checkpoints, int populationSize) {
+        return new StrategyTuner.Builder(matchFactory)
+                .addPlayStrategy(Pick.INSTANCE, RISKY, 0.0)
+                .addPlayStrategy(Pick.INSTANCE, SAFE, 1.0)
+                .population(populationSize, 2)
+                .gamesPerOpponent(40)
+                .mutation(0.5, 0.5)
+                .addOpponent(new Player.Builder(true).addPlayStrategy(Pick.INSTANCE, SAFE).build())
+                .seed(17)
+                .checkpoint(bytes -> {
+                    byte[] copy = new byte[bytes.remaining()];
+                    bytes.get(copy);
+                    checkpoints.add(copy);
+                })
+                .build();
+    }
+
+    @Test
+    public void testTune() {
+        List<byte[]> checkpoints = new ArrayList<>();
+        StrategyTuner.Population population = tuner(checkpoints).run(5);
+        Assert.assertEquals(5, population.getGeneration());
+        Assert.assertEquals(12, population.size());
+        Assert.assertEquals(5, checkpoints.size());
+
+        // the tuner learns to favour the risky option
+        double[] best = population.getBestWeights();
+        Assert.assertTrue(best[0] > best[1]);
+        Assert.assertTrue(population.getBestFitness() > 0.5);
+    }
+
+    @Test
+    public void testReuseStates() {
+
+        // each candidate's games against an opponent reuse one state, and reusing states plays the same games
+        CountingDuel reusing = new CountingDuel(true);
+        CountingDuel creating = new CountingDuel(false);
+        StrategyTuner.Population reused = tuner(reusing, new ArrayList<>(), 12).run(2);
+        StrategyTuner.Population created = tuner(creating, new ArrayList<>(), 12).run(2);
+        Assert.assertEquals(2 * 12, reusing.created.get());
+        Assert.assertEquals(2 * 12 * 40, creating.created.get());
+        for (int candidate = 0; candidate < reused.size(); ++candidate) {
+            Assert.assertArrayEquals(reused.getWeights(candidate), created.getWeights(candidate), 0.0);
+        }
+    }
+
+    @Test
+    public void testResume() {
+
+        // resuming from a checkpoint evolves the same weights as not stopping
+        List<byte[]> checkpoints = new ArrayList<>();
+        StrategyTuner.Population straight = tuner(checkpoints).run(4);
+        StrategyTuner.Population resumed = tuner(new ArrayList<>())
+                .resume(new BinaryReader(ByteBuffer.wrap(checkpoints.get(1))), 2);
+        Assert.assertEquals(straight.getGeneration(), resumed.getGeneration());
+        for (int candidate = 0; candidate < straight.size(); ++candidate) {
+            Assert.assertArrayEquals(straight.getWeights(candidate), resumed.getWeights(candidate), 0.0);
+        }
+        Assert.assertArrayEquals(straight.getBestWeights(), resumed.getBestWeights(), 0.0);
+        Assert.assertEquals(straight.getBestFitness(), resumed.getBestFitness(), 0.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testResumeOtherPopulation() {
+        List<byte[]> checkpoints = new ArrayList<>();
+        tuner(checkpoints).run(1);
+        tuner(new ArrayList<>(), 8).resume(new BinaryReader(ByteBuffer.wrap(checkpoints.get(0))), 1);
+    }
+
+    @Test
+    public void testScaledStrategy() {
+        WeightedPlayChoice playChoice = new WeightedPlayChoice(2);
+        new ScaledStrategy(RISKY, 2.5).consider(null, null, playChoice);
+        new ScaledStrategy(RISKY, 0.5).consider(null, null, playChoice);
+        new ScaledStrategy(SAFE, -1.0).consider(null, null, playChoice);
+        Assert.assertEquals(3.0, playChoice.getWeight(1), 0.0);
+        Assert.assertEquals(-1.0, playChoice.getWeight(0), 0.0);
+
+        // nested scaled strategies each weigh into their own partial
+        new ScaledStrategy(new ScaledStrategy(RISKY, 2.0), 3.0).consider(null, null, playChoice);
+        Assert.assertEquals(9.0, playChoice.getWeight(1), 0.0);
+    }
+}
@@ -0,0 +1,168 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class TournamentTest {
+
+    // player with a score
+    //
+    private static class Score implements PlayerState {
+
+        private int score = 0;
+
+        @Override
+        public String getName() {
+            return "Score";
+        }
+
+        @Override
+        public int getScore() {
+            return score;
+        }
+    }
+
+    // seats players, each scoring a die roll plus its strength
+    //
+    private static class DiceState implements GameState, SeatedState {
+
+        private final int[] strengths;
+        private final Score[] scores;
+        private final GameRandom random;
+        private boolean rolled = false;
+
+        DiceState(int[] strengths, GameRandom random) {
+            this.strengths = strengths;
+            this.scores = new Score[strengths.length];
+            for (int seat = 0; seat < scores.length; ++seat) {
+                scores[seat] = new Score();
+            }
+            this.random = random;
+        }
+
+        @Override
+        public PlayerState getPlayerState(int seat) {
+            return scores[seat];
+        }
+
+        @Override
+        public boolean isGameOver() {
+            return rolled;
+        }
+    }
+
+    // plays dice games between players of known strengths
+    //
+    private static class Dice implements MatchFactory {
+
+        private final Map<Player, Integer> strengths = new IdentityHashMap<>();
+
+        Player player(int strength) {
+            Player player = new Player.Builder(true).build();
+            strengths.put(player, strength);
+            return player;
+        }
+
+        @Override
+        public Game newGame() {
+            return new Game.Builder()
+                    .addGameRound((DirectGameRound) gameState -> {
+                        DiceState diceState = DiceState.class.cast(gameState);
+                        for (int seat = 0; seat < diceState.scores.length; ++seat) {
+                            diceState.scores[seat].score = diceState.random.nextInt(6) + diceState.strengths[seat];
+                        }
+                        diceState.rolled = true;
+                        return null;
+                    })
+                    .build();
+        }
+
+        @Override
+        public GameState newGameState(Player[] seats, GameRandom random) {
+            int[] seatStrengths = new int[seats.length];
+            for (int seat = 0; seat < seats.length; ++seat) {
+                seatStrengths[seat] = strengths.get(seats[seat]);
+            }
+            return new DiceState(seatStrengths, random);
+        }
+    }
+
+    @Test
+    public void testRatings() {
+        Dice dice = new Dice();
+        Tournament tournament = new Tournament.Builder(dice)
+                .addPlayer(dice.player(0))
+                .addPlayer(dice.player(2))
+                .addPlayer(dice.player(1))
+                .addPlayer(dice.player(100))
+                .seed(3)
+                .build();
+        Tournament.Standings standings = tournament.run();
+        Assert.assertArrayEquals(new int[] {3, 1, 2, 0}, standings.getRanking());
+
+        // a settled matchup stops at its fewest games, a close one plays on
+        Assert.assertEquals(32, standings.getGames(3, 0));
+        Assert.assertEquals(1.0, standings.getScoreRate(3, 0), 0.0);
+        Assert.assertTrue(standings.getGames(1, 2) > 32);
+        Assert.assertEquals(standings.getGames(1, 2), standings.getGames(2, 1));
+        Assert.assertEquals(1.0, standings.getScoreRate(1, 2) + standings.getScoreRate(2, 1), 1e-9);
+        Assert.assertTrue(standings.getScoreRate(1, 2) > 0.5);
+        Assert.assertEquals(standings.getGames(1, 0) + standings.getGames(1, 2) + standings.getGames(1, 3),
+                standings.getGames(1));
+    }
+
+    @Test
+    public void testSeatsAndReproducibleGames() {
+
+        // every group of 3 of 4 players plays in every seat permutation
+        Assert.assertEquals(4, Tournament.combinations(4, 3).size());
+        Assert.assertEquals(6, Tournament.permutations(3).length);
+
+        Dice dice = new Dice();
+        Player[] players = {dice.player(0), dice.player(1), dice.player(2), dice.player(3)};
+        ForkJoinPool pool = new ForkJoinPool(3);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            Tournament.Standings first = tournament(dice, players, pool).run();
+            Tournament.Standings second = tournament(dice, players, single).run();
+            for (int player = 0; player < players.length; ++player) {
+                Assert.assertEquals(first.getScoreRate(player), second.getScoreRate(player), 1e-9);
+                Assert.assertEquals(first.getRating(player), second.getRating(player), 0.0);
+                Assert.assertEquals(3 * 60, first.getGames(player));
+            }
+            Assert.assertArrayEquals(new int[] {3, 2, 1, 0}, first.getRanking());
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+    }
+
+    /**
+     * Return a tournament of 3-seat games that never settles early
+     * @param dice match factory
+     * @param players players
+     * @param pool pool playing games
+     * @return tournament
+     */
+    private static Tournament tournament(Dice dice, Player[] players, ForkJoinPool pool) {
+        Tournament.Builder builder = new Tournament.Builder(dice)
+                .seats(3)
+                .games(60, 60)
+                .confidence(1.96, 1e-9)
+                .pool(pool)
+                .seed(9);
+        for (Player player : players) {
+            builder.addPlayer(player);
+        }
+        return builder.build();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTooFewPlayers() {
+        new Tournament.Builder(new Dice()).addPlayer(new Player.Builder(true).build()).build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TranspositionTableTest {
+
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1000);
+        Assert.assertEquals(1024, table.getCapacity());
+
+        // an empty table holds nothing, whatever the hash
+        for (long hash = 0; hash < 2048; ++hash) {
+            Assert.assertFalse(table.contains(hash));
+        }
+        table.store(0, 0);
+        Assert.assertTrue(table.contains(0));
+        Assert.assertEquals(0, table.probe(0, -1));
+
+        // a new entry replaces the entry in its slot
+        table.store(1024, 5);
+        Assert.assertEquals(-1, table.probe(0, -1));
+        Assert.assertEquals(5, table.probe(1024, -1));
+
+        table.clear();
+        Assert.assertFalse(table.contains(1024));
+    }
+
+    @Test
+    public void testConcurrentStores() throws Exception {
+
+        // threads storing into the same few slots never read a value stored for another hash
+        TranspositionTable table = new TranspositionTable(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[4];
+            for (int thread = 0; thread < futures.length; ++thread) {
+                long seed = thread;
+                futures[thread] = executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    for (int i = 0; i < 100_000; ++i) {
+                        long hash = random.nextLong();
+                        table.store(hash, hash * 31);
+                        long value = table.probe(hash ^ 1, Long.MIN_VALUE);
+                        Assert.assertTrue(value == Long.MIN_VALUE || value == (hash ^ 1) * 31);
+                    }
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UndoLogTest {
+
+    @Test
+    public void testRestore() {
+        UndoLog undoLog = new UndoLog();
+        UndoLog.IntCell score = undoLog.newInt(5);
+        UndoLog.LongCell hand = undoLog.newLong(0b1011L);
+        UndoLog.ValueCell<String> leader = undoLog.newValue("Alice");
+        UndoLog.IntArrayCell tricks = undoLog.newIntArray(4);
+
+        // changes without a snapshot are not recorded
+        score.add(1);
+        Assert.assertEquals(0, undoLog.size());
+
+        // change everything, then restore
+        int snapshot = undoLog.snapshot();
+        score.set(20);
+        hand.set(0L);
+        leader.set("Bob");
+        tricks.set(2, 3);
+        Assert.assertEquals(4, undoLog.size());
+        undoLog.restore(snapshot);
+        Assert.assertEquals(6, score.get());
+        Assert.assertEquals(0b1011L, hand.get());
+        Assert.assertEquals("Alice", leader.get());
+        Assert.assertEquals(0, tricks.get(2));
+        Assert.assertEquals(0, undoLog.getDepth());
+        Assert.assertEquals(0, undoLog.size());
+    }
+
+    @Test
+    public void testOneRecordPerSnapshot() {
+
+        // repeated changes to a cell record only its first old value
+        UndoLog undoLog = new UndoLog();
+        UndoLog.IntCell score = undoLog.newInt(0);
+        UndoLog.IntArrayCell tricks = undoLog.newIntArray(4);
+        int snapshot = undoLog.snapshot();
+        for (int i = 0; i < 100; ++i) {
+            score.add(1);
+            tricks.add(i % 4, 1);
+        }
+        Assert.assertEquals(5, undoLog.size());
+        undoLog.restore(snapshot);
+        Assert.assertEquals(0, score.get());
+        Assert.assertEquals(0, tricks.get(3));
+    }
+
+    @Test
+    public void testNested() {
+        UndoLog undoLog = new UndoLog();
+        UndoLog.IntCell score = undoLog.newInt(0);
+
+        // nest snapshots, changing the cell at every level
+        int outer = undoLog.snapshot();
+        score.set(1);
+        int inner = undoLog.snapshot();
+        score.set(2);
+
+        // restoring the inner snapshot keeps the outer one
+        undoLog.restore(inner);
+        Assert.assertEquals(1, score.get());
+        Assert.assertEquals(1, undoLog.getDepth());
+
+        // changes after a restore are recorded again
+        inner = undoLog.snapshot();
+        score.set(3);
+        undoLog.restore(inner);
+        Assert.assertEquals(1, score.get());
+        score.set(4);
+        undoLog.restore(outer);
+        Assert.assertEquals(0, score.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInactiveSnapshot() {
+        UndoLog undoLog = new UndoLog();
+        undoLog.restore(undoLog.snapshot());
+        undoLog.restore(0);
+    }
+
+    @Test
+    public void testToString() {
+        Assert.assertNotNull(new UndoLog().toString());
+    }
+}
@@ -0,0 +1,137 @@
+package com.mrsnottypants.gamecomponent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class WeightedPlayChoiceTest {
+
+    private static final int CARDS = 52;
+
+    @Test
+    public void testCombine() {
+
+        // add
+        WeightedPlayChoice add = new WeightedPlayChoice(CARDS);
+        add.weigh(7, 2.0);
+        add.weigh(7, 3.0);
+        Assert.assertEquals(5.0, add.getWeight(7), 0.0);
+
+        // max
+        WeightedPlayChoice max = new WeightedPlayChoice(CARDS, WeightedPlayChoice.Combine.MAX);
+        max.weigh(7, 2.0);
+        max.weigh(7, 3.0);
+        max.weigh(7, 1.0);
+        Assert.assertEquals(3.0, max.getWeight(7), 0.0);
+
+        // multiply
+        WeightedPlayChoice multiply = new WeightedPlayChoice(CARDS, WeightedPlayChoice.Combine.MULTIPLY);
+        multiply.weigh(7, 2.0);
+        multiply.weigh(7, 3.0);
+        Assert.assertEquals(6.0, multiply.getWeight(7), 0.0);
+
+        // options not weighed
+        Assert.assertFalse(multiply.contains(8));
+        Assert.assertEquals(0.0, multiply.getWeight(8), 0.0);
+        Assert.assertEquals(1, multiply.size());
+    }
+
+    @Test
+    public void testClear() {
+
+        // cleared choices forget their options
+        WeightedPlayChoice choice = new WeightedPlayChoice(CARDS);
+        choice.weigh(3, 1.0);
+        choice.weigh(4, 2.0);
+        choice.clear();
+        Assert.assertEquals(0, choice.size());
+        Assert.assertFalse(choice.contains(3));
+        Assert.assertEquals(-1, choice.argmax());
+
+        // and start over
+        choice.weigh(4, 5.0);
+        Assert.assertEquals(5.0, choice.getWeight(4), 0.0);
+        Assert.assertFalse(choice.contains(3));
+    }
+
+    @Test
+    public void testArgmax() {
+
+        // ties go to the option weighed first
+        WeightedPlayChoice choice = new WeightedPlayChoice(CARDS);
+        choice.weigh(9, 1.0);
+        choice.weigh(5, 4.0);
+        choice.weigh(2, 4.0);
+        Assert.assertEquals(5, choice.argmax());
+    }
+
+    @Test
+    public void testTopK() {
+        Random random = new Random(42);
+        WeightedPlayChoice choice = new WeightedPlayChoice(CARDS);
+        int[] best = new int[CARDS];
+        for (int trial = 0; trial < 200; ++trial) {
+
+            // weigh a random hand, with plenty of ties
+            choice.clear();
+            List<Integer> order = new ArrayList<>();
+            for (int card = 0; card < CARDS; ++card) {
+                if (random.nextBoolean()) {
+                    choice.weigh(card, random.nextInt(5));
+                    order.add(card);
+                }
+            }
+
+            // expected order: highest weight, then first weighed
+            order.sort((first, second) -> Double.compare(choice.getWeight(second), choice.getWeight(first)));
+            int k = random.nextInt(CARDS);
+            int count = choice.topK(k, best);
+            Assert.assertEquals(Math.min(k, order.size()), count);
+            for (int i = 0; i < count; ++i) {
+                Assert.assertEquals((int) order.get(i), best[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testSample() {
+
+        // zero temperature always picks the highest weight
+        WeightedPlayChoice choice = new WeightedPlayChoice(CARDS);
+        Random random = new Random(7);
+        Assert.assertEquals(-1, choice.sample(1.0, random));
+        choice.weigh(1, 0.0);
+        choice.weigh(2, Math.log(3.0));
+        Assert.assertEquals(2, choice.sample(0.0, random));
+
+        // otherwise picks in proportion to exp(weight / temperature)
+        int twos = 0;
+        for (int i = 0; i < 10000; ++i) {
+            twos += choice.sample(1.0, random) == 2 ? 1 : 0;
+        }
+        Assert.assertEquals(0.75, twos / 10000.0, 0.03);
+    }
+
+    @Test
+    public void testMerge() {
+
+        // merged partials match weighing directly
+        WeightedPlayChoice choice = new WeightedPlayChoice(CARDS, WeightedPlayChoice.Combine.MULTIPLY);
+        choice.weigh(1, 2.0);
+        WeightedPlayChoice partial = choice.newPartial();
+        partial.weigh(1, 3.0);
+        partial.weigh(2, 5.0);
+        choice.merge(partial);
+        Assert.assertEquals(6.0, choice.getWeight(1), 0.0);
+        Assert.assertEquals(5.0, choice.getWeight(2), 0.0);
+        Assert.assertEquals(WeightedPlayChoice.Combine.MULTIPLY, partial.getCombine());
+    }
+
+    @Test
+    public void testToString() {
+        WeightedPlayChoice choice = new WeightedPlayChoice(CARDS);
+        choice.weigh(1, 2.0);
+        Assert.assertNotNull(choice.toString());
+    }
+}